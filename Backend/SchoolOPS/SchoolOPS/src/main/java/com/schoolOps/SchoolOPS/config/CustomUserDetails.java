@@ -10,36 +10,51 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-@RequiredArgsConstructor
+/**
+ * Immutable snapshot of the authenticated user. It holds no reference to the
+ * {@link User} entity, so it can be cached across requests and transactions,
+ * or rebuilt from verified JWT claims without touching the database.
+ */
 @Getter
+@AllArgsConstructor
 @Slf4j
 public class CustomUserDetails implements UserDetails {
 
-    private final User user;
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final String name;
+    private final String role;
+    private final boolean enabled;
+    private final Long studentId;
+    private final Long teacherId;
+    private final int tokenVersion;
+
+    public CustomUserDetails(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.password = user.getPassword();
+        this.name = user.getName();
+        this.role = user.getRole();
+        this.enabled = user.isEnabled();
+        this.studentId = user.getStudent() != null ? user.getStudent().getId() : null;
+        this.teacherId = user.getTeacher() != null ? user.getTeacher().getId() : null;
+        this.tokenVersion = user.getTokenVersion();
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        String role = user.getRole().startsWith("ROLE_")
-                ? user.getRole()
-                : "ROLE_" + user.getRole();
-
-        log.debug("Granting authority={} to user={}", role, user.getUsername());
+        String authority = role.startsWith("ROLE_")
+                ? role
+                : "ROLE_" + role;
 
-        return List.of(new SimpleGrantedAuthority(role));
-    }
+        log.debug("Granting authority={} to user={}", authority, username);
 
-    @Override
-    public String getPassword() {
-        return user.getPassword();
-    }
-
-    @Override
-    public String getUsername() {
-        return user.getUsername();
+        return List.of(new SimpleGrantedAuthority(authority));
     }
 
     @Override
@@ -56,10 +71,4 @@ public class CustomUserDetails implements UserDetails {
     public boolean isCredentialsNonExpired() {
         return true;
     }
-
-    @Override
-    public boolean isEnabled() {
-        return user.isEnabled();
-    }
 }
-
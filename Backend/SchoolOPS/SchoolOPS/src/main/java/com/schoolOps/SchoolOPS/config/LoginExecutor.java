@@ -0,0 +1,63 @@
+package com.schoolOps.SchoolOPS.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Dedicated, bounded pool for password verification on login. A burst of
+ * logins queues here (and is rejected once the queue is full) instead of
+ * pinning every Tomcat worker on CPU-bound hashing.
+ *
+ * <p>Kept as a plain component rather than an {@code Executor} bean so it
+ * does not replace Spring Boot's default application task executor.
+ */
+@Component
+public class LoginExecutor {
+
+    private final ThreadPoolTaskExecutor executor;
+
+    public LoginExecutor(
+            @Value("${app.security.login.threads:0}") int threads,
+            @Value("${app.security.login.queue-capacity:200}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        int poolSize = threads > 0
+                ? threads
+                : Runtime.getRuntime().availableProcessors();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.initialize();
+
+        Gauge.builder("schoolops.login.queue.depth", executor,
+                        e -> e.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("schoolops.login.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws org.springframework.core.task.TaskRejectedException when the
+     * queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,8 +1,11 @@
 package com.schoolOps.SchoolOPS.config;
 
 import com.schoolOps.SchoolOPS.config.jwt.JwtFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,9 +13,12 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -20,18 +26,50 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
     private final JwtFilter jwtFilter;
+    private final MeterRegistry meterRegistry;
+
+    // encoder id used for new hashes: pbkdf2 (default) or bcrypt
+    @Value("${app.security.password.encoder:pbkdf2}")
+    private String passwordEncoderId;
+
+    @Value("${app.security.password.pbkdf2-iterations:150000}")
+    private int pbkdf2Iterations;
+
+    @Value("${app.security.password.bcrypt-strength:12}")
+    private int bcryptStrength;
 
     // ---------------- PASSWORD ENCODER ----------------
+
+    // Existing hashes are bare BCrypt strings; they still verify and are
+    // re-encoded with the configured encoder on the next successful login.
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder(
+                "",
+                16,
+                pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256
+        ));
+
+        DelegatingPasswordEncoder delegating =
+                new DelegatingPasswordEncoder(passwordEncoderId, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new TimedPasswordEncoder(delegating, meterRegistry);
     }
 
     // ---------------- AUTH PROVIDER ----------------
@@ -40,6 +78,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider =
                 new DaoAuthenticationProvider(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder());
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
         return provider;
     }
 
@@ -108,6 +147,9 @@ public class SecurityConfig {
 
                 .authorizeHttpRequests(auth -> auth
 
+                        // ---------- ASYNC DISPATCH (event streams completing; already authorized) ----------
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // ---------- PUBLIC ----------
                         .requestMatchers("/api/auth/**", "/api/public/**").permitAll()
 
@@ -120,9 +162,12 @@ public class SecurityConfig {
                         // ---------- ROLE BASED ----------
                         .requestMatchers("/api/student/**").hasRole("STUDENT")
                         .requestMatchers("/api/teacher/**").hasRole("TEACHER")
-                        .requestMatchers("/api/account/**").hasAnyRole("ADMIN", "ACCOUNTANT")
+                        .requestMatchers("/api/account/**", "/api/accounts/**").hasAnyRole("ADMIN", "ACCOUNTANT")
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
+                        // ---------- METRICS ----------
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // ---------- EVERYTHING ELSE ----------
                         .anyRequest().authenticated()
                 )
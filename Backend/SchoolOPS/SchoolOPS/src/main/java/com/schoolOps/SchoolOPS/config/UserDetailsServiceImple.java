@@ -1,8 +1,11 @@
 package com.schoolOps.SchoolOPS.config;
 
 
+import com.schoolOps.SchoolOPS.entity.User;
 import com.schoolOps.SchoolOPS.repository.UserRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,18 +17,41 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class UserDetailsServiceImple implements UserDetailsService {
+public class UserDetailsServiceImple implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .map(CustomUserDetails::new)
+        CustomUserDetails userDetails = principalCache.get(username, this::loadFromDatabase);
+        if (userDetails == null) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+        return userDetails;
+    }
+
+    // called after a successful login whose stored hash uses an outdated encoder
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
                 .orElseThrow(() ->
-                        new UsernameNotFoundException("User not found: " + username)
+                        new UsernameNotFoundException("User not found: " + userDetails.getUsername())
                 );
+
+        user.replacePasswordHash(newEncodedPassword);
+        userRepository.save(user);
+        principalCache.evict(user);
+
+        log.info("Password hash upgraded | userId={}", user.getId());
+        return new CustomUserDetails(user);
     }
-}
 
+    private CustomUserDetails loadFromDatabase(String username) {
+        return userRepository.findByUsername(username)
+                .map(CustomUserDetails::new)
+                .orElse(null);
+    }
+}
 
@@ -0,0 +1,136 @@
+package com.schoolOps.SchoolOPS.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.schoolOps.SchoolOPS.entity.User;
+import com.schoolOps.SchoolOPS.service.AggregateVersions;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
+import com.schoolOps.SchoolOPS.utils.ExpiringLruCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches authenticated principals by username so the JWT filter and the
+ * controllers do not reload the same user row on every request. In stateless
+ * JWT mode it also caches each user's current token version by id.
+ *
+ * <p>Evicting a user bumps the shared {@link Aggregate#USERS} version, and
+ * every node clears its cache once it sees that version move, i.e. within
+ * {@code app.aggregate-versions.ttl}. A disabled user, a changed password or
+ * a revoked token therefore stops working on all nodes within about a
+ * second, not after the cache TTL.
+ */
+@Component
+@Slf4j
+public class UserPrincipalCache {
+
+    private final ExpiringLruCache<String, CustomUserDetails> cache;
+    private final ExpiringLruCache<Long, Integer> tokenVersions;
+    private final AggregateVersions aggregateVersions;
+
+    // USERS version the cached entries were loaded under; -1 before the first read
+    private final AtomicLong loadedUnder = new AtomicLong(-1);
+
+    public UserPrincipalCache(
+            @Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+            @Value("${app.security.principal-cache.ttl:5m}") Duration ttl,
+            AggregateVersions aggregateVersions,
+            MeterRegistry meterRegistry
+    ) {
+        this.aggregateVersions = aggregateVersions;
+        this.cache = new ExpiringLruCache<>(maxSize, ttl);
+        this.tokenVersions = new ExpiringLruCache<>(maxSize, ttl);
+
+        FunctionCounter.builder("schoolops.principal.cache", cache, ExpiringLruCache::hitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("schoolops.principal.cache", cache, ExpiringLruCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("schoolops.principal.cache.size", cache, ExpiringLruCache::size)
+                .register(meterRegistry);
+    }
+
+    // ---------- READ ----------
+    public CustomUserDetails get(String username, Function<String, CustomUserDetails> loader) {
+        clearIfUsersChanged();
+        return cache.get(username, loader);
+    }
+
+    public Integer tokenVersion(Long userId, Function<Long, Integer> loader) {
+        clearIfUsersChanged();
+        return tokenVersions.get(userId, loader);
+    }
+
+    // a user changed on some node since the entries were loaded
+    private void clearIfUsersChanged() {
+        long version = aggregateVersions.version(Aggregate.USERS);
+        long seen = loadedUnder.get();
+        if (seen != version && loadedUnder.compareAndSet(seen, version)) {
+            cache.clear();
+            tokenVersions.clear();
+            if (seen >= 0) {
+                log.debug("Principal cache cleared after a user change | usersVersion={}", version);
+            }
+        }
+    }
+
+    // ---------- INVALIDATE ----------
+
+    /**
+     * Drops the cached principal now and again once the surrounding
+     * transaction commits, so a concurrent request cannot re-cache the
+     * pre-commit row.
+     */
+    public void evict(User user) {
+        if (user == null) {
+            return;
+        }
+
+        String username = user.getUsername();
+        Long userId = user.getId();
+
+        remove(username, userId);
+        // other nodes drop their copies once the bump commits
+        aggregateVersions.bump(Aggregate.USERS);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            remove(username, userId);
+                        }
+                    }
+            );
+        }
+
+        log.debug("Principal evicted | username={}", username);
+    }
+
+    public void evictAll() {
+        cache.clear();
+        tokenVersions.clear();
+        log.debug("Principal cache cleared");
+    }
+
+    private void remove(String username, Long userId) {
+        if (username != null) {
+            cache.remove(username);
+        }
+        if (userId != null) {
+            tokenVersions.remove(userId);
+        }
+    }
+}
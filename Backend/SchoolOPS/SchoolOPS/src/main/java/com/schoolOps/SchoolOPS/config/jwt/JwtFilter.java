@@ -1,12 +1,19 @@
 package com.schoolOps.SchoolOPS.config.jwt;
 
+import com.schoolOps.SchoolOPS.config.CustomUserDetails;
+import com.schoolOps.SchoolOPS.config.UserPrincipalCache;
+import com.schoolOps.SchoolOPS.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -19,11 +26,21 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
+
+    // claims-only authentication: no user lookup per request
+    @Value("${app.security.jwt.stateless:false}")
+    private boolean stateless;
 
     public JwtFilter(JwtUtil jwtUtil,
-                     UserDetailsService userDetailsService) {
+                     UserDetailsService userDetailsService,
+                     UserRepository userRepository,
+                     UserPrincipalCache principalCache) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -38,15 +55,23 @@ public class JwtFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
 
             String token = authHeader.substring(7);
-            String username = jwtUtil.extractUsername(token);
+            Claims claims = parseClaims(token);
+            String username = claims != null ? claims.getSubject() : null;
 
             if (username != null &&
                     SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                var userDetails =
-                        userDetailsService.loadUserByUsername(username);
+                CustomUserDetails claimsPrincipal = stateless
+                        ? jwtUtil.toPrincipal(claims)
+                        : null;
+
+                UserDetails userDetails = claimsPrincipal != null
+                        ? (isTokenVersionCurrent(claimsPrincipal) ? claimsPrincipal : null)
+                        : userDetailsService.loadUserByUsername(username);
 
-                if (jwtUtil.isTokenValid(token, userDetails)) {
+                if (userDetails != null
+                        && userDetails.isEnabled()
+                        && jwtUtil.isTokenValid(claims, userDetails)) {
 
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
@@ -68,6 +93,35 @@ public class JwtFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private Claims parseClaims(String token) {
+
+        try {
+            return jwtUtil.extractClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Ignoring invalid JWT: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Claims are only trusted while their token version matches the user's
+     * current one; role, password or status changes bump it and revoke them.
+     */
+    private boolean isTokenVersionCurrent(CustomUserDetails principal) {
+
+        Integer currentVersion = principalCache.tokenVersion(
+                principal.getId(),
+                id -> userRepository.findTokenVersionById(id).orElse(null)
+        );
+
+        if (currentVersion == null || currentVersion != principal.getTokenVersion()) {
+            logger.debug("Rejecting revoked token | userId=" + principal.getId());
+            return false;
+        }
+        return true;
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
 
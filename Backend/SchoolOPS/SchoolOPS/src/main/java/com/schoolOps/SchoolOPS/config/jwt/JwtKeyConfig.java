@@ -0,0 +1,109 @@
+package com.schoolOps.SchoolOPS.config.jwt;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyStore;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.jsonwebtoken.security.Keys;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the JWT key ring so every node signs and verifies with the same keys.
+ *
+ * <p>Keys come from {@code app.security.jwt.keys} as comma-separated
+ * {@code kid:base64-secret} pairs, or from the secret-key entries of a
+ * PKCS12 keystore (alias = kid). With neither configured a random key is
+ * generated, which logs everyone out on restart.
+ */
+@Configuration
+@Slf4j
+public class JwtKeyConfig {
+
+    @Value("${app.security.jwt.keys:}")
+    private String inlineKeys;
+
+    @Value("${app.security.jwt.keystore.path:}")
+    private String keystorePath;
+
+    @Value("${app.security.jwt.keystore.password:}")
+    private String keystorePassword;
+
+    @Value("${app.security.jwt.active-kid:}")
+    private String activeKid;
+
+    @Bean
+    public JwtKeyRing jwtKeyRing() throws Exception {
+
+        Map<String, Key> keys = new LinkedHashMap<>();
+        keys.putAll(loadInlineKeys());
+        keys.putAll(loadKeystoreKeys());
+
+        if (keys.isEmpty()) {
+            log.warn("No JWT signing keys configured; using an ephemeral key. "
+                    + "Tokens will not survive a restart or be accepted by other nodes.");
+            return JwtKeyRing.ephemeral();
+        }
+
+        // default to the last inline key so appending a key rotates to it;
+        // keystore aliases are unordered, so set active-kid explicitly there
+        String active = activeKid.isBlank()
+                ? keys.keySet().stream().reduce((first, second) -> second).orElseThrow()
+                : activeKid;
+
+        log.info("JWT key ring loaded | keys={} | activeKid={}", keys.keySet(), active);
+        return new JwtKeyRing(keys, active);
+    }
+
+    private Map<String, Key> loadInlineKeys() {
+
+        if (inlineKeys.isBlank()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Key> keys = new LinkedHashMap<>();
+        for (String entry : inlineKeys.split(",")) {
+            String trimmed = entry.trim();
+            int separator = trimmed.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("JWT key must be formatted as kid:base64-secret");
+            }
+            String kid = trimmed.substring(0, separator);
+            byte[] secret = Base64.getDecoder().decode(trimmed.substring(separator + 1));
+            keys.put(kid, Keys.hmacShaKeyFor(secret));
+        }
+        return keys;
+    }
+
+    private Map<String, Key> loadKeystoreKeys() throws Exception {
+
+        if (keystorePath.isBlank()) {
+            return Collections.emptyMap();
+        }
+
+        char[] password = keystorePassword.toCharArray();
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(Path.of(keystorePath))) {
+            keyStore.load(in, password);
+        }
+
+        Map<String, Key> keys = new LinkedHashMap<>();
+        for (String alias : Collections.list(keyStore.aliases())) {
+            if (keyStore.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)) {
+                Key secret = keyStore.getKey(alias, password);
+                keys.put(alias, Keys.hmacShaKeyFor(secret.getEncoded()));
+            }
+        }
+        return keys;
+    }
+}
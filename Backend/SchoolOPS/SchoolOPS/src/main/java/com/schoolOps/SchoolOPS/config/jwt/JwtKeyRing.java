@@ -0,0 +1,72 @@
+package com.schoolOps.SchoolOPS.config.jwt;
+
+import java.security.Key;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Signing keys by key id ({@code kid}). New tokens are signed with the
+ * active key; any key in the ring still verifies, so a key can be rotated
+ * out after the tokens it signed have expired.
+ */
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private final Map<String, Key> keys;
+    private final String activeKid;
+
+    public JwtKeyRing(Map<String, Key> keys, String activeKid) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("JWT key ring must contain at least one key");
+        }
+        if (!keys.containsKey(activeKid)) {
+            throw new IllegalArgumentException("Active JWT key id not found in key ring: " + activeKid);
+        }
+        this.keys = Collections.unmodifiableMap(new LinkedHashMap<>(keys));
+        this.activeKid = activeKid;
+    }
+
+    /**
+     * Single random key, valid only for this JVM. Tokens do not survive a
+     * restart and are not accepted by other nodes.
+     */
+    public static JwtKeyRing ephemeral() {
+        return new JwtKeyRing(
+                Map.of("ephemeral", Keys.secretKeyFor(SignatureAlgorithm.HS256)),
+                "ephemeral"
+        );
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public Key getActiveKey() {
+        return keys.get(activeKid);
+    }
+
+    public boolean contains(String kid) {
+        return keys.containsKey(kid);
+    }
+
+    // tokens issued before kid headers were added are checked against the active key
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            return getActiveKey();
+        }
+        Key key = keys.get(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown JWT key id: " + kid);
+        }
+        return key;
+    }
+}
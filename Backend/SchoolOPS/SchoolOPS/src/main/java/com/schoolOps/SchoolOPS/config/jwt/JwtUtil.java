@@ -1,45 +1,145 @@
 package com.schoolOps.SchoolOPS.config.jwt;
 
+import com.schoolOps.SchoolOPS.config.CustomUserDetails;
+import com.schoolOps.SchoolOPS.utils.ExpiringLruCache;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 
 @Component
 public class JwtUtil {
 
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 24; // 24h
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+
+    // ---------- PRINCIPAL CLAIMS ----------
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_NAME = "name";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_ENABLED = "enabled";
+    static final String CLAIM_STUDENT_ID = "sid";
+    static final String CLAIM_TEACHER_ID = "tid";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+
+    private final JwtKeyRing keyRing;
+
+    // JwtParser is immutable and thread-safe, so one instance serves all requests
+    private final JwtParser parser;
+
+    // token -> verified claims; the token string itself is the key because
+    // hashing it would cost about as much as the HMAC check being skipped
+    private final ExpiringLruCache<String, Claims> verifiedTokens;
+
+    public JwtUtil(
+            JwtKeyRing keyRing,
+            @Value("${app.security.jwt.verified-cache-size:10000}") int verifiedCacheSize,
+            @Value("${app.security.jwt.verified-cache-ttl:5m}") Duration verifiedCacheTtl
+    ) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .build();
+        this.verifiedTokens = new ExpiringLruCache<>(verifiedCacheSize, verifiedCacheTtl);
+    }
 
     public String generateToken(UserDetails userDetails) {
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getActiveKid())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date())
                 .setExpiration(
                         new Date(System.currentTimeMillis() + EXPIRATION_TIME)
-                )
-                .signWith(key)
+                );
+
+        if (userDetails instanceof CustomUserDetails principal) {
+            builder.claim(CLAIM_USER_ID, principal.getId())
+                    .claim(CLAIM_NAME, principal.getName())
+                    .claim(CLAIM_ROLE, principal.getRole())
+                    .claim(CLAIM_ENABLED, principal.isEnabled())
+                    .claim(CLAIM_STUDENT_ID, principal.getStudentId())
+                    .claim(CLAIM_TEACHER_ID, principal.getTeacherId())
+                    .claim(CLAIM_TOKEN_VERSION, principal.getTokenVersion());
+        }
+
+        return builder
+                .signWith(keyRing.getActiveKey())
                 .compact();
     }
 
     public String extractUsername(String token) {
 
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return extractClaims(token).getSubject();
+    }
+
+    /**
+     * Verifies the signature and expiry once and returns the claims.
+     * Recently verified tokens are served from memory until they expire.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public Claims extractClaims(String token) {
+
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return cached;
+            }
+            verifiedTokens.remove(token);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        verifiedTokens.put(token, claims);
+        return claims;
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername());
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
 
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername());
+        return isTokenValid(extractClaims(token), userDetails);
+    }
+
+    private boolean isExpired(Claims claims) {
+
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
+    }
+
+    /**
+     * Rebuilds the principal from verified claims, or returns {@code null}
+     * for tokens issued before principal claims were added.
+     */
+    public CustomUserDetails toPrincipal(Claims claims) {
+
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+
+        Number studentId = claims.get(CLAIM_STUDENT_ID, Number.class);
+        Number teacherId = claims.get(CLAIM_TEACHER_ID, Number.class);
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+
+        return new CustomUserDetails(
+                userId.longValue(),
+                claims.getSubject(),
+                null,
+                claims.get(CLAIM_NAME, String.class),
+                role,
+                Boolean.TRUE.equals(claims.get(CLAIM_ENABLED, Boolean.class)),
+                studentId != null ? studentId.longValue() : null,
+                teacherId != null ? teacherId.longValue() : null,
+                tokenVersion != null ? tokenVersion.intValue() : 0
+        );
     }
 }
@@ -0,0 +1,70 @@
+package com.schoolOps.SchoolOPS.config.sql;
+
+/**
+ * SQL work done by the current request thread: statements prepared, time
+ * spent executing them, entities hydrated and lazy collections initialised.
+ * Hibernate listeners add to it only while {@link QueryStatsFilter} has a
+ * request open on the thread, so background jobs are never counted.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long jdbcNanos;
+    private int entityLoads;
+    private int collectionFetches;
+
+    private QueryStats() {
+    }
+
+    // ---------- LIFECYCLE ----------
+    static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // null when the thread is not serving an instrumented request
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    // ---------- RECORD ----------
+    void statementPrepared() {
+        statements++;
+    }
+
+    void jdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    void entityLoaded() {
+        entityLoads++;
+    }
+
+    void collectionFetched() {
+        collectionFetches++;
+    }
+
+    // ---------- READ ----------
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public int getCollectionFetches() {
+        return collectionFetches;
+    }
+}
@@ -0,0 +1,57 @@
+package com.schoolOps.SchoolOPS.config.sql;
+
+import java.util.List;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hooks {@link QueryStats} into Hibernate: a session event listener for
+ * statement counts and JDBC time, and post-load / collection-initialise
+ * event listeners for entity loads and collection fetches.
+ */
+@Configuration
+public class QueryStatsConfig {
+
+    private static final String INTEGRATOR_PROVIDER = "hibernate.integrator_provider";
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsHibernateProperties() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryStatsSessionListener.class.getName());
+            properties.put(INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(new QueryStatsIntegrator()));
+        };
+    }
+
+    static class QueryStatsIntegrator implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+            EventListenerRegistry registry = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+
+            registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+                QueryStats stats = QueryStats.current();
+                if (stats != null) {
+                    stats.entityLoaded();
+                }
+            });
+            registry.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event -> {
+                QueryStats stats = QueryStats.current();
+                if (stats != null) {
+                    stats.collectionFetched();
+                }
+            });
+        }
+    }
+}
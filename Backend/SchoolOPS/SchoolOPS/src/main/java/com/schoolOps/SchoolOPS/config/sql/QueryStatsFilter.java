@@ -0,0 +1,128 @@
+package com.schoolOps.SchoolOPS.config.sql;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opens a {@link QueryStats} for every request and, once the response is
+ * written (including lazy loads during serialisation), records it under
+ * {@code schoolops.request.sql.*} tagged with the controller method.
+ *
+ * <p>Requests above {@code max-statements} or {@code slow-jdbc-time} are
+ * logged. With {@code fail-on-threshold} they also throw, which fails a
+ * MockMvc test; this is meant for the test profile only, as a real client
+ * has already received the response by then.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxStatements;
+    private final Duration slowJdbcTime;
+    private final boolean failOnThreshold;
+
+    public QueryStatsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.sql.stats.enabled:true}") boolean enabled,
+            @Value("${app.sql.stats.max-statements:25}") int maxStatements,
+            @Value("${app.sql.stats.slow-jdbc-time:500ms}") Duration slowJdbcTime,
+            @Value("${app.sql.stats.fail-on-threshold:false}") boolean failOnThreshold
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxStatements = maxStatements;
+        this.slowJdbcTime = slowJdbcTime;
+        this.failOnThreshold = failOnThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        QueryStats stats = QueryStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryStats.end();
+        }
+
+        // static resources and unmapped paths have no handler method
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            record(handlerName(handler), request, stats);
+        }
+    }
+
+    // ---------- RECORD ----------
+    private void record(String handler, HttpServletRequest request, QueryStats stats) {
+
+        DistributionSummary.builder("schoolops.request.sql.statements")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("schoolops.request.sql.time")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("schoolops.request.entity.loads")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(stats.getEntityLoads());
+        DistributionSummary.builder("schoolops.request.collection.fetches")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(stats.getCollectionFetches());
+
+        boolean tooMany = stats.getStatements() > maxStatements;
+        boolean tooSlow = stats.getJdbcNanos() > slowJdbcTime.toNanos();
+
+        if (!tooMany && !tooSlow) {
+            log.debug("SQL stats | handler={} statements={} jdbcMs={} entityLoads={} collectionFetches={}",
+                    handler, stats.getStatements(), TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()),
+                    stats.getEntityLoads(), stats.getCollectionFetches());
+            return;
+        }
+
+        log.warn("SQL threshold exceeded | handler={} {} {} statements={} jdbcMs={} entityLoads={} collectionFetches={}",
+                handler, request.getMethod(), request.getRequestURI(), stats.getStatements(),
+                TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()), stats.getEntityLoads(),
+                stats.getCollectionFetches());
+
+        if (failOnThreshold) {
+            throw new IllegalStateException(handler + " executed " + stats.getStatements()
+                    + " statements in " + TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos())
+                    + " ms (limits: " + maxStatements + " statements, " + slowJdbcTime.toMillis() + " ms)");
+        }
+    }
+
+    private static String handlerName(HandlerMethod handler) {
+        return handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+    }
+}
@@ -0,0 +1,49 @@
+package com.schoolOps.SchoolOPS.config.sql;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Per-session Hibernate listener (see {@code hibernate.session.events.auto})
+ * that counts prepared statements and times statement and batch execution
+ * into the request's {@link QueryStats}.
+ */
+public class QueryStatsSessionListener implements SessionEventListener {
+
+    private long executeStart;
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            stats.statementPrepared();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        recordExecution();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        recordExecution();
+    }
+
+    private void recordExecution() {
+        QueryStats stats = QueryStats.current();
+        if (stats != null && executeStart != 0) {
+            stats.jdbcTime(System.nanoTime() - executeStart);
+        }
+        executeStart = 0;
+    }
+}
@@ -1,19 +1,39 @@
 package com.schoolOps.SchoolOPS.controller;
 
-import java.security.Principal;
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
+import com.schoolOps.SchoolOPS.config.CustomUserDetails;
 import com.schoolOps.SchoolOPS.dto.AccountResponseDto;
-import com.schoolOps.SchoolOPS.entity.Transaction;
-import com.schoolOps.SchoolOPS.entity.User;
+import com.schoolOps.SchoolOPS.dto.AccountStatementDto;
+import com.schoolOps.SchoolOPS.dto.BillingRunDto;
+import com.schoolOps.SchoolOPS.dto.BillingRunRequestDto;
+import com.schoolOps.SchoolOPS.dto.PageRequestDto;
+import com.schoolOps.SchoolOPS.dto.PageResponseDto;
+import com.schoolOps.SchoolOPS.dto.TransactionRequestDto;
+import com.schoolOps.SchoolOPS.dto.TransactionResponseDto;
 import com.schoolOps.SchoolOPS.service.AccountService;
+import com.schoolOps.SchoolOPS.service.BillingRunService;
+import com.schoolOps.SchoolOPS.service.DuesReportService;
 import com.schoolOps.SchoolOPS.service.TeacherService;
-import com.schoolOps.SchoolOPS.service.UserService;
+import com.schoolOps.SchoolOPS.utils.Money;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -21,15 +41,21 @@ import org.springframework.web.bind.annotation.*;
 public class AccountController {
 
     private final AccountService accountService;
-    private final UserService userService;
     private final TeacherService teacherService;
+    private final BillingRunService billingRunService;
+    private final DuesReportService duesReportService;
 
     // -------------------------------------------------
     // GET: ALL ACCOUNTS
     // -------------------------------------------------
     @GetMapping
-    public ResponseEntity<List<AccountResponseDto>> getAllAccounts() {
-        return ResponseEntity.ok(accountService.getAllAccounts());
+    public ResponseEntity<PageResponseDto<AccountResponseDto>> getAllAccounts(
+            PageRequestDto page,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) BigDecimal minBalance,
+            @RequestParam(required = false) BigDecimal maxBalance
+    ) {
+        return ResponseEntity.ok(accountService.getAccounts(page, name, minBalance, maxBalance));
     }
 
     // -------------------------------------------------
@@ -44,28 +70,131 @@ public class AccountController {
         );
     }
 
+    // -------------------------------------------------
+    // GET: TRANSACTION HISTORY (NEWEST FIRST)
+    // -------------------------------------------------
+    @GetMapping("/{accountId}/transactions")
+    public ResponseEntity<PageResponseDto<TransactionResponseDto>> getTransactions(
+            @PathVariable Long accountId,
+            PageRequestDto page
+    ) {
+        return ResponseEntity.ok(accountService.getTransactions(accountId, page));
+    }
+
+    // -------------------------------------------------
+    // GET: STATEMENT (from..to INCLUSIVE)
+    // -------------------------------------------------
+    @GetMapping("/{accountId}/statement")
+    public ResponseEntity<AccountStatementDto> getStatement(
+            @PathVariable Long accountId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            PageRequestDto page
+    ) {
+        return ResponseEntity.ok(accountService.getStatement(accountId, from, to, page));
+    }
+
     // -------------------------------------------------
     // POST: MAKE TRANSACTION
     // -------------------------------------------------
     @PostMapping("/{accountId}/transactions")
     public ResponseEntity<Void> makeTransaction(
             @PathVariable Long accountId,
-            @RequestBody Transaction transaction,
-            Principal principal
+            @RequestBody TransactionRequestDto transaction,
+            @AuthenticationPrincipal CustomUserDetails currentUser
     ) {
 
-        User admin = userService.getUserByUsername(principal.getName());
+        if (transaction.getType() == null || transaction.getAmount() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Type and amount are required");
+        }
 
-        transaction.setRemarks(
+        long amountMinor;
+        try {
+            amountMinor = Money.toMinor(transaction.getAmount());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        accountService.post(
+                accountId,
+                transaction.getType(),
+                amountMinor,
+                transaction.getMode(),
                 (transaction.getRemarks() != null ? transaction.getRemarks() : "")
-                        + " / " + admin.getName()
+                        + " / " + currentUser.getName()
         );
 
-        accountService.makeTransaction(transaction, accountId);
-
         return ResponseEntity.ok().build();
     }
 
+    // -------------------------------------------------
+    // POST: BILLING RUN (runId makes it idempotent)
+    // -------------------------------------------------
+    @PostMapping("/billing-runs")
+    public ResponseEntity<BillingRunDto> startBillingRun(
+            @RequestBody BillingRunRequestDto request,
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        return ResponseEntity.accepted().body(
+                billingRunService.start(request, currentUser.getUsername())
+        );
+    }
+
+    // -------------------------------------------------
+    // GET: BILLING RUN PROGRESS
+    // -------------------------------------------------
+    @GetMapping("/billing-runs/{runId}")
+    public ResponseEntity<BillingRunDto> getBillingRun(
+            @PathVariable String runId
+    ) {
+        return ResponseEntity.ok(billingRunService.get(runId));
+    }
+
+    // -------------------------------------------------
+    // GET: DUES REPORT (CSV, STREAMED)
+    // -------------------------------------------------
+    @GetMapping("/dues/students.csv")
+    public ResponseEntity<StreamingResponseBody> exportStudentDues(
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) BigDecimal minDues
+    ) {
+        long minDuesMinor = minDuesMinor(minDues);
+        return csv("dues-students.csv", out ->
+                duesReportService.writeStudents(writer(out), courseId, minDuesMinor));
+    }
+
+    @GetMapping("/dues/courses.csv")
+    public ResponseEntity<StreamingResponseBody> exportCourseDues(
+            @RequestParam(required = false) BigDecimal minDues
+    ) {
+        long minDuesMinor = minDuesMinor(minDues);
+        return csv("dues-courses.csv", out ->
+                duesReportService.writeCourses(writer(out), minDuesMinor));
+    }
+
+    // validated before the response starts; default: any amount owed
+    private static long minDuesMinor(BigDecimal minDues) {
+        if (minDues == null) {
+            return 1;
+        }
+        try {
+            return Money.toMinor(minDues);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> csv(String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    private static BufferedWriter writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
     // -------------------------------------------------
     // POST: SEARCH ACCOUNTS
     // -------------------------------------------------
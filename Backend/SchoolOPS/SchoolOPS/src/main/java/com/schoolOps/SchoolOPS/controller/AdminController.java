@@ -1,14 +1,20 @@
 package com.schoolOps.SchoolOPS.controller;
 
 
-import java.security.Principal;
 import java.util.List;
 
+import com.schoolOps.SchoolOPS.config.CustomUserDetails;
 import com.schoolOps.SchoolOPS.entity.*;
 import com.schoolOps.SchoolOPS.service.*;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
+import com.schoolOps.SchoolOPS.utils.ConditionalGet;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.util.RawValue;
 
 import com.schoolOps.SchoolOPS.dto.*;
 import java.util.stream.Collectors;
@@ -22,21 +28,32 @@ public class AdminController {
 
     private final AccountService accountService;
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
     private final TeacherService teacherService;
     private final CourseService courseService;
+    private final AttendanceRollupService attendanceRollupService;
     private final UserService userService;
     private final EnqueryService enqueryService;
     private final NoticeService noticeService;
     private final GalleryService galleryService;
+    private final AggregateVersions aggregateVersions;
+    private final EventStreamService eventStreamService;
 
     // =================================================
     // TEACHERS
     // =================================================
 
     @GetMapping("/teachers")
-    public ResponseEntity<List<TeacherResponseDto>> getAllTeachers() {
-        List<Teacher> teachers = teacherService.getAllTeachers();
-        return ResponseEntity.ok(teachers.stream().map(TeacherResponseDto::fromEntity).collect(Collectors.toList()));
+    public ResponseEntity<PageResponseDto<TeacherResponseDto>> getAllTeachers(
+            PageRequestDto page,
+            @RequestParam(required = false) String name,
+            WebRequest request
+    ) {
+        String etag = aggregateVersions.etag(ConditionalGet.query(request), Aggregate.TEACHERS, Aggregate.COURSES);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(teacherService.getTeachers(page, name));
     }
 
     @PostMapping("/teachers")
@@ -69,9 +86,19 @@ public class AdminController {
     // =================================================
 
     @GetMapping("/courses")
-    public ResponseEntity<List<CourseResponseDto>> getAllCourses() {
-        List<Course> courses = courseService.getAllCourses();
-        return ResponseEntity.ok(courses.stream().map(CourseResponseDto::fromEntity).collect(Collectors.toList()));
+    public ResponseEntity<PageResponseDto<CourseResponseDto>> getAllCourses(
+            PageRequestDto page,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String session,
+            @RequestParam(required = false) Long teacherId,
+            WebRequest request
+    ) {
+        String etag = aggregateVersions.etag(ConditionalGet.query(request),
+                Aggregate.COURSES, Aggregate.STUDENTS, Aggregate.TEACHERS);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(courseService.getCourses(page, name, session, teacherId));
     }
 
     @PostMapping(
@@ -120,9 +147,18 @@ public class AdminController {
     // =================================================
 
     @GetMapping("/students")
-    public ResponseEntity<List<StudentResponseDto>> getAllStudents() {
-        List<Student> students = studentService.getAllStudents();
-        return ResponseEntity.ok(students.stream().map(StudentResponseDto::fromEntity).collect(Collectors.toList()));
+    public ResponseEntity<PageResponseDto<StudentResponseDto>> getAllStudents(
+            PageRequestDto page,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) String addBy,
+            WebRequest request
+    ) {
+        String etag = aggregateVersions.etag(ConditionalGet.query(request), Aggregate.STUDENTS, Aggregate.COURSES);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(studentService.getStudents(page, name, courseId, addBy));
     }
 
     @PostMapping("/students")
@@ -131,6 +167,16 @@ public class AdminController {
         return ResponseEntity.ok(studentService.saveStudent(student));
     }
 
+    @PostMapping(
+            value = "/students/import",
+            consumes = "multipart/form-data"
+    )
+    public ResponseEntity<StudentImportReportDto> importStudents(
+            @RequestPart("file") MultipartFile file
+    ) {
+        return ResponseEntity.ok(studentImportService.importCsv(file));
+    }
+
     @PutMapping("/students/{id}")
     public ResponseEntity<Void> updateStudent(
             @PathVariable Long id,
@@ -157,14 +203,71 @@ public class AdminController {
         return ResponseEntity.ok().build();
     }
 
+    // =================================================
+    // ATTENDANCE ANALYTICS
+    // =================================================
+
+    @GetMapping("/attendance/summary")
+    public ResponseEntity<AttendanceRollupDto> getSchoolAttendance() {
+        return ResponseEntity.ok(attendanceRollupService.getSchoolSummary());
+    }
+
+    @GetMapping("/attendance/courses")
+    public ResponseEntity<List<AttendanceRollupDto>> getCourseAttendance() {
+        return ResponseEntity.ok(attendanceRollupService.getCourseSummaries());
+    }
+
+    @GetMapping("/attendance/courses/{courseId}")
+    public ResponseEntity<AttendanceRollupDto> getCourseAttendance(@PathVariable Long courseId) {
+        return ResponseEntity.ok(attendanceRollupService.getCourseSummary(courseId));
+    }
+
+    @GetMapping("/attendance/courses/{courseId}/students")
+    public ResponseEntity<List<AttendanceRollupDto>> getCourseStudentAttendance(@PathVariable Long courseId) {
+        return ResponseEntity.ok(attendanceRollupService.getCourseStudents(courseId));
+    }
+
+    // from / to as yyyy-MM
+    @GetMapping("/attendance/courses/{courseId}/monthly")
+    public ResponseEntity<List<AttendanceRollupDto>> getCourseMonthlyAttendance(
+            @PathVariable Long courseId,
+            @RequestParam String from,
+            @RequestParam String to
+    ) {
+        return ResponseEntity.ok(attendanceRollupService.getCourseMonths(courseId, from, to));
+    }
+
+    @GetMapping("/attendance/students/{studentId}")
+    public ResponseEntity<List<AttendanceRollupDto>> getStudentAttendance(@PathVariable Long studentId) {
+        return ResponseEntity.ok(attendanceRollupService.getStudentSummary(studentId));
+    }
+
+    @GetMapping("/attendance/defaulters")
+    public ResponseEntity<List<AttendanceRollupDto>> getAttendanceDefaulters(
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(defaultValue = "75") int threshold
+    ) {
+        return ResponseEntity.ok(attendanceRollupService.getDefaulters(courseId, threshold));
+    }
+
+    @PostMapping("/attendance/rollups/rebuild")
+    public ResponseEntity<Void> rebuildAttendanceRollups() {
+        attendanceRollupService.rebuildAll();
+        return ResponseEntity.ok().build();
+    }
+
     // =================================================
     // USERS
     // =================================================
 
     @GetMapping("/users")
-    public ResponseEntity<List<UserResponseDto>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users.stream().map(UserResponseDto::fromEntity).collect(Collectors.toList()));
+    public ResponseEntity<PageResponseDto<UserResponseDto>> getAllUsers(
+            PageRequestDto page,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) String name
+    ) {
+        return ResponseEntity.ok(userService.getUsers(page, role, enabled, name));
     }
 
     @PostMapping("/users")
@@ -177,8 +280,12 @@ public class AdminController {
     // =================================================
 
     @GetMapping("/enquiries")
-    public ResponseEntity<List<EnqueryResponseDto>> getEnquiries() {
-        return ResponseEntity.ok(enqueryService.getAllEnquery().stream().map(EnqueryResponseDto::fromEntity).collect(Collectors.toList()));
+    public ResponseEntity<PageResponseDto<EnqueryResponseDto>> getEnquiries(
+            PageRequestDto page,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String query
+    ) {
+        return ResponseEntity.ok(enqueryService.getEnqueries(page, status, query));
     }
 
     @DeleteMapping("/enquiries/{id}")
@@ -198,18 +305,30 @@ public class AdminController {
     // =================================================
 
     @GetMapping("/notices")
-    public ResponseEntity<List<NoticeResponseDto>> getNotices() {
-        return ResponseEntity.ok(noticeService.getAllSortedNotice().stream().map(NoticeResponseDto::fromEntity).collect(Collectors.toList()));
+    public ResponseEntity<PageResponseDto<RawValue>> getNotices(
+            PageRequestDto page,
+            @RequestParam(defaultValue = "FULL") NoticeFeedCache.View view,
+            WebRequest request
+    ) {
+        String etag = aggregateVersions.etag(ConditionalGet.query(request), Aggregate.NOTICES);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(noticeService.getFeed(page, view));
+    }
+
+    @GetMapping(value = "/events", produces = "text/event-stream")
+    public SseEmitter events(@AuthenticationPrincipal CustomUserDetails currentUser) {
+        return eventStreamService.subscribeAdmin(currentUser.getUsername());
     }
 
     @PostMapping("/notices")
     public ResponseEntity<Void> createNotice(
             @RequestPart("notice") Notice notice,
             @RequestPart(value = "file", required = false) MultipartFile file,
-            Principal principal
+            @AuthenticationPrincipal CustomUserDetails currentUser
     ) {
-        User admin = userService.getUserByUsername(principal.getName());
-        notice.setIssueby(admin.getName());
+        notice.setIssueby(currentUser.getName());
         noticeService.saveNoticeWithFile(notice, file);
         return ResponseEntity.ok().build();
     }
@@ -225,7 +344,10 @@ public class AdminController {
     // =================================================
 
     @GetMapping("/gallery")
-    public ResponseEntity<List<GalleryResponseDto>> getGallery() {
+    public ResponseEntity<List<GalleryResponseDto>> getGallery(WebRequest request) {
+        if (ConditionalGet.notModified(request, aggregateVersions.etag(null, Aggregate.GALLERY))) {
+            return null;
+        }
         return ResponseEntity.ok(galleryService.getAllByDate().stream().map(GalleryResponseDto::fromEntity).collect(Collectors.toList()));
     }
 
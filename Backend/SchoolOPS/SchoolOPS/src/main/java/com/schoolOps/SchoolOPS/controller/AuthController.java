@@ -1,47 +1,64 @@
 package com.schoolOps.SchoolOPS.controller;
 
 
+import com.schoolOps.SchoolOPS.config.LoginExecutor;
 import com.schoolOps.SchoolOPS.config.jwt.JwtUtil;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
+@Slf4j
 public class AuthController {
 
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final LoginExecutor loginExecutor;
 
+    // password hashing runs on the login pool; the request thread is released
     @PostMapping("/login")
-    public Map<String, String> login(
+    public CompletableFuture<Map<String, String>> login(
             @RequestBody Map<String, String> request
     ) {
 
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.get("username"),
-                        request.get("password")
-                )
+        try {
+            return loginExecutor.submit(() -> authenticate(
+                    request.get("username"),
+                    request.get("password")
+            ));
+        } catch (TaskRejectedException e) {
+            log.warn("Login rejected, hashing queue full | username={}", request.get("username"));
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many login attempts, please retry shortly"
+            );
+        }
+    }
+
+    private Map<String, String> authenticate(String username, String password) {
+
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(username, password)
         );
 
-        UserDetails userDetails =
-                userDetailsService.loadUserByUsername(
-                        request.get("username")
-                );
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
 
         String token = jwtUtil.generateToken(userDetails);
 
         return Map.of("token", token);
     }
 }
-
@@ -2,26 +2,32 @@ package com.schoolOps.SchoolOPS.controller;
 
 
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import com.schoolOps.SchoolOPS.dto.CourseResponseDto;
 import com.schoolOps.SchoolOPS.dto.EnqueryRequestDto;
 import com.schoolOps.SchoolOPS.dto.GalleryResponseDto;
 import com.schoolOps.SchoolOPS.dto.ResetPasswordRequest;
-import com.schoolOps.SchoolOPS.entity.Course;
 import com.schoolOps.SchoolOPS.entity.Enquery;
 import com.schoolOps.SchoolOPS.entity.User;
-import com.schoolOps.SchoolOPS.service.CourseService;
 import com.schoolOps.SchoolOPS.service.EnqueryService;
 import com.schoolOps.SchoolOPS.service.GalleryService;
+import com.schoolOps.SchoolOPS.service.AggregateVersions;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
+import com.schoolOps.SchoolOPS.service.PublicHomeCache;
 import com.schoolOps.SchoolOPS.service.UserService;
+import com.schoolOps.SchoolOPS.utils.ConditionalGet;
 import com.schoolOps.SchoolOPS.utils.Email;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 
 import lombok.RequiredArgsConstructor;
@@ -32,34 +38,38 @@ import lombok.RequiredArgsConstructor;
 public class PublicApiController {
 
     private final EnqueryService enqueryService;
-    private final CourseService courseService;
     private final UserService userService;
     private final Email emailService;
     private final GalleryService galleryService;
     private final PasswordEncoder passwordEncoder;
+    private final PublicHomeCache publicHomeCache;
+    private final AggregateVersions aggregateVersions;
+
+    @Value("${app.public.home.max-age:60s}")
+    private Duration homeMaxAge;
 
     // =================================================
     // HOME DATA
     // =================================================
+    // cached bytes; a matching If-None-Match gets a 304 without a body
     @GetMapping("/home")
-    public ResponseEntity<?> homeData() {
-        List<Course> courses = courseService.getAllCourses();
-        // Ensure students are loaded
-        courses.forEach(course -> {
-            if (course.getStudents() != null) {
-                course.getStudents().size();
-            }
-        });
-        List<CourseResponseDto> courseDtos =
-                courses.stream().map(CourseResponseDto::fromEntity).collect(Collectors.toList());
-        return ResponseEntity.ok(Map.of("courses", courseDtos));
+    public ResponseEntity<byte[]> homeData() {
+        PublicHomeCache.Payload home = publicHomeCache.get();
+        return ResponseEntity.ok()
+                .eTag(home.etag())
+                .cacheControl(CacheControl.maxAge(homeMaxAge).cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(home.json());
     }
 
     // =================================================
     // STATIC PAGES DATA (optional)
     // =================================================
     @GetMapping("/gallery")
-    public ResponseEntity<List<GalleryResponseDto>> gallery() {
+    public ResponseEntity<List<GalleryResponseDto>> gallery(WebRequest request) {
+        if (ConditionalGet.notModifiedPublic(request, aggregateVersions.etag(null, Aggregate.GALLERY))) {
+            return null;
+        }
         return ResponseEntity.ok(galleryService.getAllByDate().stream().map(GalleryResponseDto::fromEntity).collect(Collectors.toList()));
     }
 
@@ -4,9 +4,6 @@ package com.schoolOps.SchoolOPS.controller;
 import java.util.List;
 
 import com.schoolOps.SchoolOPS.dto.StudentResponseDto;
-import java.util.stream.Collectors;
-
-import com.schoolOps.SchoolOPS.entity.Student;
 import com.schoolOps.SchoolOPS.service.StudentService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -28,15 +25,7 @@ public class SearchController {
     public ResponseEntity<List<StudentResponseDto>> searchStudentByName(
             @RequestParam String query
     ) {
-        List<Student> students = studentService.searchByName(query);
-        students.forEach(student -> {
-            if (student.getCourses() != null) {
-                student.getCourses().size();
-            }
-        });
-        return ResponseEntity.ok(
-                students.stream().map(StudentResponseDto::fromEntity).collect(Collectors.toList())
-        );
+        return ResponseEntity.ok(studentService.searchByName(query));
     }
 
     // ---------------------------------------------
@@ -46,15 +35,7 @@ public class SearchController {
     public ResponseEntity<List<StudentResponseDto>> searchStudentByCourse(
             @RequestParam Long courseId
     ) {
-        List<Student> students = studentService.getStudentsByCourse(courseId);
-        students.forEach(student -> {
-            if (student.getCourses() != null) {
-                student.getCourses().size();
-            }
-        });
-        return ResponseEntity.ok(
-                students.stream().map(StudentResponseDto::fromEntity).collect(Collectors.toList())
-        );
+        return ResponseEntity.ok(studentService.getStudentsByCourse(courseId));
     }
 }
 
@@ -1,23 +1,25 @@
 package com.schoolOps.SchoolOPS.controller;
 
 
-import java.security.Principal;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Locale;
 
+import com.schoolOps.SchoolOPS.config.CustomUserDetails;
 import com.schoolOps.SchoolOPS.dto.*;
 import com.schoolOps.SchoolOPS.entity.*;
 import com.schoolOps.SchoolOPS.service.*;
-import org.json.JSONObject;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
+import com.schoolOps.SchoolOPS.utils.ConditionalGet;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
-
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
-
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.util.RawValue;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,45 +28,66 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class StudentController {
 
-    private float amount; // ⚠️ acceptable for demo, not for prod
-
     private final AccountService accountService;
     private final StudentService studentService;
-    private final UserService userService;
+    private final AttendanceService attendanceService;
+    private final AttendanceRollupService attendanceRollupService;
     private final NoticeService noticeService;
     private final CourseService courseService;
     private final ClassRoomService classRoomService;
+    private final ResponseAssembler responseAssembler;
+    private final AggregateVersions aggregateVersions;
+    private final EventStreamService eventStreamService;
+    private final PaymentService paymentService;
 
     // =================================================
     // STUDENT PROFILE
     // =================================================
     @GetMapping("/profile")
-    public StudentResponseDto getStudentProfile(Principal principal) {
-        User user = userService.getUserByUsername(principal.getName());
-        Student student = user.getStudent();
-        // Ensure courses are loaded
-        if (student.getCourses() != null) {
-            student.getCourses().size(); // initialize lazy collection
+    public StudentResponseDto getStudentProfile(@AuthenticationPrincipal CustomUserDetails currentUser, WebRequest request) {
+        String etag = aggregateVersions.etag("student:" + currentUser.getStudentId(), Aggregate.STUDENTS, Aggregate.COURSES);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
         }
-        return StudentResponseDto.fromEntity(student);
+        Student student = studentService.getStudentById(currentUser.getStudentId());
+        return responseAssembler.student(student);
+    }
+
+    // =================================================
+    // EVENT STREAM (new notices, classwork of enrolled courses)
+    // =================================================
+    @GetMapping(value = "/events", produces = "text/event-stream")
+    public SseEmitter events(@AuthenticationPrincipal CustomUserDetails currentUser) {
+        return eventStreamService.subscribeStudent(currentUser.getUsername(), currentUser.getStudentId());
     }
 
     // =================================================
     // NOTICE BOARD
     // =================================================
     @GetMapping("/notices")
-    public List<NoticeResponseDto> getNotices() {
-        return noticeService.getAllSortedNotice().stream().map(NoticeResponseDto::fromEntity).collect(Collectors.toList());
+    public PageResponseDto<RawValue> getNotices(
+            PageRequestDto page,
+            @RequestParam(defaultValue = "FULL") NoticeFeedCache.View view,
+            WebRequest request
+    ) {
+        String etag = aggregateVersions.etag(ConditionalGet.query(request), Aggregate.NOTICES);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return noticeService.getFeed(page, view);
     }
 
     // =================================================
     // COURSES
     // =================================================
     @GetMapping("/courses")
-    public List<CourseResponseDto> getCourses(Principal principal) {
-        User user = userService.getUserByUsername(principal.getName());
-        List<Course> courses = user.getStudent().getCourses();
-        return courses.stream().map(CourseResponseDto::fromEntity).collect(Collectors.toList());
+    public List<CourseResponseDto> getCourses(@AuthenticationPrincipal CustomUserDetails currentUser, WebRequest request) {
+        String etag = aggregateVersions.etag("student:" + currentUser.getStudentId(),
+                Aggregate.COURSES, Aggregate.STUDENTS, Aggregate.TEACHERS);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return courseService.getStudentCourses(currentUser.getStudentId());
     }
 
     // =================================================
@@ -73,77 +96,88 @@ public class StudentController {
     @GetMapping("/attendance/{courseId}")
     public List<String> getAttendance(
             @PathVariable Long courseId,
-            Principal principal
+            @AuthenticationPrincipal CustomUserDetails currentUser
     ) {
 
-        User user = userService.getUserByUsername(principal.getName());
-        Long studentId = user.getStudent().getId();
+        Long studentId = currentUser.getStudentId();
 
-        List<Attendence> attendance =
-                studentService.getAttendence(courseId, studentId);
+        List<LocalDate> presentDates =
+                attendanceService.getPresentDates(courseId, studentId);
 
         List<String> dates = new ArrayList<>();
-        SimpleDateFormat df = new SimpleDateFormat("MMMM/dd/yyyy");
+        DateTimeFormatter df = DateTimeFormatter.ofPattern("MMMM/dd/yyyy", Locale.ENGLISH);
 
-        attendance.forEach(a -> dates.add(df.format(a.getDate())));
+        presentDates.forEach(date -> dates.add(df.format(date)));
         return dates;
     }
 
+    @GetMapping("/attendance/{courseId}/summary")
+    public AttendanceStatsDto getAttendanceSummary(
+            @PathVariable Long courseId,
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        return attendanceService.getStudentStats(courseId, currentUser.getStudentId());
+    }
+
+    @GetMapping("/attendance/stats")
+    public List<AttendanceRollupDto> getAttendanceStats(
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        return attendanceRollupService.getStudentSummary(currentUser.getStudentId());
+    }
+
     // =================================================
     // ACCOUNT
     // =================================================
     @GetMapping("/account")
-    public AccountResponseDto getAccount(Principal principal) {
-        Account account = userService
-                .getUserByUsername(principal.getName())
-                .getStudent()
+    public AccountResponseDto getAccount(@AuthenticationPrincipal CustomUserDetails currentUser) {
+        Account account = studentService
+                .getStudentById(currentUser.getStudentId())
                 .getAccount();
-        // Ensure transactions are loaded
-        if (account.getTransactions() != null) {
-            account.getTransactions().size();
-        }
-        return AccountResponseDto.fromEntity(account);
+        return responseAssembler.account(account);
+    }
+
+    @GetMapping("/account/transactions")
+    public PageResponseDto<TransactionResponseDto> getTransactions(
+            @AuthenticationPrincipal CustomUserDetails currentUser,
+            PageRequestDto page
+    ) {
+        Long accountId = accountService.getStudentAccountId(currentUser.getStudentId());
+        return accountService.getTransactions(accountId, page);
+    }
+
+    @GetMapping("/account/statement")
+    public AccountStatementDto getStatement(
+            @AuthenticationPrincipal CustomUserDetails currentUser,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            PageRequestDto page
+    ) {
+        Long accountId = accountService.getStudentAccountId(currentUser.getStudentId());
+        return accountService.getStatement(accountId, from, to, page);
     }
 
     // =================================================
     // PAYMENT (RAZORPAY)
     // =================================================
+    // order amount and account are stored server side; success only names the order
     @PostMapping("/payment/request")
-    public String createPayment(@RequestBody Map<String, Object> data)
-            throws Exception {
-
-        this.amount = Float.parseFloat(data.get("amount").toString());
-
-        RazorpayClient client = new RazorpayClient(
-                "rzp_test_SGUXdDf8BB9T6g",
-                "cWsUxkn22eyHmovt248wLiEL"
-        );
-
-        JSONObject options = new JSONObject();
-        options.put("amount", amount * 100);
-        options.put("currency", "INR");
-        options.put("receipt", "txn_123456");
-
-        Order order = client.orders.create(options);
-        return order.toString();
+    public PaymentOrderDto createPayment(
+            @AuthenticationPrincipal CustomUserDetails currentUser,
+            @RequestBody PaymentRequestDto payment
+    ) {
+        Long accountId = accountService.getStudentAccountId(currentUser.getStudentId());
+        return paymentService.createOrder(accountId, payment.getAmount());
     }
 
+    // idempotent: a replayed callback returns the paid order without crediting again
     @PostMapping("/payment/success")
-    public String paymentSuccess(@RequestBody Map<String, Object> data) {
-
-        Long accountId =
-                Long.parseLong(data.get("account_id").toString());
-
-        Transaction transaction = new Transaction();
-        transaction.setAmount(this.amount);
-        transaction.setType("CREDIT");
-        transaction.setMode("ONLINE");
-        transaction.setRemarks(
-                "SELF / PAYMENT ID - " + data.get("payment_id")
-        );
-
-        accountService.makeTransaction(transaction, accountId);
-        return "Payment recorded";
+    public PaymentOrderDto paymentSuccess(
+            @AuthenticationPrincipal CustomUserDetails currentUser,
+            @RequestBody PaymentCaptureRequestDto capture
+    ) {
+        Long accountId = accountService.getStudentAccountId(currentUser.getStudentId());
+        return paymentService.capture(accountId, capture);
     }
 
     // =================================================
@@ -162,11 +196,10 @@ public class StudentController {
             @RequestPart("work") Work work,
             @RequestPart("file") MultipartFile file,
             @RequestParam Long classWorkId,
-            Principal principal
+            @AuthenticationPrincipal CustomUserDetails currentUser
     ) {
 
-        User user = userService.getUserByUsername(principal.getName());
-        Student student = user.getStudent();
+        Student student = studentService.getStudentById(currentUser.getStudentId());
 
         work.setStudent(student);
         work.setClassWork(
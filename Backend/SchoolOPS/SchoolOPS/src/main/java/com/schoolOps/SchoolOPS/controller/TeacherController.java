@@ -1,17 +1,22 @@
 package com.schoolOps.SchoolOPS.controller;
 
 
-import java.security.Principal;
 import java.util.List;
 
+import com.schoolOps.SchoolOPS.config.CustomUserDetails;
 import com.schoolOps.SchoolOPS.dto.*;
 
-import java.util.stream.Collectors;
-
 import com.schoolOps.SchoolOPS.entity.*;
 import com.schoolOps.SchoolOPS.service.*;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
+import com.schoolOps.SchoolOPS.utils.ConditionalGet;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.util.RawValue;
 
 
 import lombok.RequiredArgsConstructor;
@@ -22,40 +27,47 @@ import lombok.RequiredArgsConstructor;
 public class TeacherController {
 
     private final TeacherService teacherService;
-    private final UserService userService;
+    private final AttendanceService attendanceService;
+    private final AttendanceRollupService attendanceRollupService;
     private final NoticeService noticeService;
     private final CourseService courseService;
     private final ClassRoomService classRoomService;
+    private final ResponseAssembler responseAssembler;
+    private final AggregateVersions aggregateVersions;
+    private final EventStreamService eventStreamService;
 
     // =================================================
     // TEACHER PROFILE
     // =================================================
     @GetMapping("/profile")
-    public TeacherResponseDto getTeacherProfile(Principal principal) {
-        User user = userService.getUserByUsername(principal.getName());
-        Teacher teacher = user.getTeacher();
-        // Ensure courses are loaded
-        if (teacher.getCourses() != null) {
-            teacher.getCourses().size();
+    public TeacherResponseDto getTeacherProfile(@AuthenticationPrincipal CustomUserDetails currentUser, WebRequest request) {
+        String etag = aggregateVersions.etag("teacher:" + currentUser.getTeacherId(), Aggregate.TEACHERS, Aggregate.COURSES);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
         }
-        return TeacherResponseDto.fromEntity(teacher);
+        Teacher teacher = teacherService.getTeacherById(currentUser.getTeacherId());
+        return responseAssembler.teacher(teacher);
+    }
+
+    // =================================================
+    // EVENT STREAM (new notices, classwork of own courses)
+    // =================================================
+    @GetMapping(value = "/events", produces = "text/event-stream")
+    public SseEmitter events(@AuthenticationPrincipal CustomUserDetails currentUser) {
+        return eventStreamService.subscribeTeacher(currentUser.getUsername(), currentUser.getTeacherId());
     }
 
     // =================================================
     // COURSES
     // =================================================
     @GetMapping("/courses")
-    public List<CourseResponseDto> getCourses(Principal principal) {
-        Teacher teacher =
-                userService.getUserByUsername(principal.getName()).getTeacher();
-        List<Course> courses = teacher.getCourses();
-        // Ensure students are loaded for each course
-        courses.forEach(course -> {
-            if (course.getStudents() != null) {
-                course.getStudents().size();
-            }
-        });
-        return courses.stream().map(CourseResponseDto::fromEntity).collect(Collectors.toList());
+    public List<CourseResponseDto> getCourses(@AuthenticationPrincipal CustomUserDetails currentUser, WebRequest request) {
+        String etag = aggregateVersions.etag("teacher:" + currentUser.getTeacherId(),
+                Aggregate.COURSES, Aggregate.STUDENTS, Aggregate.TEACHERS);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return courseService.getTeacherCourses(currentUser.getTeacherId());
     }
 
     // =================================================
@@ -65,42 +77,71 @@ public class TeacherController {
     public String markAttendance(
             @PathVariable Long courseId,
             @RequestBody List<Long> studentIds,
-            Principal principal
+            @AuthenticationPrincipal CustomUserDetails currentUser
     ) {
         Teacher teacher =
-                userService.getUserByUsername(principal.getName()).getTeacher();
+                teacherService.getTeacherById(currentUser.getTeacherId());
 
         teacherService.markAttendence(studentIds, courseId, teacher);
         return "Attendance marked";
     }
 
+    @PostMapping("/attendance")
+    public List<AttendanceMarkResultDto> markAttendance(
+            @RequestBody List<AttendanceMarkRequestDto> requests,
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        Teacher teacher =
+                teacherService.getTeacherById(currentUser.getTeacherId());
+
+        return teacherService.markAttendence(requests, teacher);
+    }
+
     @GetMapping("/attendance/{courseId}")
     public List<AttendenceResponseDto> getAttendance(
             @PathVariable Long courseId,
-            Principal principal
+            @AuthenticationPrincipal CustomUserDetails currentUser
     ) {
         Teacher teacher =
-                userService.getUserByUsername(principal.getName()).getTeacher();
-
-        Course course =
-                teacherService.getCourseById(teacher, courseId);
-
-        List<Attendence> attendences = course.getAttendence();
-        // Ensure students are loaded
-        attendences.forEach(att -> {
-            if (att.getStudents() != null) {
-                att.getStudents().size();
-            }
-        });
-        return attendences.stream().map(AttendenceResponseDto::fromEntity).collect(Collectors.toList());
+                teacherService.getTeacherById(currentUser.getTeacherId());
+
+        if (teacherService.getCourseById(teacher, courseId) == null) {
+            throw new AccessDeniedException("Course " + courseId + " is not assigned to this teacher");
+        }
+
+        return attendanceService.getSessions(courseId);
+    }
+
+    // per-student percentages of one course, read from the rollups
+    @GetMapping("/attendance/{courseId}/stats")
+    public List<AttendanceRollupDto> getAttendanceStats(
+            @PathVariable Long courseId,
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        Teacher teacher =
+                teacherService.getTeacherById(currentUser.getTeacherId());
+
+        if (teacherService.getCourseById(teacher, courseId) == null) {
+            throw new AccessDeniedException("Course " + courseId + " is not assigned to this teacher");
+        }
+
+        return attendanceRollupService.getCourseStudents(courseId);
     }
 
     // =================================================
     // NOTICE BOARD
     // =================================================
     @GetMapping("/notices")
-    public List<NoticeResponseDto> getNotices() {
-        return noticeService.getAllSortedNotice().stream().map(NoticeResponseDto::fromEntity).collect(Collectors.toList());
+    public PageResponseDto<RawValue> getNotices(
+            PageRequestDto page,
+            @RequestParam(defaultValue = "FULL") NoticeFeedCache.View view,
+            WebRequest request
+    ) {
+        String etag = aggregateVersions.etag(ConditionalGet.query(request), Aggregate.NOTICES);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return noticeService.getFeed(page, view);
     }
 
     // =================================================
@@ -111,14 +152,7 @@ public class TeacherController {
             @PathVariable Long courseId
     ) {
         Course course = courseService.getCourseById(courseId);
-        List<ClassWork> classWorks = course.getClassRoom().getClasswork();
-        // Ensure works are loaded
-        classWorks.forEach(cw -> {
-            if (cw.getWorks() != null) {
-                cw.getWorks().size();
-            }
-        });
-        return classWorks.stream().map(ClassWorkResponseDto::fromEntity).collect(Collectors.toList());
+        return responseAssembler.classWorks(course.getClassRoom().getClasswork());
     }
 
     // -------------------------------------------------
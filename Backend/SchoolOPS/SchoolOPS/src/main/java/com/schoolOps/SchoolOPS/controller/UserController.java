@@ -1,11 +1,11 @@
 package com.schoolOps.SchoolOPS.controller;
 
 
-import java.security.Principal;
-
+import com.schoolOps.SchoolOPS.config.CustomUserDetails;
 import com.schoolOps.SchoolOPS.dto.UserResponseDto;
 import com.schoolOps.SchoolOPS.entity.User;
 import com.schoolOps.SchoolOPS.service.UserService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 
@@ -22,14 +22,8 @@ public class UserController {
     // LOGGED-IN USER PROFILE
     // =================================================
     @GetMapping("/profile")
-    public UserResponseDto getLoggedInUser(Principal principal) {
-        User user = userService.getUserByUsername(principal.getName());
-        if (user.getStudent() != null && user.getStudent().getCourses() != null) {
-            user.getStudent().getCourses().size();
-        }
-        if (user.getTeacher() != null && user.getTeacher().getCourses() != null) {
-            user.getTeacher().getCourses().size();
-        }
+    public UserResponseDto getLoggedInUser(@AuthenticationPrincipal CustomUserDetails currentUser) {
+        User user = userService.getUserById(currentUser.getId());
         return UserResponseDto.fromEntity(user);
     }
 }
@@ -1,10 +1,13 @@
 package com.schoolOps.SchoolOPS.dto;
 
 import com.schoolOps.SchoolOPS.entity.Account;
+import com.schoolOps.SchoolOPS.entity.Transaction;
+import com.schoolOps.SchoolOPS.utils.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,22 +27,28 @@ public class AccountResponseDto {
     private String userName;
 
     // Account Info
-    private float accountBalance;
-    private int totalTransactions;
+    private BigDecimal accountBalance;
+    private long totalTransactions;
+    private BigDecimal totalCredits;
+    private BigDecimal totalDebits;
 
-    // Full Transaction Details
+    // Newest transactions only; the full history is paged separately
     private List<TransactionResponseDto> transactions;
 
-    public static AccountResponseDto fromEntity(Account account) {
+    // recent entries and totals (paise) resolved by the caller, e.g. one query for a whole page
+    public static AccountResponseDto fromEntity(
+            Account account,
+            List<Transaction> recent,
+            long totalTransactions,
+            long creditsMinor,
+            long debitsMinor
+    ) {
         if (account == null) return null;
 
-        List<TransactionResponseDto> transactionDtos =
-                account.getTransactions() != null
-                        ? account.getTransactions()
-                        .stream()
-                        .map(TransactionResponseDto::fromEntity)
-                        .collect(Collectors.toList())
-                        : List.of();
+        List<TransactionResponseDto> transactionDtos = recent
+                .stream()
+                .map(TransactionResponseDto::fromEntity)
+                .collect(Collectors.toList());
 
         return new AccountResponseDto(
                 account.getId(),
@@ -47,8 +56,10 @@ public class AccountResponseDto {
                 account.getStudent() != null ? account.getStudent().getName() : null,
                 account.getUser() != null ? account.getUser().getId() : null,
                 account.getUser() != null ? account.getUser().getName() : null,
-                account.getAccountBalance(),
-                transactionDtos.size(),
+                Money.toMajor(account.getBalanceMinor()),
+                totalTransactions,
+                Money.toMajor(creditsMinor),
+                Money.toMajor(debitsMinor),
                 transactionDtos
         );
     }
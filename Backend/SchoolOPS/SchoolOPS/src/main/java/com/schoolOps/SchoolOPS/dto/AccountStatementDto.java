@@ -0,0 +1,32 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Statement of one account for {@code from..to} (both days inclusive).
+ * Balances and totals are only filled on the first page; later pages
+ * (requested with {@code entries.nextCursor}) carry just the entries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountStatementDto {
+
+    private Long accountId;
+    private LocalDate from;
+    private LocalDate to;
+
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
+    private BigDecimal totalCredits;
+    private BigDecimal totalDebits;
+    private Long transactionCount;
+
+    // oldest first
+    private PageResponseDto<TransactionResponseDto> entries;
+}
@@ -0,0 +1,18 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceMarkRequestDto {
+
+    private Long courseId;
+    private LocalDate date;         // defaults to today
+    private List<Long> studentIds;  // present students
+}
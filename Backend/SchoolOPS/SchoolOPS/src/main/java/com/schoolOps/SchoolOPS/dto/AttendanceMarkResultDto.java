@@ -0,0 +1,21 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceMarkResultDto {
+
+    private Long courseId;
+    private LocalDate date;
+    private boolean created;                // false when an existing session was replaced
+    private int rosterSize;
+    private int presentCount;
+    private List<Long> rejectedStudentIds;  // not enrolled in the course
+}
@@ -0,0 +1,44 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import com.schoolOps.SchoolOPS.entity.AttendanceRollup;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceRollupDto {
+
+    private Long courseId;
+    private String courseName;
+    private Long studentId;
+    private String studentName;
+    private String period;
+    private int sessions;
+    private int seats;
+    private int present;
+    private double percentage;
+
+    public static AttendanceRollupDto fromEntity(AttendanceRollup rollup, String courseName, String studentName) {
+        if (rollup == null) return null;
+        double percentage = rollup.getSeats() == 0
+                ? 0
+                : Math.round(rollup.getPresent() * 1000.0 / rollup.getSeats()) / 10.0;
+        return new AttendanceRollupDto(
+                rollup.getCourseId() != 0 ? rollup.getCourseId() : null,
+                courseName,
+                rollup.getStudentId() != 0 ? rollup.getStudentId() : null,
+                studentName,
+                rollup.getPeriod(),
+                rollup.getSessions(),
+                rollup.getSeats(),
+                rollup.getPresent(),
+                percentage
+        );
+    }
+
+    public static AttendanceRollupDto fromEntity(AttendanceRollup rollup) {
+        return fromEntity(rollup, null, null);
+    }
+}
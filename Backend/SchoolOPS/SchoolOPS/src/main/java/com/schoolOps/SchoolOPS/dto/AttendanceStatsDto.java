@@ -0,0 +1,21 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceStatsDto {
+
+    private Long studentId;
+    private int sessions;
+    private int present;
+    private double percentage;
+
+    public static AttendanceStatsDto of(Long studentId, int sessions, int present) {
+        double percentage = sessions == 0 ? 0 : Math.round(present * 1000.0 / sessions) / 10.0;
+        return new AttendanceStatsDto(studentId, sessions, present, percentage);
+    }
+}
@@ -6,7 +6,8 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.stream.LongStream;
 
 @Data
 @NoArgsConstructor
@@ -18,14 +19,14 @@ public class AttendenceResponseDto {
     private String courseName;
     private List<String> studentNames;
 
-    public static AttendenceResponseDto fromEntity(com.schoolOps.SchoolOPS.entity.Attendence attendence) {
+    public static AttendenceResponseDto fromEntity(com.schoolOps.SchoolOPS.entity.Attendence attendence, Map<Long, String> studentNames) {
         if (attendence == null) return null;
         return new AttendenceResponseDto(
             attendence.getId(),
             attendence.getDate(),
             attendence.getTeacher() != null ? attendence.getTeacher().getName() : null,
             attendence.getCourse() != null ? attendence.getCourse().getName() : null,
-            attendence.getStudents() != null ? attendence.getStudents().stream().map(s -> s.getName()).collect(Collectors.toList()) : List.of()
+            LongStream.of(attendence.presentStudentIds()).mapToObj(studentNames::get).filter(n -> n != null).toList()
         );
     }
 }
\ No newline at end of file
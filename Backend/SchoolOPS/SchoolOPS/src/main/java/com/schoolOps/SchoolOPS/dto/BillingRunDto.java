@@ -0,0 +1,53 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.schoolOps.SchoolOPS.entity.BillingRun;
+import com.schoolOps.SchoolOPS.utils.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillingRunDto {
+
+    private String runId;
+    private Long courseId;
+    private String session;
+    private String period;
+    private BigDecimal amount;      // null: each course's fee
+    private String status;
+
+    // progress
+    private int totalItems;
+    private int billedItems;
+    private int skippedItems;
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public static BillingRunDto fromEntity(BillingRun run) {
+        if (run == null) return null;
+        return new BillingRunDto(
+                run.getId(),
+                run.getCourseId(),
+                run.getSession(),
+                run.getPeriod(),
+                run.getAmountMinor() != null ? Money.toMajor(run.getAmountMinor()) : null,
+                run.getStatus(),
+                run.getTotalItems(),
+                run.getBilledItems(),
+                run.getSkippedItems(),
+                run.getLastError(),
+                run.getCreatedAt(),
+                run.getStartedAt(),
+                run.getFinishedAt()
+        );
+    }
+}
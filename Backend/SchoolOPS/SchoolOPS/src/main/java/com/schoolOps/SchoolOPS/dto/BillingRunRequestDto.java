@@ -0,0 +1,25 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Starts (or resumes) a billing run. {@code runId} is the idempotency key:
+ * posting the same request again never bills twice. Exactly one of
+ * {@code courseId} and {@code session} selects the enrolments; without an
+ * {@code amount} (rupees) each course's own fee is billed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillingRunRequestDto {
+    private String runId;
+    private Long courseId;
+    private String session;
+    private String period;
+    private BigDecimal amount;
+    private String remarks;
+}
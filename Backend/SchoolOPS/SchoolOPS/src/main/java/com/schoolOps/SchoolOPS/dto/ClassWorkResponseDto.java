@@ -24,6 +24,15 @@ public class ClassWorkResponseDto {
     private List<String> workIds;
 
     public static ClassWorkResponseDto fromEntity(com.schoolOps.SchoolOPS.entity.ClassWork classWork) {
+        if (classWork == null) return null;
+        return fromEntity(
+            classWork,
+            classWork.getWorks() != null ? classWork.getWorks().stream().map(w -> w.getId().toString()).collect(Collectors.toList()) : List.of()
+        );
+    }
+
+    // work ids resolved by the caller, e.g. one query for a whole list
+    public static ClassWorkResponseDto fromEntity(com.schoolOps.SchoolOPS.entity.ClassWork classWork, List<String> workIds) {
         if (classWork == null) return null;
         return new ClassWorkResponseDto(
             classWork.getId(),
@@ -34,7 +43,7 @@ public class ClassWorkResponseDto {
             classWork.getCreatedAt(),
             classWork.getLastDate(),
             classWork.getReference(),
-            classWork.getWorks() != null ? classWork.getWorks().stream().map(w -> w.getId().toString()).collect(Collectors.toList()) : List.of()
+            workIds
         );
     }
 }
\ No newline at end of file
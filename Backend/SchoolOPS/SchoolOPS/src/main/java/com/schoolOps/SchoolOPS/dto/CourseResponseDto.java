@@ -24,6 +24,15 @@ public class CourseResponseDto {
     private List<String> studentNames;
 
     public static CourseResponseDto fromEntity(com.schoolOps.SchoolOPS.entity.Course course) {
+        if (course == null) return null;
+        return fromEntity(
+            course,
+            course.getStudents() != null ? course.getStudents().stream().map(s -> s.getName()).collect(Collectors.toList()) : List.of()
+        );
+    }
+
+    // student names resolved by the caller, e.g. one query for a whole list
+    public static CourseResponseDto fromEntity(com.schoolOps.SchoolOPS.entity.Course course, List<String> studentNames) {
         if (course == null) return null;
         return new CourseResponseDto(
             course.getId(),
@@ -36,7 +45,7 @@ public class CourseResponseDto {
             course.getTime(),
             course.getClassRoom() != null ? course.getClassRoom().getId() : null,
             course.getTeacher() != null ? course.getTeacher().getName() : null,
-            course.getStudents() != null ? course.getStudents().stream().map(s -> s.getName()).collect(Collectors.toList()) : List.of()
+            studentNames
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notice list entry without the description, for lists that only show
+ * titles; the full text comes from {@link NoticeResponseDto}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoticeSummaryDto {
+    private Long id;
+    private String title;
+    private LocalDateTime date;
+    private String issueby;
+    private String image;
+
+    public static NoticeSummaryDto fromEntity(com.schoolOps.SchoolOPS.entity.Notice notice) {
+        if (notice == null) return null;
+        return new NoticeSummaryDto(
+            notice.getId(),
+            notice.getTitle(),
+            notice.getDate(),
+            notice.getIssueby(),
+            notice.getImageUrl()
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Paging parameters of a list endpoint, bound from the query string:
+ * {@code ?size=50&sort=name&direction=asc&cursor=...&count=true}.
+ * {@code cursor} is the {@code nextCursor} of the previous page.
+ */
+@Data
+@NoArgsConstructor
+public class PageRequestDto {
+    private String cursor;
+    private Integer size;
+    private String sort;
+    private String direction;
+    private boolean count;
+}
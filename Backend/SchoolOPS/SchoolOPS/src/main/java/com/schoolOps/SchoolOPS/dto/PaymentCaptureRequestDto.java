@@ -0,0 +1,19 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What the checkout hands back on success (razorpay_order_id,
+ * razorpay_payment_id, razorpay_signature). Amount and account come from
+ * the stored order, never from here.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentCaptureRequestDto {
+    private String orderId;
+    private String paymentId;
+    private String signature;
+}
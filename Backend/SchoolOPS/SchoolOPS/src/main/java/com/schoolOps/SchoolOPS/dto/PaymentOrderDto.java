@@ -0,0 +1,40 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.schoolOps.SchoolOPS.entity.PaymentOrder;
+import com.schoolOps.SchoolOPS.utils.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentOrderDto {
+
+    private String orderId;
+    private BigDecimal amount;
+    private long amountMinor;       // what the checkout is opened with
+    private String currency;
+    private String keyId;
+    private String status;
+    private String paymentId;
+    private LocalDateTime paidAt;
+
+    public static PaymentOrderDto fromEntity(PaymentOrder order, String keyId) {
+        if (order == null) return null;
+        return new PaymentOrderDto(
+                order.getOrderId(),
+                Money.toMajor(order.getAmountMinor()),
+                order.getAmountMinor(),
+                order.getCurrency(),
+                keyId,
+                order.getStatus(),
+                order.getPaymentId(),
+                order.getPaidAt()
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Online fee payment; {@code amount} in rupees, at most two decimals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentRequestDto {
+    private BigDecimal amount;
+}
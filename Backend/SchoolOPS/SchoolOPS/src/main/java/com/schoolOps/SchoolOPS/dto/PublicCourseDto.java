@@ -0,0 +1,25 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Course card on the public home page: what {@link CourseResponseDto} shows,
+ * with an enrollment count instead of student names.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicCourseDto {
+    private Long id;
+    private String name;
+    private String session;
+    private String duration;
+    private String profile;
+    private String about;
+    private String fees;
+    private String time;
+    private String teacherName;
+    private Integer studentCount;
+}
@@ -0,0 +1,19 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentImportReportDto {
+
+    private int totalRows;
+    private int created;
+    private int failed;
+    private long durationMillis;
+    private List<StudentImportRowResultDto> rows;
+}
@@ -0,0 +1,26 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentImportRowResultDto {
+
+    private long row;
+    private String email;
+    private String status;          // CREATED / FAILED
+    private Long studentId;
+    private Integer registrationNo;
+    private String message;
+
+    public static StudentImportRowResultDto created(long row, String email, Long studentId, int registrationNo) {
+        return new StudentImportRowResultDto(row, email, "CREATED", studentId, registrationNo, null);
+    }
+
+    public static StudentImportRowResultDto failed(long row, String email, String message) {
+        return new StudentImportRowResultDto(row, email, "FAILED", null, null, message);
+    }
+}
@@ -27,6 +27,15 @@ public class StudentResponseDto {
     private List<String> courseNames;
 
     public static StudentResponseDto fromEntity(com.schoolOps.SchoolOPS.entity.Student student) {
+        if (student == null) return null;
+        return fromEntity(
+            student,
+            student.getCourses() != null ? student.getCourses().stream().map(c -> c.getName()).collect(Collectors.toList()) : List.of()
+        );
+    }
+
+    // course names resolved by the caller, e.g. one query for a whole page
+    public static StudentResponseDto fromEntity(com.schoolOps.SchoolOPS.entity.Student student, List<String> courseNames) {
         if (student == null) return null;
         return new StudentResponseDto(
             student.getId(),
@@ -41,7 +50,7 @@ public class StudentResponseDto {
             student.getAddBy(),
             student.getNumbers(),
             AddressDto.fromEntity(student.getAddress()),
-            student.getCourses() != null ? student.getCourses().stream().map(c -> c.getName()).collect(Collectors.toList()) : List.of()
+            courseNames
         );
     }
 }
\ No newline at end of file
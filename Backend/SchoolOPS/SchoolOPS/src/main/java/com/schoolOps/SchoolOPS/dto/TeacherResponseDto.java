@@ -26,6 +26,15 @@ public class TeacherResponseDto {
     private List<String> courseNames;
 
     public static TeacherResponseDto fromEntity(com.schoolOps.SchoolOPS.entity.Teacher teacher) {
+        if (teacher == null) return null;
+        return fromEntity(
+            teacher,
+            teacher.getCourses() != null ? teacher.getCourses().stream().map(c -> c.getName()).collect(Collectors.toList()) : List.of()
+        );
+    }
+
+    // course names resolved by the caller, e.g. one query for a whole page
+    public static TeacherResponseDto fromEntity(com.schoolOps.SchoolOPS.entity.Teacher teacher, List<String> courseNames) {
         if (teacher == null) return null;
         return new TeacherResponseDto(
             teacher.getId(),
@@ -39,7 +48,7 @@ public class TeacherResponseDto {
             teacher.getUser() != null ? teacher.getUser().getName() : null,
             AddressDto.fromEntity(teacher.getAddress()),
             teacher.getAccount() != null ? teacher.getAccount().getId().toString() : null,
-            teacher.getCourses() != null ? teacher.getCourses().stream().map(c -> c.getName()).collect(Collectors.toList()) : List.of()
+            courseNames
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.schoolOps.SchoolOPS.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Manual posting; {@code amount} in rupees, at most two decimals. DEBIT
+ * and CREDIT take the absolute value and apply the sign themselves.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionRequestDto {
+    private String type;
+    private BigDecimal amount;
+    private String mode;
+    private String remarks;
+}
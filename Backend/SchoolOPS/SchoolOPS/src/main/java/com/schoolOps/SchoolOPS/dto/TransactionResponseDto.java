@@ -3,8 +3,10 @@ package com.schoolOps.SchoolOPS.dto;
 import com.schoolOps.SchoolOPS.entity.Transaction;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import com.schoolOps.SchoolOPS.utils.Money;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -14,8 +16,8 @@ public class TransactionResponseDto {
 
     private Long id;
     private String type;
-    private float amount;
-    private float balanceAfterTransaction;
+    private BigDecimal amount;
+    private BigDecimal balanceAfterTransaction;
     private String mode;
     private String remarks;
     private LocalDateTime timestamp;
@@ -26,8 +28,8 @@ public class TransactionResponseDto {
         return new TransactionResponseDto(
                 transaction.getId(),
                 transaction.getType(),
-                transaction.getAmount(),
-                transaction.getBalance(),
+                Money.toMajor(transaction.getAmountMinor()),
+                Money.toMajor(transaction.getBalanceMinor()),
                 transaction.getMode(),
                 transaction.getRemarks(),
                 transaction.getTimestamp()
@@ -42,8 +42,9 @@ public class Account {
     private List<Transaction> transactions;
 
     // ---------- ACCOUNT DETAILS ----------
-    @Column(nullable = false)
-    private float accountBalance;
+    // paise; only changed by the atomic increment in AccountRepository.addToBalance
+    @Column(name = "balance_minor", nullable = false, updatable = false)
+    private long balanceMinor;
 
     // ---------- JPA CALLBACKS ----------
     @PrePersist
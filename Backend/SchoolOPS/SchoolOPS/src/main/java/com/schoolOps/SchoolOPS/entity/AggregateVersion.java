@@ -0,0 +1,34 @@
+package com.schoolOps.SchoolOPS.entity;
+
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Shared version counter of a read-mostly aggregate, bumped in the
+ * transaction of every write that touches it, so all nodes derive the same
+ * ETags and cache keys. A missing row is version 0.
+ */
+@Entity
+@Table(name = "aggregate_version")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class AggregateVersion {
+
+    // ---------- PRIMARY KEY ----------
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    // ---------- COUNTER ----------
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,70 @@
+package com.schoolOps.SchoolOPS.entity;
+
+
+import jakarta.persistence.*;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Pre-aggregated attendance counts, kept up to date as sessions are marked.
+ *
+ * <ul>
+ *     <li>{@code studentId > 0}: one student in one course, per month and
+ *     {@link #ALL_TIME}</li>
+ *     <li>{@code studentId = 0}: the whole course, per day, month and
+ *     {@link #ALL_TIME}</li>
+ * </ul>
+ *
+ * School-wide figures are not stored; they are the sums of the whole-course
+ * rows, added up when read.
+ *
+ * {@code seats} is the number of enrolled students summed over sessions,
+ * so {@code present / seats} is the attendance rate at every level.
+ */
+@Entity
+@Table(
+        name = "attendance_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_attendance_rollup",
+                columnNames = {"course_id", "student_id", "period"}
+        ),
+        indexes = @Index(name = "idx_attendance_rollup_student", columnList = "student_id, period")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class AttendanceRollup {
+
+    public static final String ALL_TIME = "ALL";
+    public static final long WHOLE = 0L;
+
+    // ---------- PRIMARY KEY ----------
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // ---------- KEY ----------
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    // "ALL", "yyyy-MM" or "yyyy-MM-dd"
+    @Column(nullable = false, length = 10)
+    private String period;
+
+    // ---------- COUNTS ----------
+    @Column(nullable = false)
+    private int sessions;
+
+    @Column(nullable = false)
+    private int seats;
+
+    @Column(nullable = false)
+    private int present;
+}
@@ -0,0 +1,83 @@
+package com.schoolOps.SchoolOPS.entity;
+
+
+import java.util.Arrays;
+
+import com.schoolOps.SchoolOPS.utils.AttendanceBits;
+import jakarta.persistence.*;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Snapshot of a course's enrolled students, shared by every attendance
+ * session taken while enrolment did not change. Sessions record presence as
+ * a bitset over positions in this roster.
+ */
+@Entity
+@Table(
+        name = "attendance_roster",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_attendance_roster_fingerprint",
+                columnNames = {"course_id", "fingerprint"}
+        )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString(exclude = {"course", "studentIds", "members"})
+public class AttendanceRoster {
+
+    // ---------- PRIMARY KEY ----------
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // ---------- RELATIONSHIPS ----------
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false)
+    private Course course;
+
+    // ---------- SNAPSHOT ----------
+    // SHA-256 of studentIds, used to reuse an identical roster
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private int size;
+
+    // ascending student ids, 8 bytes each
+    @Lob
+    @Column(nullable = false, length = 65535)
+    private byte[] studentIds;
+
+    @Transient
+    private long[] members;
+
+    public static AttendanceRoster of(Course course, long[] sortedIds) {
+        AttendanceRoster roster = new AttendanceRoster();
+        roster.course = course;
+        roster.studentIds = AttendanceBits.encodeIds(sortedIds);
+        roster.fingerprint = AttendanceBits.fingerprint(roster.studentIds);
+        roster.size = sortedIds.length;
+        roster.members = sortedIds;
+        return roster;
+    }
+
+    public long[] members() {
+        if (members == null) {
+            members = AttendanceBits.decodeIds(studentIds);
+        }
+        return members;
+    }
+
+    /**
+     * @return the student's bit position in this roster, or -1
+     */
+    public int positionOf(long studentId) {
+        int position = Arrays.binarySearch(members(), studentId);
+        return position >= 0 ? position : -1;
+    }
+}
@@ -0,0 +1,55 @@
+package com.schoolOps.SchoolOPS.entity;
+
+
+import java.io.Serializable;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Index of a roster's members: which bit position a student occupies in a
+ * roster. Lets "attendance of student X in course Y" resolve the position with
+ * an index lookup instead of decoding every roster of the course.
+ */
+@Entity
+@Table(
+        name = "attendance_roster_member",
+        indexes = @Index(name = "idx_roster_member_student", columnList = "student_id, roster_id")
+)
+@IdClass(AttendanceRosterMember.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class AttendanceRosterMember {
+
+    // ---------- PRIMARY KEY ----------
+    @Id
+    @Column(name = "roster_id")
+    private Long rosterId;
+
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    // ---------- BIT POSITION ----------
+    @Column(nullable = false)
+    private int position;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long rosterId;
+        private Long studentId;
+    }
+}
@@ -1,8 +1,9 @@
 package com.schoolOps.SchoolOPS.entity;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.BitSet;
 
+import com.schoolOps.SchoolOPS.utils.AttendanceBits;
 import jakarta.persistence.*;
 
 import lombok.Getter;
@@ -21,7 +22,7 @@ import lombok.extern.slf4j.Slf4j;
 @Getter
 @Setter
 @NoArgsConstructor
-@ToString(exclude = {"teacher", "course", "students"})
+@ToString(exclude = {"teacher", "course", "roster", "present"})
 @Slf4j
 public class Attendence {
 
@@ -52,14 +53,43 @@ public class Attendence {
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
 
-    // Attendance can contain multiple students
-    @ManyToMany(fetch = FetchType.LAZY)
-    @JoinTable(
-            name = "attendance_students",
-            joinColumns = @JoinColumn(name = "attendance_id"),
-            inverseJoinColumns = @JoinColumn(name = "student_id")
-    )
-    private List<Student> students;
+    // Enrolled students when the session was taken
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "roster_id")
+    private AttendanceRoster roster;
+
+    // =================================================
+    // PRESENCE (bit n = roster position n was present)
+    // =================================================
+    @Column(length = 1024)
+    private byte[] present;
+
+    @Column(nullable = false)
+    private int presentCount;
+
+    public void setPresentBits(BitSet bits) {
+        this.present = bits.toByteArray();
+        this.presentCount = bits.cardinality();
+    }
+
+    public boolean isPresent(long studentId) {
+        if (roster == null) {
+            return false;
+        }
+        int position = roster.positionOf(studentId);
+        return position >= 0 && AttendanceBits.isSet(present, position);
+    }
+
+    public long[] presentStudentIds() {
+        if (roster == null) {
+            return new long[0];
+        }
+        long[] members = roster.members();
+        return AttendanceBits.toBitSet(present).stream()
+                .filter(position -> position < members.length)
+                .mapToLong(position -> members[position])
+                .toArray();
+    }
 
     // =================================================
     // JPA CALLBACKS
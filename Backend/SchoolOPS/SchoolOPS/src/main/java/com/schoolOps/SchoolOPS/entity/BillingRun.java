@@ -0,0 +1,99 @@
+package com.schoolOps.SchoolOPS.entity;
+
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * One bulk fee billing of a course or a whole session, keyed by the run id
+ * the caller chooses. Progress (counts and the keyset cursor of the last
+ * billed enrolment) is committed together with each chunk of DEBITs, so an
+ * interrupted run resumes after the last committed chunk.
+ */
+@Entity
+@Table(name = "billing_run")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class BillingRun {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    // ---------- PRIMARY KEY ----------
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    // ---------- SCOPE / FEE SCHEDULE ----------
+    // exactly one of course id and session
+    private Long courseId;
+
+    @Column(length = 50)
+    private String session;
+
+    // billing period label, e.g. 2026-10 or TERM-1
+    @Column(nullable = false, length = 40)
+    private String period;
+
+    // paise per enrolment; null bills each course's own fee
+    private Long amountMinor;
+
+    @Column(length = 255)
+    private String remarks;
+
+    @Column(length = 100)
+    private String requestedBy;
+
+    // ---------- PROGRESS ----------
+    @Column(nullable = false, length = 20)
+    private String status = PENDING;
+
+    @Column(nullable = false)
+    private int totalItems;
+
+    @Column(nullable = false)
+    private int billedItems;
+
+    // enrolments of a course without a fee
+    @Column(nullable = false)
+    private int skippedItems;
+
+    // last processed enrolment in (student id, course id) order
+    private Long cursorStudentId;
+
+    private Long cursorCourseId;
+
+    @Column(length = 500)
+    private String lastError;
+
+    // worker holding the run; progress writes of any other worker are rejected
+    @Column(length = 36)
+    private String owner;
+
+    // ---------- AUDIT ----------
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    // renewed by every chunk; a RUNNING run with an old heartbeat was interrupted
+    private LocalDateTime heartbeatAt;
+
+    private LocalDateTime finishedAt;
+
+    // ---------- JPA CALLBACKS ----------
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,33 @@
+package com.schoolOps.SchoolOPS.entity;
+
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Table-backed counter for human-facing numbers (registration no, roll no).
+ * {@code nextValue} is the first value not yet handed out to any node.
+ */
+@Entity
+@Table(name = "number_sequence")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class NumberSequence {
+
+    // ---------- PRIMARY KEY ----------
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    // ---------- COUNTER ----------
+    @Column(nullable = false)
+    private int nextValue;
+}
@@ -0,0 +1,64 @@
+package com.schoolOps.SchoolOPS.entity;
+
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * An online payment order, keyed by the gateway's order id. Amount and
+ * account are fixed here when the order is created, so the capture
+ * callback only has to name the order: nothing the client sends on
+ * success decides what is credited or where.
+ */
+@Entity
+@Table(name = "payment_order", indexes = @Index(name = "idx_payment_order_account", columnList = "account_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class PaymentOrder {
+
+    public static final String CREATED = "CREATED";
+    public static final String PAID = "PAID";
+
+    // ---------- PRIMARY KEY ----------
+    // gateway order id, e.g. order_Nx3...
+    @Id
+    @Column(length = 40)
+    private String orderId;
+
+    // ---------- ORDER ----------
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    private long amountMinor;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    // ---------- CAPTURE ----------
+    @Column(nullable = false, length = 20)
+    private String status = CREATED;
+
+    @Column(length = 40, unique = true)
+    private String paymentId;
+
+    // ---------- AUDIT ----------
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime paidAt;
+
+    // ---------- JPA CALLBACKS ----------
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
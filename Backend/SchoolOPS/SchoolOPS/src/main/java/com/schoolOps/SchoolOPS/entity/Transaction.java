@@ -12,6 +12,16 @@ import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 @Entity
+@Table(
+        indexes = {
+                // history pages and statement ranges of one account; InnoDB appends the id
+                @Index(name = "idx_transaction_account_timestamp", columnList = "account_id, timestamp")
+        },
+        uniqueConstraints = {
+                // a posting with a reference is recorded at most once per account
+                @UniqueConstraint(name = "uk_transaction_account_reference", columnNames = {"account_id", "reference"})
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -41,17 +51,22 @@ public class Transaction {
     @Column(length = 40)
     private String mode;
 
-    @Column(nullable = false)
-    private float balance;
+    // idempotency key of generated postings, e.g. BILL:<run id>:<course id>; null for manual ones
+    @Column(length = 100)
+    private String reference;
 
-    @Column(nullable = false)
-    private float amount;
+    // paise: signed amount and the account balance right after it
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor;
+
+    @Column(name = "balance_minor", nullable = false)
+    private long balanceMinor;
 
     // ---------- JPA CALLBACKS ----------
     @PrePersist
     protected void onCreate() {
         timestamp = LocalDateTime.now();
-        log.debug("Transaction created | type={}, amount={}", type, amount);
+        log.debug("Transaction created | type={}, amount={}", type, amountMinor);
     }
 
     @PreUpdate
@@ -8,6 +8,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -24,7 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 @Getter
 @Setter
 @NoArgsConstructor
-@ToString(exclude = {"password", "student", "teacher"})
+@ToString(exclude = {"password", "student", "teacher", "loadedAuthState"})
 @Slf4j
 public class User {
 
@@ -59,6 +61,14 @@ public class User {
 
     private LocalDateTime resetTokenExpiry;
 
+    // bumped whenever credentials, role or status change; issued JWTs carry it
+    @Column(nullable = false)
+    private int tokenVersion = 0;
+
+    @JsonIgnore
+    @Transient
+    private String loadedAuthState;
+
     // ---------- PROFILE ----------
     @NotBlank
     @Column(nullable = false, length = 100)
@@ -99,9 +109,34 @@ public class User {
         log.debug("User entity created | username={}", username);
     }
 
+    @PostLoad
+    protected void onLoad() {
+        loadedAuthState = authState();
+    }
+
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        if (loadedAuthState != null && !loadedAuthState.equals(authState())) {
+            tokenVersion++;
+            log.debug("User token version bumped | id={} | version={}", id, tokenVersion);
+        }
+        loadedAuthState = authState();
         log.debug("User entity updated | id={}", id);
     }
+
+    /**
+     * Swaps in a re-encoded hash of the same password (e.g. after an
+     * encoder upgrade) without revoking the user's issued tokens.
+     */
+    public void replacePasswordHash(String encodedPassword) {
+        this.password = encodedPassword;
+        if (loadedAuthState != null) {
+            this.loadedAuthState = authState();
+        }
+    }
+
+    private String authState() {
+        return username + "|" + password + "|" + role + "|" + enabled;
+    }
 }
@@ -5,15 +5,32 @@ import java.util.List;
 import java.util.Optional;
 
 import com.schoolOps.SchoolOPS.entity.Account;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, JpaSpecificationExecutor<Account> {
 
     // ---------- FIND BY ID ----------
     Optional<Account> findById(Long id);
 
     // ---------- SEARCH BY STUDENT NAME ----------
+    @EntityGraph(attributePaths = {"student", "user"})
     List<Account> findByStudent_NameContainingIgnoreCase(String name);
-}
 
+    @Query("select a.id from Account a where a.student.id = :studentId")
+    Optional<Long> findIdByStudentId(@Param("studentId") Long studentId);
+
+    // ---------- LEDGER ----------
+    // row lock held to commit: postings to one account serialise, other accounts run in parallel
+    @Modifying
+    @Query(value = "update account set balance_minor = balance_minor + :delta where id = :id", nativeQuery = true)
+    int addToBalance(@Param("id") Long id, @Param("delta") long delta);
+
+    @Query("select a.balanceMinor from Account a where a.id = :id")
+    long findBalanceMinorById(@Param("id") Long id);
+}
@@ -0,0 +1,64 @@
+package com.schoolOps.SchoolOPS.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.schoolOps.SchoolOPS.entity.AttendanceRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AttendanceRollupRepository extends JpaRepository<AttendanceRollup, Long> {
+
+    Optional<AttendanceRollup> findByCourseIdAndStudentIdAndPeriod(Long courseId, Long studentId, String period);
+
+    // every student of a course, or every course of a student, for one period
+    List<AttendanceRollup> findByCourseIdAndPeriodAndStudentIdNot(Long courseId, String period, Long studentId);
+
+    List<AttendanceRollup> findByStudentIdAndPeriod(Long studentId, String period);
+
+    // whole-course rows of every course
+    @Query("""
+            select r from AttendanceRollup r
+            where r.studentId = 0 and r.courseId <> 0 and r.period = :period
+            """)
+    List<AttendanceRollup> findCourseTotals(@Param("period") String period);
+
+    // course-level rows between two periods of the same granularity, e.g. months
+    @Query("""
+            select r from AttendanceRollup r
+            where r.courseId = :courseId and r.studentId = 0
+              and r.period >= :from and r.period <= :to and length(r.period) = length(:from)
+            order by r.period
+            """)
+    List<AttendanceRollup> findCourseHistory(
+            @Param("courseId") Long courseId,
+            @Param("from") String from,
+            @Param("to") String to
+    );
+
+    // course-level rows of every course, summed per period into school figures
+    @Query("""
+            select r from AttendanceRollup r
+            where r.courseId <> 0 and r.studentId = 0
+              and r.period >= :from and r.period <= :to and length(r.period) = length(:from)
+            """)
+    List<AttendanceRollup> findAllCoursesHistory(@Param("from") String from, @Param("to") String to);
+
+    @Query("""
+            select r from AttendanceRollup r
+            where r.period = 'ALL' and r.studentId <> 0 and r.sessions > 0
+              and (:courseId is null or r.courseId = :courseId)
+              and r.present * 100 < :threshold * r.sessions
+            order by r.present * 1.0 / r.sessions
+            """)
+    List<AttendanceRollup> findDefaulters(
+            @Param("courseId") Long courseId,
+            @Param("threshold") int threshold
+    );
+
+    @Modifying
+    @Query("delete from AttendanceRollup r where r.courseId = :courseId")
+    void deleteByCourseId(@Param("courseId") Long courseId);
+}
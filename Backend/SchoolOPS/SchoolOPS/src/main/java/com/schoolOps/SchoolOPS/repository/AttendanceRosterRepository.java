@@ -0,0 +1,38 @@
+package com.schoolOps.SchoolOPS.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.schoolOps.SchoolOPS.entity.AttendanceRoster;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AttendanceRosterRepository extends JpaRepository<AttendanceRoster, Long> {
+
+    // locking read: sees a roster committed by a mark that held the course lock before us
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AttendanceRoster> findByCourseIdAndFingerprint(Long courseId, String fingerprint);
+
+    // ---------- MEMBER INDEX ----------
+    @Query("""
+            select r from AttendanceRoster r
+            where r.size > 0
+              and not exists (select 1 from AttendanceRosterMember m where m.rosterId = r.id)
+            """)
+    List<AttendanceRoster> findWithoutMembers();
+
+    @Modifying
+    @Query("""
+            delete from AttendanceRosterMember m
+            where m.rosterId in (select r.id from AttendanceRoster r where r.course.id = :courseId)
+            """)
+    void deleteMembersByCourseId(@Param("courseId") Long courseId);
+
+    @Modifying
+    @Query("delete from AttendanceRoster r where r.course.id = :courseId")
+    void deleteByCourseId(@Param("courseId") Long courseId);
+}
@@ -1,8 +1,170 @@
 package com.schoolOps.SchoolOPS.repository;
 
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.schoolOps.SchoolOPS.dto.AttendanceStatsDto;
+import com.schoolOps.SchoolOPS.entity.AttendanceRoster;
 import com.schoolOps.SchoolOPS.entity.Attendence;
+import com.schoolOps.SchoolOPS.utils.AttendanceBits;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface AttendenceRepository extends JpaRepository<Attendence, Long> {
 
+    // ---------- SESSION OF A DAY ----------
+    // locking read under the course lock (CourseRepository.lockById): sees the session a
+    // previous mark committed, so its marks are replaced and its rollup deltas reverted
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select a from Attendence a left join fetch a.roster
+            where a.course.id = :courseId and a.date = :date
+            """)
+    Optional<Attendence> findForUpdate(@Param("courseId") Long courseId, @Param("date") LocalDate date);
+
+    // ---------- UPSERT ----------
+    // insert the session, or replace the marks of the (course_id, date) session already there;
+    // callers tell the two apart by findForUpdate, the affected-row count depends on the driver
+    @Modifying
+    @Query(value = """
+            insert into attendence (course_id, date, teacher_id, roster_id, present, present_count)
+            values (:courseId, :date, :teacherId, :rosterId, :present, :presentCount)
+            on duplicate key update
+                teacher_id = values(teacher_id),
+                roster_id = values(roster_id),
+                present = values(present),
+                present_count = values(present_count)
+            """, nativeQuery = true)
+    void upsertSession(
+            @Param("courseId") Long courseId,
+            @Param("date") LocalDate date,
+            @Param("teacherId") Long teacherId,
+            @Param("rosterId") Long rosterId,
+            @Param("present") byte[] present,
+            @Param("presentCount") int presentCount
+    );
+
+    // ---------- RESPONSE LIST ----------
+    @EntityGraph(attributePaths = {"roster", "teacher"})
+    List<Attendence> findByCourseIdOrderByDate(Long courseId);
+
+    // ---------- PROJECTIONS ----------
+    interface SessionBits {
+        LocalDate getDate();
+        Long getRosterId();
+        byte[] getPresent();
+    }
+
+    @Query("""
+            select a.date as date, a.roster.id as rosterId, a.present as present
+            from Attendence a
+            where a.course.id = :courseId
+            order by a.date
+            """)
+    List<SessionBits> findSessionBits(@Param("courseId") Long courseId);
+
+    @Query("select r from AttendanceRoster r where r.course.id = :courseId")
+    List<AttendanceRoster> findRosters(@Param("courseId") Long courseId);
+
+    // ---------- STUDENT VIEW ----------
+    interface StudentSession {
+        LocalDate getDate();
+        byte[] getPresent();
+        int getPosition();
+
+        default boolean isPresent() {
+            return AttendanceBits.isSet(getPresent(), getPosition());
+        }
+    }
+
+    // one lookup on idx_roster_member_student, then the course's sessions for those rosters
+    @Query("""
+            select a.date as date, a.present as present, m.position as position
+            from Attendence a, AttendanceRosterMember m
+            where m.studentId = :studentId
+              and m.rosterId = a.roster.id
+              and a.course.id = :courseId
+            order by a.date
+            """)
+    List<StudentSession> findStudentSessions(
+            @Param("courseId") Long courseId,
+            @Param("studentId") Long studentId
+    );
+
+    /**
+     * Dates the student was marked present in the course, oldest first.
+     */
+    default List<LocalDate> findPresentDates(Long courseId, Long studentId) {
+        return findStudentSessions(courseId, studentId).stream()
+                .filter(StudentSession::isPresent)
+                .map(StudentSession::getDate)
+                .toList();
+    }
+
+    /**
+     * Sessions held while the student was enrolled, and how many they attended.
+     */
+    default AttendanceStatsDto findStudentStats(Long courseId, Long studentId) {
+        List<StudentSession> sessions = findStudentSessions(courseId, studentId);
+        int present = (int) sessions.stream().filter(StudentSession::isPresent).count();
+        return AttendanceStatsDto.of(studentId, sessions.size(), present);
+    }
+
+    // ---------- COURSE VIEW ----------
+
+    /**
+     * Sessions held and attended per student of the course, counting only
+     * sessions whose roster included the student.
+     */
+    default Map<Long, AttendanceStatsDto> findStatsByCourse(Long courseId) {
+
+        Map<Long, AttendanceRoster> rosters = findRosters(courseId).stream()
+                .collect(Collectors.toMap(AttendanceRoster::getId, Function.identity()));
+
+        // per roster: number of sessions, and present count per position
+        Map<Long, int[]> presentByPosition = new HashMap<>();
+        Map<Long, Integer> sessionsByRoster = new HashMap<>();
+
+        for (SessionBits session : findSessionBits(courseId)) {
+            AttendanceRoster roster = rosters.get(session.getRosterId());
+            if (roster == null) {
+                continue;
+            }
+            int[] counts = presentByPosition.computeIfAbsent(roster.getId(), id -> new int[roster.getSize()]);
+            sessionsByRoster.merge(roster.getId(), 1, Integer::sum);
+
+            BitSet bits = AttendanceBits.toBitSet(session.getPresent());
+            for (int p = bits.nextSetBit(0); p >= 0 && p < counts.length; p = bits.nextSetBit(p + 1)) {
+                counts[p]++;
+            }
+        }
+
+        Map<Long, int[]> totals = new LinkedHashMap<>();
+        sessionsByRoster.forEach((rosterId, sessions) -> {
+            long[] members = rosters.get(rosterId).members();
+            int[] counts = presentByPosition.get(rosterId);
+            for (int p = 0; p < members.length; p++) {
+                int[] total = totals.computeIfAbsent(members[p], id -> new int[2]);
+                total[0] += sessions;
+                total[1] += counts[p];
+            }
+        });
+
+        Map<Long, AttendanceStatsDto> stats = new LinkedHashMap<>();
+        totals.forEach((studentId, total) ->
+                stats.put(studentId, AttendanceStatsDto.of(studentId, total[0], total[1])));
+        return stats;
+    }
 }
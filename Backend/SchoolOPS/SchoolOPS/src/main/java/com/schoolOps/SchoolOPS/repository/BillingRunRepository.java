@@ -0,0 +1,87 @@
+package com.schoolOps.SchoolOPS.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.schoolOps.SchoolOPS.entity.BillingRun;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+
+public interface BillingRunRepository extends JpaRepository<BillingRun, String> {
+
+    // ---------- CLAIM ----------
+    // one worker per run: new or failed runs, or running ones whose worker stopped renewing the heartbeat
+    @Modifying
+    @Query("""
+            update BillingRun r
+            set r.status = 'RUNNING', r.owner = :owner, r.heartbeatAt = :now, r.lastError = null,
+                r.startedAt = coalesce(r.startedAt, :now)
+            where r.id = :id
+              and (r.status in ('PENDING', 'FAILED') or (r.status = 'RUNNING' and r.heartbeatAt < :staleBefore))
+            """)
+    int claim(
+            @Param("id") String id,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore
+    );
+
+    // ---------- PROGRESS ----------
+    // committed with the chunk's postings; 0 rows means the run was taken over and the chunk must roll back
+    @Modifying
+    @Query("""
+            update BillingRun r
+            set r.billedItems = r.billedItems + :billed, r.skippedItems = r.skippedItems + :skipped,
+                r.cursorStudentId = :studentId, r.cursorCourseId = :courseId, r.heartbeatAt = :now
+            where r.id = :id and r.status = 'RUNNING' and r.owner = :owner
+            """)
+    int advance(
+            @Param("id") String id,
+            @Param("owner") String owner,
+            @Param("billed") int billed,
+            @Param("skipped") int skipped,
+            @Param("studentId") Long studentId,
+            @Param("courseId") Long courseId,
+            @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("""
+            update BillingRun r
+            set r.status = :status, r.lastError = :error, r.finishedAt = :now
+            where r.id = :id and r.status = 'RUNNING' and r.owner = :owner
+            """)
+    int finish(
+            @Param("id") String id,
+            @Param("owner") String owner,
+            @Param("status") String status,
+            @Param("error") String error,
+            @Param("now") LocalDateTime now
+    );
+
+    // ---------- ENROLMENTS ----------
+    @Query("""
+            select count(s) from Student s join s.courses c join s.account a
+            where c.id in :courseIds
+            """)
+    long countTargets(@Param("courseIds") Collection<Long> courseIds);
+
+    @Query("""
+            select s.id as studentId, c.id as courseId, a.id as accountId
+            from Student s join s.courses c join s.account a
+            where c.id in :courseIds
+              and (s.id > :studentId or (s.id = :studentId and c.id > :courseId))
+            order by s.id, c.id
+            """)
+    List<BillingTarget> findTargetsAfter(
+            @Param("courseIds") Collection<Long> courseIds,
+            @Param("studentId") long studentId,
+            @Param("courseId") long courseId,
+            Limit limit
+    );
+}
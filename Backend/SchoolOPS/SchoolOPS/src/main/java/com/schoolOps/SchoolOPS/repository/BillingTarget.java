@@ -0,0 +1,14 @@
+package com.schoolOps.SchoolOPS.repository;
+
+/**
+ * Projection row of a billing run: one enrolment (student in course) and
+ * the student's account, in {@code (studentId, courseId)} order.
+ */
+public interface BillingTarget {
+
+    Long getStudentId();
+
+    Long getCourseId();
+
+    Long getAccountId();
+}
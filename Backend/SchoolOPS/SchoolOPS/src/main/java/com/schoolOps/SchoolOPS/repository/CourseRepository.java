@@ -1,8 +1,52 @@
 package com.schoolOps.SchoolOPS.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.schoolOps.SchoolOPS.dto.PublicCourseDto;
 import com.schoolOps.SchoolOPS.entity.Course;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecificationExecutor<Course> {
+
+    // ---------- RESPONSE LISTS (teacher and class room loaded with the courses) ----------
+    @EntityGraph(attributePaths = {"teacher", "classRoom"})
+    List<Course> findByTeacherIdOrderById(Long teacherId);
+
+    @EntityGraph(attributePaths = {"teacher", "classRoom"})
+    @Query("select c from Course c join c.students s where s.id = :studentId order by c.id")
+    List<Course> findByStudentId(@Param("studentId") Long studentId);
+
+    // ---------- BILLING ----------
+    List<Course> findBySessionOrderById(String session);
+
+    // ---------- IDS (event stream topics) ----------
+    @Query("select c.id from Course c join c.students s where s.id = :studentId")
+    List<Long> findIdsByStudentId(@Param("studentId") Long studentId);
+
+    @Query("select c.id from Course c where c.teacher.id = :teacherId")
+    List<Long> findIdsByTeacherId(@Param("teacherId") Long teacherId);
+
+    // ---------- ATTENDANCE LOCK ----------
+    // the course row always exists, so even the first mark of a day has a row to queue on
+    @Query(value = "select id from course where id = :id for update", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
 
-public interface CourseRepository extends JpaRepository<Course, Long> {
+    // ---------- RESPONSE PROJECTIONS ----------
+    @Query("select c.teacher.id as ownerId, c.name as name from Course c where c.teacher.id in :ids")
+    List<OwnedName> findCourseNamesByTeacherIds(@Param("ids") Collection<Long> teacherIds);
 
+    // public home page: one statement, enrollment as a count
+    @Query("""
+            select new com.schoolOps.SchoolOPS.dto.PublicCourseDto(
+                c.id, c.name, c.session, c.duration, c.imageUrl, c.about, c.fees, c.time, t.name, size(c.students))
+            from Course c left join c.teacher t
+            order by c.id
+            """)
+    List<PublicCourseDto> findPublicCourses();
 }
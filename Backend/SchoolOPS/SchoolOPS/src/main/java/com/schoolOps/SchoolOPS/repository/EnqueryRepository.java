@@ -2,7 +2,8 @@ package com.schoolOps.SchoolOPS.repository;
 
 import com.schoolOps.SchoolOPS.entity.Enquery;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-public interface EnqueryRepository extends JpaRepository<Enquery, Long> {
+public interface EnqueryRepository extends JpaRepository<Enquery, Long>, JpaSpecificationExecutor<Enquery> {
 
 }
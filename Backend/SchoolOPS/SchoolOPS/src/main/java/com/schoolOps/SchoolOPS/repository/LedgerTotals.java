@@ -0,0 +1,16 @@
+package com.schoolOps.SchoolOPS.repository;
+
+/**
+ * Projection row of a ledger aggregate: entry count and the sums of
+ * credits (positive) and debits (negative) of one account, in paise.
+ */
+public interface LedgerTotals {
+
+    Long getAccountId();
+
+    long getCount();
+
+    long getCredits();
+
+    long getDebits();
+}
@@ -0,0 +1,13 @@
+package com.schoolOps.SchoolOPS.repository;
+
+/**
+ * Projection row of a bulk mail: where to send it and whom to greet.
+ */
+public interface MailRecipient {
+
+    Long getId();
+
+    String getEmail();
+
+    String getName();
+}
@@ -1,14 +1,34 @@
 package com.schoolOps.SchoolOPS.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import com.schoolOps.SchoolOPS.dto.NoticeSummaryDto;
 import com.schoolOps.SchoolOPS.entity.Notice;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
 public interface NoticeRepository extends JpaRepository<Notice, Long> {
 
-    // ---------- FETCH ALL NOTICES (LATEST FIRST) ----------
-    List<Notice> findAllByOrderByDateDesc();
-}
+    // ---------- FEED (newest first, id breaks ties) ----------
+    List<Notice> findByOrderByDateDescIdDesc(Limit limit);
+
+    @Query("""
+            select n from Notice n
+            where n.date < :date or (n.date = :date and n.id < :id)
+            order by n.date desc, n.id desc
+            """)
+    List<Notice> findOlder(@Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
 
+    // summary rows never read the description column
+    @Query("""
+            select new com.schoolOps.SchoolOPS.dto.NoticeSummaryDto(n.id, n.title, n.date, n.issueby, n.imageUrl)
+            from Notice n
+            where n.date < :date or (n.date = :date and n.id < :id)
+            order by n.date desc, n.id desc
+            """)
+    List<NoticeSummaryDto> findOlderSummaries(@Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
+}
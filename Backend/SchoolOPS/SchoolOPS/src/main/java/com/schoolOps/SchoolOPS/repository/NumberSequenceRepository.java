@@ -0,0 +1,20 @@
+package com.schoolOps.SchoolOPS.repository;
+
+
+import java.util.Optional;
+
+import com.schoolOps.SchoolOPS.entity.NumberSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+
+public interface NumberSequenceRepository extends JpaRepository<NumberSequence, String> {
+
+    // ---------- ROW LOCK FOR BLOCK RESERVATION ----------
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from NumberSequence s where s.name = :name")
+    Optional<NumberSequence> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,40 @@
+package com.schoolOps.SchoolOPS.repository;
+
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.schoolOps.SchoolOPS.entity.OutboundEmail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    // ---------- CLAIM DUE MAILS ----------
+    // lock timeout -2 = SKIP LOCKED, so concurrent workers claim disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from OutboundEmail e
+            where e.status in ('PENDING', 'SENDING') and e.nextAttemptAt <= :now
+            order by e.nextAttemptAt
+            """)
+    List<OutboundEmail> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // ---------- QUEUE DEPTH ----------
+    long countByStatusIn(Collection<String> statuses);
+
+    // ---------- RETENTION ----------
+    @Modifying
+    @Query("delete from OutboundEmail e where e.status = 'SENT' and e.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
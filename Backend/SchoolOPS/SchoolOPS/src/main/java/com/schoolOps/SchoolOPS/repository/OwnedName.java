@@ -0,0 +1,26 @@
+package com.schoolOps.SchoolOPS.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Projection row of a to-many name lookup: one name belonging to the entity
+ * with id {@code ownerId} (e.g. a course name of a student). Lets a response
+ * list resolve a collection for every row with one query.
+ */
+public interface OwnedName {
+
+    Long getOwnerId();
+
+    String getName();
+
+    static Map<Long, List<String>> group(List<OwnedName> rows) {
+        Map<Long, List<String>> names = new HashMap<>();
+        for (OwnedName row : rows) {
+            names.computeIfAbsent(row.getOwnerId(), id -> new ArrayList<>()).add(row.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,21 @@
+package com.schoolOps.SchoolOPS.repository;
+
+
+import java.util.Optional;
+
+import com.schoolOps.SchoolOPS.entity.PaymentOrder;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+
+public interface PaymentOrderRepository extends JpaRepository<PaymentOrder, String> {
+
+    // ---------- ROW LOCK FOR CAPTURE ----------
+    // callbacks for one order serialise here; other orders are captured in parallel
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from PaymentOrder o where o.orderId = :orderId")
+    Optional<PaymentOrder> findForUpdate(@Param("orderId") String orderId);
+}
@@ -1,21 +1,56 @@
 package com.schoolOps.SchoolOPS.repository;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import com.schoolOps.SchoolOPS.entity.Student;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpecificationExecutor<Student> {
 
     // ---------- GET LAST REGISTRATION NUMBER ----------
     @Query("select max(s.registrationNo) from Student s")
     Optional<Integer> findMaxRegistrationNo();
 
+    // ---------- GET LAST ROLL NUMBER ----------
+    @Query("select max(s.rollNo) from Student s")
+    Optional<Integer> findMaxRollNo();
+
+    // ---------- COURSE ROSTER ----------
+    @Query("select s.id from Course c join c.students s where c.id = :courseId")
+    List<Long> findIdsByCourseId(@Param("courseId") Long courseId);
+
     // ---------- SEARCH STUDENTS BY NAME ----------
+    @EntityGraph(attributePaths = "address")
     List<Student> findByNameStartingWithIgnoreCase(String name);
+
+    // ---------- STUDENTS OF A COURSE ----------
+    @EntityGraph(attributePaths = "address")
+    @Query("select s from Student s join s.courses c where c.id = :courseId order by s.id")
+    List<Student> findByCourseId(@Param("courseId") Long courseId);
+
+    // ---------- NOTICE MAIL ----------
+    // keyset page of students with an email, after the given id
+    @Query("""
+            select s.id as id, s.email as email, s.name as name from Student s
+            where s.id > :afterId and s.email is not null and s.email <> ''
+            order by s.id
+            """)
+    List<MailRecipient> findMailRecipients(@Param("afterId") Long afterId, Pageable page);
+
+    // ---------- RESPONSE PROJECTIONS ----------
+    @Query("select s.id as ownerId, c.name as name from Student s join s.courses c where s.id in :ids")
+    List<OwnedName> findCourseNamesByStudentIds(@Param("ids") Collection<Long> studentIds);
+
+    @Query("select c.id as ownerId, s.name as name from Student s join s.courses c where c.id in :ids")
+    List<OwnedName> findStudentNamesByCourseIds(@Param("ids") Collection<Long> courseIds);
 }
 
@@ -1,8 +1,73 @@
 package com.schoolOps.SchoolOPS.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 import com.schoolOps.SchoolOPS.entity.Transaction;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
+
+    // ---------- RESPONSE PROJECTIONS ----------
+    @Query("select t from Transaction t where t.account.id in :accountIds order by t.id")
+    List<Transaction> findByAccountIds(@Param("accountIds") Collection<Long> accountIds);
+
+    // newest entries of every account in one statement, read from the (account_id, timestamp) index
+    @Query(value = """
+            select * from (
+                select t.*, row_number() over (partition by t.account_id order by t.timestamp desc, t.id desc) as rn
+                from transaction t
+                where t.account_id in (:accountIds)
+            ) recent
+            where recent.rn <= :perAccount
+            order by recent.account_id, recent.timestamp desc, recent.id desc
+            """, nativeQuery = true)
+    List<Transaction> findRecentByAccountIds(
+            @Param("accountIds") Collection<Long> accountIds,
+            @Param("perAccount") int perAccount
+    );
+
+    @Query("""
+            select t.account.id as accountId,
+                   count(t) as count,
+                   coalesce(sum(case when t.amountMinor > 0 then t.amountMinor else 0 end), 0) as credits,
+                   coalesce(sum(case when t.amountMinor < 0 then t.amountMinor else 0 end), 0) as debits
+            from Transaction t
+            where t.account.id in :accountIds
+            group by t.account.id
+            """)
+    List<LedgerTotals> findTotalsByAccountIds(@Param("accountIds") Collection<Long> accountIds);
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+    // ---------- STATEMENT ----------
+    // running balance of the last entry before the instant: one index seek, no scan from the first entry
+    @Query("""
+            select t.balanceMinor from Transaction t
+            where t.account.id = :accountId and t.timestamp < :before
+            order by t.timestamp desc, t.id desc
+            """)
+    List<Long> findBalanceBefore(
+            @Param("accountId") Long accountId,
+            @Param("before") LocalDateTime before,
+            Limit limit
+    );
 
+    @Query("""
+            select t.account.id as accountId,
+                   count(t) as count,
+                   coalesce(sum(case when t.amountMinor > 0 then t.amountMinor else 0 end), 0) as credits,
+                   coalesce(sum(case when t.amountMinor < 0 then t.amountMinor else 0 end), 0) as debits
+            from Transaction t
+            where t.account.id = :accountId and t.timestamp >= :from and t.timestamp < :to
+            group by t.account.id
+            """)
+    List<LedgerTotals> findTotalsBetween(
+            @Param("accountId") Long accountId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
 }
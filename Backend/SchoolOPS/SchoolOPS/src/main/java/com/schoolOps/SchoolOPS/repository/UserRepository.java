@@ -1,14 +1,18 @@
 package com.schoolOps.SchoolOPS.repository;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import com.schoolOps.SchoolOPS.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
 
     // ---------- AUTHENTICATION ----------
     Optional<User> findByUsername(String username);
@@ -18,6 +22,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByResetToken(String resetToken);
 
+    // ---------- BULK IMPORT ----------
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // ---------- TOKEN REVOCATION ----------
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
 
 }
 
@@ -1,8 +1,16 @@
 package com.schoolOps.SchoolOPS.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.schoolOps.SchoolOPS.entity.Work;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface WorkRepository extends JpaRepository<Work, Long> {
 
+    // ---------- RESPONSE PROJECTIONS ----------
+    @Query("select w.classWork.id as ownerId, cast(w.id as String) as name from Work w where w.classWork.id in :ids")
+    List<OwnedName> findIdsByClassWorkIds(@Param("ids") Collection<Long> classWorkIds);
 }
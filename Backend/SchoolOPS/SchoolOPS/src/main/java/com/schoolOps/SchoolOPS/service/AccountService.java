@@ -1,22 +1,38 @@
 package com.schoolOps.SchoolOPS.service;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.schoolOps.SchoolOPS.dto.AccountResponseDto;
+import com.schoolOps.SchoolOPS.dto.AccountStatementDto;
+import com.schoolOps.SchoolOPS.dto.PageRequestDto;
+import com.schoolOps.SchoolOPS.dto.PageResponseDto;
+import com.schoolOps.SchoolOPS.dto.TransactionResponseDto;
 import com.schoolOps.SchoolOPS.entity.Account;
 import com.schoolOps.SchoolOPS.entity.Student;
 import com.schoolOps.SchoolOPS.entity.Teacher;
 import com.schoolOps.SchoolOPS.entity.Transaction;
 import com.schoolOps.SchoolOPS.repository.AccountRepository;
+import com.schoolOps.SchoolOPS.repository.LedgerTotals;
 import com.schoolOps.SchoolOPS.repository.StudentRepository;
 import com.schoolOps.SchoolOPS.repository.TeacherRepository;
+import com.schoolOps.SchoolOPS.repository.TransactionRepository;
+import com.schoolOps.SchoolOPS.utils.KeysetPager;
+import com.schoolOps.SchoolOPS.utils.Money;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.transaction.Transactional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,9 +43,19 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 public class AccountService {
 
+    private static final KeysetPager<Account> PAGER = KeysetPager.of(Account::getId)
+            .sortable("balance", "balanceMinor", Account::getBalanceMinor, Long::valueOf)
+            .fetching("student", "user");
+
+    // history and statements: (timestamp, id) keyset over the (account_id, timestamp) index
+    private static final KeysetPager<Transaction> LEDGER = KeysetPager.of(Transaction::getId)
+            .sortable("timestamp", "timestamp", Transaction::getTimestamp, LocalDateTime::parse);
+
     private final StudentRepository studentRepository;
     private final TeacherRepository teacherRepository;
     private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final ResponseAssembler responseAssembler;
 
     // -------------------------------------------------
     // BASIC CRUD
@@ -54,7 +80,6 @@ public class AccountService {
         Account account = new Account();
         account.setUser(student.getUser());
         account.setStudent(student);
-        account.setAccountBalance(0f);
 
         Account savedAccount = accountRepository.save(account);
 
@@ -68,7 +93,6 @@ public class AccountService {
 
         Account account = new Account();
         account.setUser(teacher.getUser());
-        account.setAccountBalance(0f);
 
         Account savedAccount = accountRepository.save(account);
 
@@ -82,13 +106,33 @@ public class AccountService {
     // FETCH (RETURN DTOs)
     // -------------------------------------------------
 
+    // name matches the student's or the account user's name
     @Transactional
-    public List<AccountResponseDto> getAllAccounts() {
-
-        return accountRepository.findAll()
-                .stream()
-                .map(AccountResponseDto::fromEntity)
-                .toList();
+    public PageResponseDto<AccountResponseDto> getAccounts(
+            PageRequestDto page,
+            String name,
+            BigDecimal minBalance,
+            BigDecimal maxBalance
+    ) {
+        Specification<Account> filter = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (name != null && !name.isBlank()) {
+                String pattern = "%" + name.trim().toLowerCase() + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.join("student", JoinType.LEFT).get("name")), pattern),
+                        cb.like(cb.lower(root.join("user", JoinType.LEFT).get("name")), pattern)
+                ));
+            }
+            if (minBalance != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("balanceMinor"), Money.toMinor(minBalance)));
+            }
+            if (maxBalance != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("balanceMinor"), Money.toMinor(maxBalance)));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+
+        return PAGER.fetch(accountRepository, filter, page, responseAssembler::accounts);
     }
 
     @Transactional
@@ -99,50 +143,165 @@ public class AccountService {
                         new EntityNotFoundException("Account not found with id: " + accountId)
                 );
 
-        return AccountResponseDto.fromEntity(account);
+        return responseAssembler.account(account);
     }
 
     // -------------------------------------------------
     // TRANSACTIONS
     // -------------------------------------------------
 
-    public void makeTransaction(Transaction transaction, Long accountId) {
+    /**
+     * Appends a ledger entry and moves the balance by it in SQL, without
+     * loading the account or its history. DEBIT and CREDIT take the
+     * absolute amount and apply the sign; other types post it as given.
+     * The increment holds the account row lock until commit, so the
+     * balance read back is exactly this posting's running balance.
+     */
+    public Transaction post(Long accountId, String type, long amountMinor, String mode, String remarks) {
+        return post(accountId, type, amountMinor, mode, remarks, null);
+    }
 
-        Account account = accountRepository.findById(accountId)
+    /**
+     * As {@link #post(Long, String, long, String, String)}, tagged with a
+     * reference unique per account (e.g. {@code PAY:<payment id>}): posting
+     * the same reference twice fails instead of moving the balance again.
+     */
+    public Transaction post(Long accountId, String type, long amountMinor, String mode, String remarks, String reference) {
+
+        long delta = signed(type, amountMinor);
+
+        if (accountRepository.addToBalance(accountId, delta) == 0) {
+            throw new EntityNotFoundException("Account not found with id: " + accountId);
+        }
+        long balance = accountRepository.findBalanceMinorById(accountId);
+
+        Transaction transaction = new Transaction();
+        transaction.setAccount(accountRepository.getReferenceById(accountId));
+        transaction.setType(type);
+        transaction.setAmountMinor(delta);
+        transaction.setBalanceMinor(balance);
+        transaction.setMode(mode);
+        transaction.setRemarks(remarks);
+        transaction.setReference(reference);
+        transactionRepository.save(transaction);
+
+        log.info(
+                "Transaction completed | accountId={} | type={} | amount={} | newBalance={}",
+                accountId,
+                type,
+                Money.toMajor(delta),
+                Money.toMajor(balance)
+        );
+
+        return transaction;
+    }
+
+    private static long signed(String type, long amountMinor) {
+        if ("DEBIT".equalsIgnoreCase(type)) {
+            return -Math.abs(amountMinor);
+        }
+        if ("CREDIT".equalsIgnoreCase(type)) {
+            return Math.abs(amountMinor);
+        }
+        return amountMinor;
+    }
+
+    // -------------------------------------------------
+    // HISTORY / STATEMENT (RETURN DTOs)
+    // -------------------------------------------------
+
+    public Long getStudentAccountId(Long studentId) {
+        return accountRepository.findIdByStudentId(studentId)
                 .orElseThrow(() ->
-                        new EntityNotFoundException("Account not found with id: " + accountId)
+                        new EntityNotFoundException("Account not found for student id: " + studentId)
                 );
+    }
+
+    // newest first unless the request asks otherwise
+    public PageResponseDto<TransactionResponseDto> getTransactions(Long accountId, PageRequestDto page) {
 
-        List<Transaction> transactions =
-                account.getTransactions() != null
-                        ? account.getTransactions()
-                        : new ArrayList<>();
+        requireAccount(accountId);
+        return LEDGER.fetch(transactionRepository, inAccount(accountId, null, null),
+                byTimestamp(page, "desc"), AccountService::transactionDtos);
+    }
 
-        transaction.setAccount(account);
-        transaction.setTimestamp(LocalDateTime.now());
+    /**
+     * Opening and closing balances are the running balance of the last
+     * entry before each bound, so a statement costs two index seeks plus
+     * the range itself however old the account is.
+     */
+    public AccountStatementDto getStatement(Long accountId, LocalDate from, LocalDate to, PageRequestDto page) {
 
-        // Convert debit to negative
-        if ("DEBIT".equalsIgnoreCase(transaction.getType())) {
-            transaction.setAmount(-Math.abs(transaction.getAmount()));
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'to' must not be before 'from'");
+        }
+        requireAccount(accountId);
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        boolean firstPage = page.getCursor() == null || page.getCursor().isBlank();
+
+        PageResponseDto<TransactionResponseDto> entries = LEDGER.fetch(transactionRepository,
+                inAccount(accountId, start, end), byTimestamp(page, "asc"), AccountService::transactionDtos);
+
+        AccountStatementDto statement = new AccountStatementDto();
+        statement.setAccountId(accountId);
+        statement.setFrom(from);
+        statement.setTo(to);
+        statement.setEntries(entries);
+
+        if (firstPage) {
+            List<LedgerTotals> totals = transactionRepository.findTotalsBetween(accountId, start, end);
+            LedgerTotals total = totals.isEmpty() ? null : totals.get(0);
+
+            statement.setOpeningBalance(Money.toMajor(balanceBefore(accountId, start)));
+            statement.setClosingBalance(Money.toMajor(balanceBefore(accountId, end)));
+            statement.setTotalCredits(Money.toMajor(total != null ? total.getCredits() : 0));
+            statement.setTotalDebits(Money.toMajor(total != null ? total.getDebits() : 0));
+            statement.setTransactionCount(total != null ? total.getCount() : 0);
         }
 
-        float updatedBalance = account.getAccountBalance() + transaction.getAmount();
+        return statement;
+    }
+
+    private void requireAccount(Long accountId) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new EntityNotFoundException("Account not found with id: " + accountId);
+        }
+    }
 
-        account.setAccountBalance(updatedBalance);
-        transaction.setBalance(updatedBalance);
+    private long balanceBefore(Long accountId, LocalDateTime before) {
+        List<Long> balance = transactionRepository.findBalanceBefore(accountId, before, Limit.of(1));
+        return balance.isEmpty() ? 0 : balance.get(0);
+    }
 
-        transactions.add(transaction);
-        account.setTransactions(transactions);
+    // entries of one account, optionally within [from, to)
+    private static Specification<Transaction> inAccount(Long accountId, LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("account").get("id"), accountId));
+            if (from != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("timestamp"), from));
+            }
+            if (to != null) {
+                predicates.add(cb.lessThan(root.get("timestamp"), to));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
 
-        accountRepository.save(account);
+    private static PageRequestDto byTimestamp(PageRequestDto page, String defaultDirection) {
+        if (page.getSort() == null || page.getSort().isBlank()) {
+            page.setSort("timestamp");
+        }
+        if (page.getDirection() == null || page.getDirection().isBlank()) {
+            page.setDirection(defaultDirection);
+        }
+        return page;
+    }
 
-        log.info(
-                "Transaction completed | accountId={} | type={} | amount={} | newBalance={}",
-                accountId,
-                transaction.getType(),
-                transaction.getAmount(),
-                updatedBalance
-        );
+    private static List<TransactionResponseDto> transactionDtos(List<Transaction> transactions) {
+        return transactions.stream().map(TransactionResponseDto::fromEntity).toList();
     }
 
     // -------------------------------------------------
@@ -152,10 +311,6 @@ public class AccountService {
     @Transactional
     public List<AccountResponseDto> searchAccount(String query) {
 
-        return accountRepository
-                .findByStudent_NameContainingIgnoreCase(query)
-                .stream()
-                .map(AccountResponseDto::fromEntity)
-                .toList();
+        return responseAssembler.accounts(accountRepository.findByStudent_NameContainingIgnoreCase(query));
     }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Version counter per read-mostly aggregate, kept in the shared
+ * {@code aggregate_version} table. Services bump the aggregates a write
+ * touches; read endpoints derive an ETag from the versions they depend on
+ * and answer {@code If-None-Match} without loading anything, and the
+ * in-memory caches rebuild when a version moves.
+ *
+ * <p>A bump is an upsert in its own short transaction once the write has
+ * committed, so a rolled-back write bumps nothing and the version row is
+ * never locked for the length of a caller's transaction (an import chunk
+ * would otherwise hold up every other write to its aggregate). Reads go
+ * through a snapshot of all versions refreshed after
+ * {@code app.aggregate-versions.ttl}: another node's write shows up here
+ * within that time, a write on this node as soon as its bump commits. A
+ * version only moves after the data it covers, so a body is never tagged
+ * with a version it does not contain.
+ */
+@Service
+@Slf4j
+public class AggregateVersions {
+
+    public enum Aggregate {
+        COURSES,
+        STUDENTS,
+        TEACHERS,
+        NOTICES,
+        GALLERY,
+        // login identities: moving it clears the principal cache of every node
+        USERS
+    }
+
+    private static final String BUMP = """
+            insert into aggregate_version (name, version) values (?, 1)
+            on duplicate key update version = version + 1
+            """;
+
+    private static final String READ_ALL = "select name, version from aggregate_version";
+
+    // versions as read at a point in time, swapped as one reference
+    private record Snapshot(Map<Aggregate, Long> versions, long readAtNanos) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate bumpTx;
+    private final long ttlNanos;
+
+    // moves on every local commit; a read that started before one is not kept
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public AggregateVersions(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.aggregate-versions.ttl:1s}") Duration ttl
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        // a commit callback still sees the finished transaction bound; it must not join it
+        this.bumpTx = new TransactionTemplate(transactionManager);
+        this.bumpTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    // ---------- READ ----------
+    public long version(Aggregate aggregate) {
+        return snapshot().versions().get(aggregate);
+    }
+
+    /**
+     * Weak ETag over the given aggregates; {@code scope} separates bodies that
+     * share them, e.g. a user id or the query string of a list.
+     */
+    public String etag(String scope, Aggregate... aggregates) {
+        Snapshot current = snapshot();
+        StringBuilder tag = new StringBuilder("W/\"v");
+        for (Aggregate aggregate : aggregates) {
+            tag.append('-').append(current.versions().get(aggregate));
+        }
+        if (scope != null && !scope.isEmpty()) {
+            tag.append('-').append(DigestUtils.md5DigestAsHex(scope.getBytes(StandardCharsets.UTF_8)));
+        }
+        return tag.append('"').toString();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.readAtNanos() < ttlNanos) {
+            return current;
+        }
+
+        long started = generation.get();
+        Snapshot read = read();
+        if (generation.get() == started) {
+            snapshot = read;
+        }
+        return read;
+    }
+
+    private Snapshot read() {
+        long readAt = System.nanoTime();
+        Map<Aggregate, Long> versions = new EnumMap<>(Aggregate.class);
+        for (Aggregate aggregate : Aggregate.values()) {
+            versions.put(aggregate, 0L);
+        }
+        jdbcTemplate.query(READ_ALL, rs -> {
+            try {
+                versions.put(Aggregate.valueOf(rs.getString("name")), rs.getLong("version"));
+            } catch (IllegalArgumentException e) {
+                // an aggregate retired in this version of the code
+            }
+        });
+        return new Snapshot(versions, readAt);
+    }
+
+    // ---------- WRITE ----------
+    public void bump(Aggregate... aggregates) {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            write(aggregates);
+                        }
+                    }
+            );
+        } else {
+            write(aggregates);
+        }
+    }
+
+    private void write(Aggregate... aggregates) {
+
+        // one row order for every writer, so bumps of several aggregates cannot deadlock
+        List<Object[]> rows = Arrays.stream(aggregates)
+                .distinct()
+                .sorted()
+                .map(aggregate -> new Object[]{aggregate.name()})
+                .toList();
+
+        try {
+            bumpTx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(BUMP, rows));
+            log.debug("Aggregate versions bumped | aggregates={}", Arrays.toString(aggregates));
+        } catch (DataAccessException e) {
+            // the write has committed; readers keep the old ETag until the aggregate's next bump
+            log.warn("Aggregate version bump failed | aggregates={}", Arrays.toString(aggregates), e);
+        }
+        invalidate();
+    }
+
+    // the next read on this node sees the committed bump
+    private void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+}
@@ -0,0 +1,287 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.schoolOps.SchoolOPS.dto.AttendanceRollupDto;
+import com.schoolOps.SchoolOPS.entity.AttendanceRollup;
+import com.schoolOps.SchoolOPS.entity.AttendanceRoster;
+import com.schoolOps.SchoolOPS.entity.Course;
+import com.schoolOps.SchoolOPS.entity.Student;
+import com.schoolOps.SchoolOPS.repository.AttendanceRollupRepository;
+import com.schoolOps.SchoolOPS.repository.AttendenceRepository;
+import com.schoolOps.SchoolOPS.repository.CourseRepository;
+import com.schoolOps.SchoolOPS.repository.StudentRepository;
+import com.schoolOps.SchoolOPS.utils.AttendanceBits;
+
+import jakarta.transaction.Transactional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.schoolOps.SchoolOPS.entity.AttendanceRollup.ALL_TIME;
+import static com.schoolOps.SchoolOPS.entity.AttendanceRollup.WHOLE;
+
+/**
+ * Maintains {@link AttendanceRollup} rows incrementally: marking a session
+ * applies the difference between its old and new marks as counter deltas,
+ * so reading a percentage never scans attendance history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class AttendanceRollupService {
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private static final String UPSERT_DELTA = """
+            insert into attendance_rollup (course_id, student_id, period, sessions, seats, present)
+            values (?, ?, ?, ?, ?, ?)
+            on duplicate key update
+                sessions = sessions + values(sessions),
+                seats = seats + values(seats),
+                present = present + values(present)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AttendanceRollupRepository rollupRepository;
+    private final AttendenceRepository attendenceRepository;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+
+    // =====================================================
+    // INCREMENTAL UPDATE
+    // =====================================================
+
+    /**
+     * Applies a marked session to the rollups.
+     *
+     * @param oldRoster roster of the session being replaced, or {@code null}
+     *                  when the session is new
+     */
+    public void applySession(
+            Long courseId,
+            LocalDate date,
+            AttendanceRoster oldRoster,
+            byte[] oldPresent,
+            AttendanceRoster newRoster,
+            byte[] newPresent
+    ) {
+        Map<Long, int[]> perStudent = new LinkedHashMap<>();
+        if (oldRoster != null) {
+            accumulate(perStudent, oldRoster, oldPresent, -1);
+        }
+        accumulate(perStudent, newRoster, newPresent, 1);
+
+        int[] whole = {
+                oldRoster == null ? 1 : 0,
+                newRoster.getSize() - (oldRoster != null ? oldRoster.getSize() : 0),
+                AttendanceBits.toBitSet(newPresent).cardinality()
+                        - AttendanceBits.toBitSet(oldPresent).cardinality()
+        };
+
+        Deltas deltas = new Deltas();
+        String month = MONTH.format(date);
+
+        perStudent.forEach((studentId, delta) -> {
+            if (delta[0] != 0 || delta[2] != 0) {
+                deltas.add(courseId, studentId, month, delta);
+                deltas.add(courseId, studentId, ALL_TIME, delta);
+            }
+        });
+
+        deltas.add(courseId, WHOLE, date.toString(), whole);
+        deltas.add(courseId, WHOLE, month, whole);
+        deltas.add(courseId, WHOLE, ALL_TIME, whole);
+
+        deltas.flush(jdbcTemplate);
+    }
+
+    // sessions / seats / present per student of one roster
+    private static void accumulate(Map<Long, int[]> perStudent, AttendanceRoster roster, byte[] present, int sign) {
+        long[] members = roster.members();
+        for (int position = 0; position < members.length; position++) {
+            int[] delta = perStudent.computeIfAbsent(members[position], id -> new int[3]);
+            delta[0] += sign;
+            delta[1] += sign;
+            if (AttendanceBits.isSet(present, position)) {
+                delta[2] += sign;
+            }
+        }
+    }
+
+    // =====================================================
+    // REBUILD (backfill / repair)
+    // =====================================================
+    private void rebuildCourse(Long courseId) {
+
+        Map<Long, AttendanceRoster> rosters = attendenceRepository.findRosters(courseId).stream()
+                .collect(Collectors.toMap(AttendanceRoster::getId, Function.identity()));
+
+        Deltas deltas = new Deltas();
+        for (AttendenceRepository.SessionBits session : attendenceRepository.findSessionBits(courseId)) {
+            AttendanceRoster roster = rosters.get(session.getRosterId());
+            if (roster == null) {
+                continue;
+            }
+            String month = MONTH.format(session.getDate());
+            long[] members = roster.members();
+            BitSet bits = AttendanceBits.toBitSet(session.getPresent());
+
+            for (int position = 0; position < members.length; position++) {
+                int[] delta = {1, 1, bits.get(position) ? 1 : 0};
+                deltas.add(courseId, members[position], month, delta);
+                deltas.add(courseId, members[position], ALL_TIME, delta);
+            }
+
+            int[] whole = {1, roster.getSize(), bits.cardinality()};
+            deltas.add(courseId, WHOLE, session.getDate().toString(), whole);
+            deltas.add(courseId, WHOLE, month, whole);
+            deltas.add(courseId, WHOLE, ALL_TIME, whole);
+        }
+
+        deltas.flush(jdbcTemplate);
+        log.info("Attendance rollups rebuilt | courseId={}", courseId);
+    }
+
+    public void rebuildAll() {
+        rollupRepository.deleteAllInBatch();
+        courseRepository.findAll().forEach(course -> rebuildCourse(course.getId()));
+    }
+
+    public void deleteCourse(Long courseId) {
+        rollupRepository.deleteByCourseId(courseId);
+    }
+
+    // =====================================================
+    // QUERIES
+    // =====================================================
+    public AttendanceRollupDto getSchoolSummary() {
+        return AttendanceRollupDto.fromEntity(sum(ALL_TIME, rollupRepository.findCourseTotals(ALL_TIME)));
+    }
+
+    public List<AttendanceRollupDto> getCourseSummaries() {
+        return withNames(rollupRepository.findCourseTotals(ALL_TIME));
+    }
+
+    public AttendanceRollupDto getCourseSummary(Long courseId) {
+        AttendanceRollup rollup = rollupRepository
+                .findByCourseIdAndStudentIdAndPeriod(courseId, WHOLE, ALL_TIME)
+                .orElseGet(() -> empty(courseId, WHOLE));
+        return withNames(List.of(rollup)).get(0);
+    }
+
+    public List<AttendanceRollupDto> getCourseStudents(Long courseId) {
+        return withNames(rollupRepository.findByCourseIdAndPeriodAndStudentIdNot(courseId, ALL_TIME, WHOLE));
+    }
+
+    // monthly course rates, from / to as yyyy-MM; course 0 is the whole school
+    public List<AttendanceRollupDto> getCourseMonths(Long courseId, String from, String to) {
+        List<AttendanceRollup> months = courseId == WHOLE
+                ? schoolHistory(from, to)
+                : rollupRepository.findCourseHistory(courseId, from, to);
+        return months.stream()
+                .map(AttendanceRollupDto::fromEntity)
+                .toList();
+    }
+
+    public List<AttendanceRollupDto> getStudentSummary(Long studentId) {
+        return withNames(rollupRepository.findByStudentIdAndPeriod(studentId, ALL_TIME));
+    }
+
+    public List<AttendanceRollupDto> getDefaulters(Long courseId, int threshold) {
+        return withNames(rollupRepository.findDefaulters(courseId, threshold));
+    }
+
+    // two id lookups for all names on the page
+    private List<AttendanceRollupDto> withNames(List<AttendanceRollup> rollups) {
+
+        Set<Long> courseIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        for (AttendanceRollup rollup : rollups) {
+            if (rollup.getCourseId() != WHOLE) courseIds.add(rollup.getCourseId());
+            if (rollup.getStudentId() != WHOLE) studentIds.add(rollup.getStudentId());
+        }
+
+        Map<Long, String> courseNames = names(courseRepository.findAllById(courseIds), Course::getId, Course::getName);
+        Map<Long, String> studentNames = names(studentRepository.findAllById(studentIds), Student::getId, Student::getName);
+
+        return rollups.stream()
+                .map(rollup -> AttendanceRollupDto.fromEntity(
+                        rollup,
+                        courseNames.get(rollup.getCourseId()),
+                        studentNames.get(rollup.getStudentId())
+                ))
+                .toList();
+    }
+
+    private static <T> Map<Long, String> names(Collection<T> entities, Function<T, Long> id, Function<T, String> name) {
+        return entities.stream().collect(Collectors.toMap(id, name));
+    }
+
+    // school figures are summed from the course rows on read, so marking never
+    // writes a school-wide row that every course's marks would queue behind
+    private List<AttendanceRollup> schoolHistory(String from, String to) {
+        return rollupRepository.findAllCoursesHistory(from, to).stream()
+                .collect(Collectors.groupingBy(AttendanceRollup::getPeriod, TreeMap::new, Collectors.toList()))
+                .entrySet().stream()
+                .map(period -> sum(period.getKey(), period.getValue()))
+                .toList();
+    }
+
+    private static AttendanceRollup sum(String period, List<AttendanceRollup> courses) {
+        AttendanceRollup total = empty(WHOLE, WHOLE);
+        total.setPeriod(period);
+        for (AttendanceRollup course : courses) {
+            total.setSessions(total.getSessions() + course.getSessions());
+            total.setSeats(total.getSeats() + course.getSeats());
+            total.setPresent(total.getPresent() + course.getPresent());
+        }
+        return total;
+    }
+
+    private static AttendanceRollup empty(Long courseId, Long studentId) {
+        AttendanceRollup rollup = new AttendanceRollup();
+        rollup.setCourseId(courseId);
+        rollup.setStudentId(studentId);
+        rollup.setPeriod(ALL_TIME);
+        return rollup;
+    }
+
+    // delta rows merged per key and written with one JDBC batch
+    private static final class Deltas {
+
+        private final Map<List<Object>, int[]> rows = new LinkedHashMap<>();
+
+        void add(Long courseId, Long studentId, String period, int[] delta) {
+            int[] total = rows.computeIfAbsent(List.of(courseId, studentId, period), key -> new int[3]);
+            total[0] += delta[0];
+            total[1] += delta[1];
+            total[2] += delta[2];
+        }
+
+        void flush(JdbcTemplate jdbcTemplate) {
+            List<Object[]> args = new ArrayList<>(rows.size());
+            rows.forEach((key, total) ->
+                    args.add(new Object[]{key.get(0), key.get(1), key.get(2), total[0], total[1], total[2]}));
+            if (!args.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_DELTA, args);
+            }
+        }
+    }
+}
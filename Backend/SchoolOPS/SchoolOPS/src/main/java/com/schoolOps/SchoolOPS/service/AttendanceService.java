@@ -0,0 +1,196 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import com.schoolOps.SchoolOPS.dto.AttendanceMarkResultDto;
+import com.schoolOps.SchoolOPS.dto.AttendanceStatsDto;
+import com.schoolOps.SchoolOPS.dto.AttendenceResponseDto;
+import com.schoolOps.SchoolOPS.entity.*;
+import com.schoolOps.SchoolOPS.repository.*;
+
+import jakarta.transaction.Transactional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Attendance sessions stored as a roster snapshot plus a presence bitset.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class AttendanceService {
+
+    private final AttendenceRepository attendenceRepository;
+    private final AttendanceRosterRepository rosterRepository;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final AttendanceRollupService rollupService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT_MEMBER =
+            "insert into attendance_roster_member (roster_id, student_id, position) values (?, ?, ?)";
+
+    // ---------- MARK (UPSERT) ----------
+
+    /**
+     * Records the course's session for {@code date}, replacing the marks if
+     * it was already taken that day. Resubmitting is safe: marks of one
+     * course are serialised on the course row, so two first submissions of
+     * a day cannot both insert the session or both count it as new.
+     */
+    public AttendanceMarkResultDto mark(Course course, Teacher teacher, LocalDate date, Collection<Long> studentIds) {
+
+        courseRepository.lockById(course.getId());
+
+        // one id query for the enrolment; membership checks are lookups in the sorted roster
+        AttendanceRoster roster = currentRoster(course);
+
+        BitSet bits = new BitSet(roster.getSize());
+        List<Long> rejected = new ArrayList<>();
+        for (Long studentId : new LinkedHashSet<>(studentIds)) {
+            int position = studentId != null ? roster.positionOf(studentId) : -1;
+            if (position >= 0) {
+                bits.set(position);
+            } else {
+                rejected.add(studentId);
+            }
+        }
+
+        // marks being replaced, if any; a session without a roster was never rolled up
+        Attendence previous = attendenceRepository.findForUpdate(course.getId(), date).orElse(null);
+        AttendanceRoster previousRoster = previous != null ? previous.getRoster() : null;
+        byte[] previousPresent = previousRoster != null ? previous.getPresent() : null;
+
+        byte[] present = bits.toByteArray();
+        attendenceRepository.upsertSession(
+                course.getId(),
+                date,
+                teacher.getId(),
+                roster.getId(),
+                present,
+                bits.cardinality()
+        );
+
+        rollupService.applySession(course.getId(), date, previousRoster, previousPresent, roster, present);
+
+        return new AttendanceMarkResultDto(
+                course.getId(),
+                date,
+                previous == null,
+                roster.getSize(),
+                bits.cardinality(),
+                rejected
+        );
+    }
+
+    public AttendanceRoster currentRoster(Course course) {
+        return rosterFor(course, studentRepository.findIdsByCourseId(course.getId()));
+    }
+
+    // reuses the stored snapshot when enrolment has not changed
+    public AttendanceRoster rosterFor(Course course, Collection<Long> studentIds) {
+
+        long[] sorted = studentIds.stream()
+                .mapToLong(Long::longValue)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        AttendanceRoster candidate = AttendanceRoster.of(course, sorted);
+
+        return rosterRepository
+                .findByCourseIdAndFingerprint(course.getId(), candidate.getFingerprint())
+                .orElseGet(() -> {
+                    AttendanceRoster saved = rosterRepository.save(candidate);
+                    indexMembers(saved);
+                    log.debug("Attendance roster created | courseId={} | size={}", course.getId(), sorted.length);
+                    return saved;
+                });
+    }
+
+    // plain batched inserts: saving entities with assigned ids would select each one first
+    public void indexMembers(AttendanceRoster roster) {
+        long[] members = roster.members();
+        List<Object[]> rows = new ArrayList<>(members.length);
+        for (int position = 0; position < members.length; position++) {
+            rows.add(new Object[]{roster.getId(), members[position], position});
+        }
+        jdbcTemplate.batchUpdate(INSERT_MEMBER, rows);
+    }
+
+    // students not on the roster are ignored
+    public BitSet presenceBits(AttendanceRoster roster, Collection<Long> presentIds) {
+        BitSet bits = new BitSet(roster.getSize());
+        for (Long studentId : presentIds) {
+            int position = roster.positionOf(studentId);
+            if (position >= 0) {
+                bits.set(position);
+            }
+        }
+        return bits;
+    }
+
+    // ---------- QUERIES ----------
+    public List<LocalDate> getPresentDates(Long courseId, Long studentId) {
+        return attendenceRepository.findPresentDates(courseId, studentId);
+    }
+
+    public AttendanceStatsDto getStudentStats(Long courseId, Long studentId) {
+        return attendenceRepository.findStudentStats(courseId, studentId);
+    }
+
+    public Map<Long, AttendanceStatsDto> getStats(Long courseId) {
+        return attendenceRepository.findStatsByCourse(courseId);
+    }
+
+    // sessions with roster and teacher loaded in the same query
+    public List<AttendenceResponseDto> getSessions(Long courseId) {
+        return toResponses(attendenceRepository.findByCourseIdOrderByDate(courseId));
+    }
+
+    // resolves every present student's name with one query
+    public List<AttendenceResponseDto> toResponses(List<Attendence> sessions) {
+
+        if (sessions == null) {
+            return List.of();
+        }
+
+        Set<Long> ids = new HashSet<>();
+        sessions.forEach(session ->
+                LongStream.of(session.presentStudentIds()).forEach(ids::add));
+
+        Map<Long, String> names = studentRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Student::getId, Student::getName));
+
+        return sessions.stream()
+                .map(session -> AttendenceResponseDto.fromEntity(session, names))
+                .toList();
+    }
+
+    // ---------- CLEANUP ----------
+    public void deleteForCourse(Course course) {
+        if (course.getAttendence() != null) {
+            attendenceRepository.deleteAll(course.getAttendence());
+            course.setAttendence(null);
+            attendenceRepository.flush();
+        }
+        rollupService.deleteCourse(course.getId());
+        rosterRepository.deleteMembersByCourseId(course.getId());
+        rosterRepository.deleteByCourseId(course.getId());
+    }
+}
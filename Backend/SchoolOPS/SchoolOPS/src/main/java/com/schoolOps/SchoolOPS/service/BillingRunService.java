@@ -0,0 +1,385 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import com.schoolOps.SchoolOPS.dto.BillingRunDto;
+import com.schoolOps.SchoolOPS.dto.BillingRunRequestDto;
+import com.schoolOps.SchoolOPS.entity.BillingRun;
+import com.schoolOps.SchoolOPS.entity.Course;
+import com.schoolOps.SchoolOPS.repository.BillingRunRepository;
+import com.schoolOps.SchoolOPS.repository.BillingTarget;
+import com.schoolOps.SchoolOPS.repository.CourseRepository;
+import com.schoolOps.SchoolOPS.utils.Money;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk fee billing: one DEBIT per enrolment of a course, or of every course
+ * of a session, for a billing period.
+ *
+ * <p>A run walks the enrolments in {@code (student id, course id)} keyset
+ * order, {@code app.billing.chunk-size} at a time. Each chunk is one
+ * transaction: balances move with one batched increment per account (in
+ * account id order, like single postings lock them), the DEBITs are batch
+ * inserted with their running balances, and the run's progress and cursor
+ * are advanced in the same commit. A failed or interrupted run resumes
+ * after its last committed chunk when the same request is posted again.
+ *
+ * <p>The run id is the idempotency key: a completed run is returned as is,
+ * and every DEBIT carries the reference {@code BILL:<run id>:<course id>},
+ * unique per account, so an enrolment can never be billed twice by a run.
+ */
+@Service
+@Slf4j
+public class BillingRunService {
+
+    private static final Pattern RUN_ID = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+
+    private static final String INCREMENT_BALANCE =
+            "update account set balance_minor = balance_minor + ? where id = ?";
+
+    private static final String INSERT_TRANSACTION =
+            "insert into transaction (account_id, type, remarks, timestamp, mode, amount_minor, balance_minor, reference) "
+                    + "values (?, 'DEBIT', ?, ?, 'BILLING', ?, ?, ?)";
+
+    // last billed enrolment
+    private record Position(long studentId, long courseId) {
+    }
+
+    // fee (paise) and posting remarks per course of the run
+    private record Schedule(Map<Long, Long> fees, Map<Long, String> remarks) {
+
+        List<Long> courseIds() {
+            return List.copyOf(fees.keySet());
+        }
+    }
+
+    private final BillingRunRepository billingRunRepository;
+    private final CourseRepository courseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+    private final Duration staleAfter;
+
+    // runs are queued and billed one at a time
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "billing-run");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BillingRunService(
+            BillingRunRepository billingRunRepository,
+            CourseRepository courseRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.billing.chunk-size:500}") int chunkSize,
+            @Value("${app.billing.stale-after:5m}") Duration staleAfter
+    ) {
+        this.billingRunRepository = billingRunRepository;
+        this.courseRepository = courseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.staleAfter = staleAfter;
+    }
+
+    // =====================================================
+    // START / PROGRESS
+    // =====================================================
+
+    /**
+     * Creates the run, or finds the existing one with this id, and queues
+     * it unless it has completed. Reusing a run id for a different
+     * schedule is rejected.
+     */
+    public BillingRunDto start(BillingRunRequestDto request, String requestedBy) {
+
+        BillingRun requested = validate(request, requestedBy);
+
+        BillingRun run = billingRunRepository.findById(requested.getId())
+                .orElseGet(() -> create(requested));
+
+        if (!sameSchedule(run, requested)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Run id " + run.getId() + " was already used for a different billing");
+        }
+
+        if (!BillingRun.COMPLETED.equals(run.getStatus())) {
+            String runId = run.getId();
+            executor.execute(() -> execute(runId));
+        }
+
+        return BillingRunDto.fromEntity(run);
+    }
+
+    public BillingRunDto get(String runId) {
+        return billingRunRepository.findById(runId)
+                .map(BillingRunDto::fromEntity)
+                .orElseThrow(() ->
+                        new EntityNotFoundException("Billing run not found with id: " + runId)
+                );
+    }
+
+    private BillingRun create(BillingRun run) {
+
+        run.setTotalItems((int) billingRunRepository.countTargets(schedule(run).courseIds()));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> billingRunRepository.save(run));
+        } catch (DataIntegrityViolationException e) {
+            // the same run id was posted concurrently; the first insert wins
+            return billingRunRepository.findById(run.getId()).orElseThrow(() -> e);
+        }
+
+        log.info("Billing run created | runId={} | courseId={} | session={} | period={} | enrolments={}",
+                run.getId(), run.getCourseId(), run.getSession(), run.getPeriod(), run.getTotalItems());
+        return run;
+    }
+
+    private static boolean sameSchedule(BillingRun existing, BillingRun requested) {
+        return Objects.equals(existing.getCourseId(), requested.getCourseId())
+                && Objects.equals(existing.getSession(), requested.getSession())
+                && Objects.equals(existing.getPeriod(), requested.getPeriod())
+                && Objects.equals(existing.getAmountMinor(), requested.getAmountMinor());
+    }
+
+    private static BillingRun validate(BillingRunRequestDto request, String requestedBy) {
+
+        if (request.getRunId() == null || !RUN_ID.matcher(request.getRunId()).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "runId must be 1-64 characters of letters, digits, '.', '_', ':' or '-'");
+        }
+        boolean byCourse = request.getCourseId() != null;
+        boolean bySession = request.getSession() != null && !request.getSession().isBlank();
+        if (byCourse == bySession) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Give exactly one of courseId and session");
+        }
+        if (request.getPeriod() == null || request.getPeriod().isBlank() || request.getPeriod().length() > 40) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "period is required (at most 40 characters)");
+        }
+
+        BillingRun run = new BillingRun();
+        run.setId(request.getRunId());
+        run.setCourseId(request.getCourseId());
+        run.setSession(bySession ? request.getSession().trim() : null);
+        run.setPeriod(request.getPeriod().trim());
+        run.setRemarks(request.getRemarks());
+        run.setRequestedBy(requestedBy);
+
+        if (request.getAmount() != null) {
+            try {
+                long amountMinor = Money.toMinor(request.getAmount());
+                if (amountMinor <= 0) {
+                    throw new IllegalArgumentException("amount must be positive");
+                }
+                run.setAmountMinor(amountMinor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+        return run;
+    }
+
+    // =====================================================
+    // FEE SCHEDULE
+    // =====================================================
+    private Schedule schedule(BillingRun run) {
+
+        List<Course> courses;
+        if (run.getCourseId() != null) {
+            courses = List.of(courseRepository.findById(run.getCourseId())
+                    .orElseThrow(() ->
+                            new EntityNotFoundException("Course not found with id: " + run.getCourseId())
+                    ));
+        } else {
+            courses = courseRepository.findBySessionOrderById(run.getSession());
+            if (courses.isEmpty()) {
+                throw new EntityNotFoundException("No courses in session: " + run.getSession());
+            }
+        }
+
+        Map<Long, Long> fees = new HashMap<>();
+        Map<Long, String> remarks = new HashMap<>();
+        for (Course course : courses) {
+            fees.put(course.getId(), run.getAmountMinor() != null ? run.getAmountMinor() : courseFee(course));
+            remarks.put(course.getId(), run.getRemarks() != null && !run.getRemarks().isBlank()
+                    ? run.getRemarks()
+                    : course.getName() + " / " + run.getPeriod());
+        }
+        return new Schedule(fees, remarks);
+    }
+
+    // enrolments of a course without a valid fee are skipped, not failed
+    private static long courseFee(Course course) {
+        try {
+            return Math.max(0, Money.parseMinor(course.getFees()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Course fee not billable | courseId={} | fees={}", course.getId(), course.getFees());
+            return 0;
+        }
+    }
+
+    // =====================================================
+    // EXECUTION
+    // =====================================================
+    private void execute(String runId) {
+
+        String owner = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+
+        Integer claimed = transactionTemplate.execute(status ->
+                billingRunRepository.claim(runId, owner, now, now.minus(staleAfter)));
+        if (claimed == null || claimed == 0) {
+            log.info("Billing run not claimed, finished or running elsewhere | runId={}", runId);
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        try {
+            BillingRun run = billingRunRepository.findById(runId).orElseThrow();
+            Schedule schedule = schedule(run);
+
+            Position position = new Position(
+                    run.getCursorStudentId() != null ? run.getCursorStudentId() : 0,
+                    run.getCursorCourseId() != null ? run.getCursorCourseId() : 0
+            );
+            if (run.getCursorStudentId() != null) {
+                log.info("Billing run resumed | runId={} | billed={} | total={}",
+                        runId, run.getBilledItems(), run.getTotalItems());
+            }
+
+            while (position != null) {
+                Position from = position;
+                position = transactionTemplate.execute(status -> billChunk(run, owner, schedule, from));
+            }
+
+            transactionTemplate.executeWithoutResult(status ->
+                    billingRunRepository.finish(runId, owner, BillingRun.COMPLETED, null, LocalDateTime.now()));
+
+            BillingRun done = billingRunRepository.findById(runId).orElseThrow();
+            log.info("Billing run completed | runId={} | billed={} | skipped={} | ms={}",
+                    runId, done.getBilledItems(), done.getSkippedItems(), System.currentTimeMillis() - started);
+
+        } catch (RuntimeException e) {
+            log.error("Billing run failed | runId={}", runId, e);
+            String error = e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500)
+                    : e.getMessage();
+            transactionTemplate.executeWithoutResult(status ->
+                    billingRunRepository.finish(runId, owner, BillingRun.FAILED, error, LocalDateTime.now()));
+        }
+    }
+
+    // null when there is nothing left after the position
+    private Position billChunk(BillingRun run, String owner, Schedule schedule, Position from) {
+
+        List<BillingTarget> targets = billingRunRepository.findTargetsAfter(
+                schedule.courseIds(), from.studentId(), from.courseId(), Limit.of(chunkSize));
+        if (targets.isEmpty()) {
+            return null;
+        }
+
+        List<BillingTarget> billable = targets.stream()
+                .filter(target -> schedule.fees().get(target.getCourseId()) > 0)
+                .toList();
+        if (!billable.isEmpty()) {
+            post(run, schedule, billable);
+        }
+
+        BillingTarget last = targets.get(targets.size() - 1);
+        int advanced = billingRunRepository.advance(run.getId(), owner, billable.size(), targets.size() - billable.size(),
+                last.getStudentId(), last.getCourseId(), LocalDateTime.now());
+        if (advanced == 0) {
+            // rolls this chunk back
+            throw new IllegalStateException("Billing run " + run.getId() + " was taken over by another worker");
+        }
+
+        log.info("Billing run progress | runId={} | chunk={} | billed={}", run.getId(), targets.size(), billable.size());
+        return new Position(last.getStudentId(), last.getCourseId());
+    }
+
+    // =====================================================
+    // JDBC BATCH POSTING
+    // =====================================================
+    private void post(BillingRun run, Schedule schedule, List<BillingTarget> billable) {
+
+        // one increment per account, in id order
+        Map<Long, Long> deltas = new TreeMap<>();
+        for (BillingTarget target : billable) {
+            deltas.merge(target.getAccountId(), -schedule.fees().get(target.getCourseId()), Long::sum);
+        }
+
+        List<Object[]> increments = new ArrayList<>(deltas.size());
+        deltas.forEach((accountId, delta) -> increments.add(new Object[]{delta, accountId}));
+        jdbcTemplate.batchUpdate(INCREMENT_BALANCE, increments);
+
+        // balance before this chunk, then stepped through the account's new entries
+        Map<Long, Long> running = new HashMap<>();
+        balances(deltas.keySet()).forEach((accountId, balance) ->
+                running.put(accountId, balance - deltas.get(accountId)));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(billable.size());
+        for (BillingTarget target : billable) {
+            long amount = -schedule.fees().get(target.getCourseId());
+            long balance = running.merge(target.getAccountId(), amount, Long::sum);
+            rows.add(new Object[]{
+                    target.getAccountId(),
+                    schedule.remarks().get(target.getCourseId()),
+                    now,
+                    amount,
+                    balance,
+                    "BILL:" + run.getId() + ":" + target.getCourseId()
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, rows);
+    }
+
+    private Map<Long, Long> balances(Collection<Long> accountIds) {
+
+        String placeholders = String.join(", ", Collections.nCopies(accountIds.size(), "?"));
+        Map<Long, Long> balances = new HashMap<>();
+        jdbcTemplate.query(
+                "select id, balance_minor from account where id in (" + placeholders + ")",
+                rs -> {
+                    balances.put(rs.getLong(1), rs.getLong(2));
+                },
+                accountIds.toArray()
+        );
+        return balances;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // an interrupted run keeps its committed chunks and can be resumed
+        executor.shutdownNow();
+    }
+}
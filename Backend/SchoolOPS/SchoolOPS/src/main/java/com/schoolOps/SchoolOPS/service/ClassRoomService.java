@@ -4,7 +4,9 @@ package com.schoolOps.SchoolOPS.service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import com.schoolOps.SchoolOPS.dto.ClassWorkResponseDto;
 import com.schoolOps.SchoolOPS.entity.ClassRoom;
 import com.schoolOps.SchoolOPS.entity.ClassWork;
 import com.schoolOps.SchoolOPS.entity.Course;
@@ -34,6 +36,7 @@ public class ClassRoomService {
     private final ClassWorkRepository classWorkRepository;
     private final CourseRepository courseRepository;
     private final WorkRepository workRepository;
+    private final EventStreamService eventStreamService;
 
     // ---------- CLASSROOM ----------
     public ClassRoom createClassRoom(Course course) {
@@ -79,6 +82,12 @@ public class ClassRoomService {
         classWorkRepository.save(classWork);
         classRoomRepository.save(classRoom);
 
+        eventStreamService.publish(
+                EventStreamService.course(courseId),
+                "classwork.posted",
+                Map.of("courseId", courseId, "classWork", ClassWorkResponseDto.fromEntity(classWork, List.of()))
+        );
+
         log.info("ClassWork posted | courseId={} | title={}", courseId, classWork.getTitle());
     }
 
@@ -1,15 +1,22 @@
 package com.schoolOps.SchoolOPS.service;
 
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
+import com.schoolOps.SchoolOPS.dto.CourseResponseDto;
+import com.schoolOps.SchoolOPS.dto.PageRequestDto;
+import com.schoolOps.SchoolOPS.dto.PageResponseDto;
 import com.schoolOps.SchoolOPS.entity.*;
 import com.schoolOps.SchoolOPS.repository.*;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
+import com.schoolOps.SchoolOPS.utils.KeysetPager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.transaction.Transactional;
 
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 
@@ -23,16 +30,22 @@ import org.springframework.web.multipart.MultipartFile;
 @Transactional
 public class CourseService {
 
+    private static final KeysetPager<Course> PAGER = KeysetPager.of(Course::getId)
+            .sortable("name", "name", Course::getName, Function.identity())
+            .fetching("teacher", "classRoom");
+
     private final TeacherRepository teacherRepository;
     private final CourseRepository courseRepository;
     private final ClassRoomRepository classRoomRepository;
     private final ClassRoomService classRoomService;
     private final ClassWorkRepository classWorkRepository;
     private final WorkRepository workRepository;
-    private final AttendenceRepository attendenceRepository;
+    private final AttendanceService attendanceService;
     private final StudentRepository studentRepository;
     private final AccountService accountService;
     private final CloudinaryService cloudinaryService;
+    private final ResponseAssembler responseAssembler;
+    private final AggregateVersions aggregateVersions;
 
 
     // ---------- CREATE / UPDATE ----------
@@ -52,6 +65,8 @@ public class CourseService {
             classRoomService.createClassRoom(saved);
         }
 
+        aggregateVersions.bump(Aggregate.COURSES, Aggregate.STUDENTS, Aggregate.TEACHERS);
+
         log.info("Course created | courseId={}", saved.getId());
         return saved;
     }
@@ -90,6 +105,7 @@ public class CourseService {
         existing.setTime(course.getTime());
 
         Course updated = courseRepository.save(existing);
+        aggregateVersions.bump(Aggregate.COURSES, Aggregate.STUDENTS, Aggregate.TEACHERS);
 
         log.info("Course updated | courseId={}", updated.getId());
         return updated;
@@ -133,10 +149,7 @@ public class CourseService {
         }
 
         // ---------- DELETE ATTENDANCE ----------
-        if (course.getAttendence() != null) {
-            course.getAttendence().forEach(a -> a.setStudents(null));
-            attendenceRepository.deleteAll(course.getAttendence());
-        }
+        attendanceService.deleteForCourse(course);
 
         // ---------- DETACH FROM STUDENTS ----------
         if (course.getStudents() != null) {
@@ -148,14 +161,42 @@ public class CourseService {
 
         // ---------- DELETE COURSE ----------
         courseRepository.delete(course);
+        aggregateVersions.bump(Aggregate.COURSES, Aggregate.STUDENTS, Aggregate.TEACHERS);
 
         log.info("Course deleted | courseId={}", courseId);
     }
 
 
     // ---------- FETCH ----------
-    public List<Course> getAllCourses() {
-        return courseRepository.findAll();
+    public List<CourseResponseDto> getTeacherCourses(Long teacherId) {
+        return responseAssembler.courses(courseRepository.findByTeacherIdOrderById(teacherId));
+    }
+
+    public List<CourseResponseDto> getStudentCourses(Long studentId) {
+        return responseAssembler.courses(courseRepository.findByStudentId(studentId));
+    }
+
+    public PageResponseDto<CourseResponseDto> getCourses(
+            PageRequestDto page,
+            String name,
+            String session,
+            Long teacherId
+    ) {
+        Specification<Course> filter = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (name != null && !name.isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("name")), "%" + name.trim().toLowerCase() + "%"));
+            }
+            if (session != null && !session.isBlank()) {
+                predicates.add(cb.equal(root.get("session"), session));
+            }
+            if (teacherId != null) {
+                predicates.add(cb.equal(root.get("teacher").get("id"), teacherId));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+
+        return PAGER.fetch(courseRepository, filter, page, responseAssembler::courses);
     }
 
     public Course getCourseById(Long courseId) {
@@ -180,31 +221,20 @@ public class CourseService {
 
         course.setTeacher(teacher);
         courseRepository.save(course);
+        aggregateVersions.bump(Aggregate.COURSES, Aggregate.STUDENTS, Aggregate.TEACHERS);
 
         // Ensure teacher account exists
         if (teacher.getAccount() == null) {
             accountService.openTeacherAccount(teacher);
         }
 
-        Account account = teacher.getAccount();
-
-        Transaction transaction = new Transaction();
-        transaction.setType("COURSESTART");
-        transaction.setAmount(0);
-        transaction.setMode(String.valueOf(courseId));
-        transaction.setRemarks(course.getName());
-        transaction.setTimestamp(LocalDateTime.now());
-        transaction.setAccount(account);
-
-        List<Transaction> transactions =
-                account.getTransactions() != null
-                        ? account.getTransactions()
-                        : new ArrayList<>();
-
-        transactions.add(transaction);
-        account.setTransactions(transactions);
-
-        accountService.saveAccount(account);
+        accountService.post(
+                teacher.getAccount().getId(),
+                "COURSESTART",
+                0,
+                String.valueOf(courseId),
+                course.getName()
+        );
 
         log.info(
                 "Course assigned | courseId={} | teacherId={}",
@@ -0,0 +1,295 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.schoolOps.SchoolOPS.utils.CsvWriter;
+import com.schoolOps.SchoolOPS.utils.Money;
+
+import jakarta.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outstanding dues (negative balances) per student and per course, exported
+ * as CSV.
+ *
+ * <p>Defaulters are read in one streamed query, a row per student and
+ * course, and folded as they arrive: the student export writes each student
+ * once their last row has passed, the course export keeps one running total
+ * per course. Neither holds more than a student (or the course totals) in
+ * memory, whatever the number of accounts. The per-account figures (last
+ * payment, overdue since) are aggregated once per defaulting account in a
+ * derived table, not per course row.
+ *
+ * <p>Balances are per account, not per course, so the course export cannot
+ * say how much is owed for a course. Its {@code defaulterBalances} column is
+ * the sum of the full balances owed by the course's defaulters: a student in
+ * several courses counts in each, and the column does not add up across
+ * courses to the money owed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DuesReportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    // last CREDIT, and the first entry after the balance was last zero or above (ids follow posting order);
+    // both over the defaulters' entries only, one pass each
+    private static final String DUES = """
+            select s.id as student_id, s.roll_no, s.name, a.balance_minor,
+                   d.last_payment_at, d.overdue_since,
+                   c.id as course_id, c.name as course_name
+            from student s
+            join account a on a.id = s.account_id
+            left join (
+                select t.account_id,
+                       max(case when t.type = 'CREDIT' then t.timestamp end) as last_payment_at,
+                       min(case when t.id > coalesce(z.settled_id, 0) then t.timestamp end) as overdue_since
+                from account da
+                join transaction t on t.account_id = da.id
+                left join (
+                    select st.account_id, max(st.id) as settled_id
+                    from account sa
+                    join transaction st on st.account_id = sa.id
+                    where sa.balance_minor <= ? and st.balance_minor >= 0
+                    group by st.account_id
+                ) z on z.account_id = t.account_id
+                where da.balance_minor <= ?
+                group by t.account_id
+            ) d on d.account_id = a.id
+            left join student_courses sc on sc.students_id = s.id
+            left join course c on c.id = sc.courses_id
+            where a.balance_minor <= ?
+            """;
+
+    private static final String IN_COURSE =
+            " and exists (select 1 from student_courses f where f.students_id = s.id and f.courses_id = ?)";
+
+    private static final String ORDER = " order by s.id, c.id";
+
+    // a student owing money with one of their courses (none: null), in (studentId, courseId) order
+    private record DuesRow(
+            Long studentId,
+            int rollNo,
+            String name,
+            long balanceMinor,
+            LocalDateTime lastPaymentAt,
+            LocalDateTime overdueSince,
+            Long courseId,
+            String courseName
+    ) {
+
+        static DuesRow map(ResultSet rs, int rowNum) throws SQLException {
+            return new DuesRow(
+                    rs.getLong("student_id"),
+                    rs.getInt("roll_no"),
+                    rs.getString("name"),
+                    rs.getLong("balance_minor"),
+                    rs.getObject("last_payment_at", LocalDateTime.class),
+                    rs.getObject("overdue_since", LocalDateTime.class),
+                    rs.getObject("course_id", Long.class),
+                    rs.getString("course_name")
+            );
+        }
+    }
+
+    // one defaulter, built from their consecutive rows
+    private static final class StudentDues {
+
+        private final DuesRow first;
+        private final List<String> courses = new ArrayList<>();
+        private final List<Long> courseIds = new ArrayList<>();
+
+        private StudentDues(DuesRow first) {
+            this.first = first;
+        }
+
+        long duesMinor() {
+            return -first.balanceMinor();
+        }
+
+        Long daysOverdue(LocalDate today) {
+            return first.overdueSince() == null
+                    ? null
+                    : ChronoUnit.DAYS.between(first.overdueSince().toLocalDate(), today);
+        }
+    }
+
+    private static final class CourseDues {
+
+        private final Long courseId;
+        private final String courseName;
+        private int students;
+        // full balance of every defaulter enrolled, so students in several courses count in each
+        private long balancesMinor;
+        private long maxDaysOverdue;
+        private LocalDateTime lastPaymentAt;
+
+        private CourseDues(Long courseId, String courseName) {
+            this.courseId = courseId;
+            this.courseName = courseName;
+        }
+
+        void add(StudentDues dues, LocalDate today) {
+            students++;
+            balancesMinor += dues.duesMinor();
+            Long days = dues.daysOverdue(today);
+            if (days != null) {
+                maxDaysOverdue = Math.max(maxDaysOverdue, days);
+            }
+            LocalDateTime paid = dues.first.lastPaymentAt();
+            if (paid != null && (lastPaymentAt == null || paid.isAfter(lastPaymentAt))) {
+                lastPaymentAt = paid;
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Integer.MIN_VALUE: MySQL Connector/J streams rows instead of buffering the result; other drivers want a positive size
+    @Value("${app.dues.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    // ---------- PER STUDENT ----------
+    @Transactional
+    public void writeStudents(Writer out, Long courseId, long minDuesMinor) {
+
+        LocalDate today = LocalDate.now();
+        CsvWriter csv = new CsvWriter(out);
+        int[] written = {0};
+
+        write(() -> csv.writeRecord("studentId", "rollNo", "name", "courses", "dues", "overdueSince",
+                "daysOverdue", "lastPaymentAt"));
+
+        stream(courseId, minDuesMinor, dues -> write(() -> {
+            csv.writeRecord(
+                    dues.first.studentId(),
+                    dues.first.rollNo(),
+                    dues.first.name(),
+                    String.join("; ", dues.courses),
+                    Money.toMajor(dues.duesMinor()),
+                    dues.first.overdueSince() != null ? dues.first.overdueSince().toLocalDate() : null,
+                    dues.daysOverdue(today),
+                    dues.first.lastPaymentAt()
+            );
+            // pushes a chunk to the client instead of buffering the export
+            if (++written[0] % FLUSH_EVERY == 0) {
+                csv.flush();
+            }
+        }));
+
+        write(csv::flush);
+        log.info("Dues report exported | view=students | courseId={} | students={}", courseId, written[0]);
+    }
+
+    // ---------- PER COURSE ----------
+    @Transactional
+    public void writeCourses(Writer out, long minDuesMinor) {
+
+        LocalDate today = LocalDate.now();
+        Map<Long, CourseDues> byCourse = new HashMap<>();
+        CourseDues noCourse = new CourseDues(null, "(no course)");
+
+        stream(null, minDuesMinor, dues -> {
+            if (dues.courseIds.isEmpty()) {
+                noCourse.add(dues, today);
+            }
+            for (int i = 0; i < dues.courseIds.size(); i++) {
+                String name = dues.courses.get(i);
+                byCourse.computeIfAbsent(dues.courseIds.get(i), id -> new CourseDues(id, name)).add(dues, today);
+            }
+        });
+
+        List<CourseDues> courses = new ArrayList<>(byCourse.values());
+        if (noCourse.students > 0) {
+            courses.add(noCourse);
+        }
+        courses.sort(Comparator.comparingLong((CourseDues c) -> c.balancesMinor).reversed());
+
+        CsvWriter csv = new CsvWriter(out);
+        write(() -> {
+            csv.writeRecord("courseId", "course", "defaulters", "defaulterBalances", "maxDaysOverdue", "lastPaymentAt");
+            for (CourseDues course : courses) {
+                csv.writeRecord(course.courseId, course.courseName, course.students,
+                        Money.toMajor(course.balancesMinor), course.maxDaysOverdue, course.lastPaymentAt);
+            }
+            csv.flush();
+        });
+        log.info("Dues report exported | view=courses | courses={}", courses.size());
+    }
+
+    // ---------- STREAM ----------
+    // hands over each student once all their rows (one per course) have been read
+    private void stream(Long courseId, long minDuesMinor, Consumer<StudentDues> consumer) {
+
+        // students owing less are left out; at least one paisa, i.e. a negative balance
+        long maxBalance = -Math.max(1, minDuesMinor);
+
+        String sql = DUES + (courseId != null ? IN_COURSE : "") + ORDER;
+
+        try (Stream<DuesRow> rows = jdbcTemplate.queryForStream(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(fetchSize);
+                    ps.setLong(1, maxBalance);
+                    ps.setLong(2, maxBalance);
+                    ps.setLong(3, maxBalance);
+                    if (courseId != null) {
+                        ps.setLong(4, courseId);
+                    }
+                    return ps;
+                },
+                DuesRow::map)) {
+            StudentDues[] current = {null};
+            rows.forEach(row -> {
+                if (current[0] == null || !current[0].first.studentId().equals(row.studentId())) {
+                    if (current[0] != null) {
+                        consumer.accept(current[0]);
+                    }
+                    current[0] = new StudentDues(row);
+                }
+                if (row.courseId() != null) {
+                    current[0].courseIds.add(row.courseId());
+                    current[0].courses.add(row.courseName());
+                }
+            });
+            if (current[0] != null) {
+                consumer.accept(current[0]);
+            }
+        }
+    }
+
+    private interface CsvWrite {
+        void run() throws IOException;
+    }
+
+    // a client closing the download ends the stream (and the query) here
+    private static void write(CsvWrite action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
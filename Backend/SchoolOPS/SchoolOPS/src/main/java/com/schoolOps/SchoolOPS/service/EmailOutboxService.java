@@ -0,0 +1,305 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.schoolOps.SchoolOPS.entity.OutboundEmail;
+import com.schoolOps.SchoolOPS.repository.OutboundEmailRepository;
+import com.schoolOps.SchoolOPS.utils.MailBatchSender;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transactional email outbox.
+ *
+ * <p>{@link #enqueue} only inserts a row, in the caller's transaction, so a
+ * rolled-back operation never mails anyone and SMTP latency never holds a
+ * database transaction or request thread. A small worker pool claims due rows
+ * ({@code SKIP LOCKED}, so several nodes can drain the same table), sends each
+ * claim as one batch over a single SMTP connection and retries failures with
+ * exponential backoff. Workers are woken right after the enqueuing
+ * transaction commits and otherwise poll every {@code poll-interval}.
+ *
+ * <p>Point {@code spring.mail.host}/{@code port} at a local fake SMTP server
+ * (GreenMail, MailHog, ...) to exercise the full pipeline in tests.
+ */
+@Service
+@Slf4j
+public class EmailOutboxService {
+
+    private static final List<String> QUEUED = List.of(OutboundEmail.PENDING, OutboundEmail.SENDING);
+
+    private static final String INSERT_PENDING = """
+            insert into email_outbox (recipient, subject, body, html, status, attempts, next_attempt_at, created_at)
+            values (?, ?, ?, ?, 'PENDING', 0, ?, ?)
+            """;
+
+    private final OutboundEmailRepository outboxRepository;
+    private final MailBatchSender mailBatchSender;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration pollInterval;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration sendLease;
+    private final Duration retention;
+
+    private final AtomicInteger runningDrains = new AtomicInteger();
+    private final AtomicLong queueDepth = new AtomicLong();
+
+    private final Timer batchTimer;
+    private final Timer deliveryLag;
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+
+    private ScheduledExecutorService scheduler;
+
+    public EmailOutboxService(
+            OutboundEmailRepository outboxRepository,
+            MailBatchSender mailBatchSender,
+            TransactionTemplate transactionTemplate,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.mail.outbox.enabled:true}") boolean enabled,
+            @Value("${app.mail.outbox.workers:2}") int workers,
+            @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+            @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.mail.outbox.poll-interval:10s}") Duration pollInterval,
+            @Value("${app.mail.outbox.initial-backoff:30s}") Duration initialBackoff,
+            @Value("${app.mail.outbox.max-backoff:1h}") Duration maxBackoff,
+            @Value("${app.mail.outbox.send-lease:5m}") Duration sendLease,
+            @Value("${app.mail.outbox.retention:7d}") Duration retention
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.mailBatchSender = mailBatchSender;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.pollInterval = pollInterval;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.sendLease = sendLease;
+        this.retention = retention;
+
+        Gauge.builder("schoolops.mail.outbox.depth", queueDepth, AtomicLong::get)
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("schoolops.mail.send.batch").register(meterRegistry);
+        this.deliveryLag = Timer.builder("schoolops.mail.delivery.lag").register(meterRegistry);
+        this.sentCounter = Counter.builder("schoolops.mail.send").tag("result", "sent").register(meterRegistry);
+        this.retryCounter = Counter.builder("schoolops.mail.send").tag("result", "retry").register(meterRegistry);
+        this.failedCounter = Counter.builder("schoolops.mail.send").tag("result", "failed").register(meterRegistry);
+    }
+
+    // =====================================================
+    // ENQUEUE
+    // =====================================================
+    public void enqueue(String to, String subject, String body, boolean html) {
+
+        OutboundEmail mail = outboxRepository.save(OutboundEmail.of(to, subject, body, html));
+        log.debug("Email queued | id={} | to={}", mail.getId(), to);
+        wakeAfterCommit();
+    }
+
+    // one JDBC batch: saveAll would insert row by row to read back each IDENTITY id
+    public void enqueueAll(List<OutboundEmail> mails) {
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(mails.size());
+        for (OutboundEmail mail : mails) {
+            rows.add(new Object[]{mail.getRecipient(), mail.getSubject(), mail.getBody(), mail.isHtml(), now, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_PENDING, rows);
+        log.debug("Emails queued | count={}", mails.size());
+        wakeAfterCommit();
+    }
+
+    private void wakeAfterCommit() {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wake();
+                }
+            });
+        } else {
+            wake();
+        }
+    }
+
+    // =====================================================
+    // WORKERS
+    // =====================================================
+    @PostConstruct
+    void start() {
+
+        if (!enabled) {
+            log.info("Email outbox worker disabled");
+            return;
+        }
+
+        AtomicInteger threadNo = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "mail-outbox-" + threadNo.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < workers; i++) {
+            scheduler.scheduleWithFixedDelay(
+                    this::drain, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        scheduler.scheduleWithFixedDelay(this::purgeSent, 1, 60, TimeUnit.MINUTES);
+    }
+
+    private void wake() {
+        if (scheduler != null && runningDrains.get() < workers) {
+            scheduler.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+
+        if (runningDrains.incrementAndGet() > workers) {
+            runningDrains.decrementAndGet();
+            return;
+        }
+
+        try {
+            while (processBatch() == batchSize) {
+                // full batch: there is probably more due
+            }
+            queueDepth.set(outboxRepository.countByStatusIn(QUEUED));
+        } catch (RuntimeException e) {
+            log.error("Email outbox drain failed", e);
+        } finally {
+            runningDrains.decrementAndGet();
+        }
+    }
+
+    private int processBatch() {
+
+        List<OutboundEmail> claimed = transactionTemplate.execute(status -> claim());
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Exception> failures = batchTimer.record(() -> mailBatchSender.send(claimed));
+
+        transactionTemplate.executeWithoutResult(status -> complete(claimed, failures));
+        return claimed.size();
+    }
+
+    private List<OutboundEmail> claim() {
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboundEmail> due = outboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+
+        // lease the rows so another node picks them up again if this one dies mid-send
+        for (OutboundEmail mail : due) {
+            mail.setStatus(OutboundEmail.SENDING);
+            mail.setAttempts(mail.getAttempts() + 1);
+            mail.setNextAttemptAt(now.plus(sendLease));
+        }
+        return due;
+    }
+
+    private void complete(List<OutboundEmail> claimed, Map<Long, Exception> failures) {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (OutboundEmail mail : claimed) {
+            Exception failure = failures.get(mail.getId());
+
+            if (failure == null) {
+                mail.setStatus(OutboundEmail.SENT);
+                mail.setSentAt(now);
+                mail.setNextAttemptAt(null);
+                mail.setLastError(null);
+                sentCounter.increment();
+                deliveryLag.record(Duration.between(mail.getCreatedAt(), now));
+
+            } else if (mail.getAttempts() >= maxAttempts) {
+                mail.setStatus(OutboundEmail.FAILED);
+                mail.setNextAttemptAt(null);
+                mail.setLastError(truncate(failure.toString()));
+                failedCounter.increment();
+                log.error("Email dropped after {} attempts | id={} | to={}",
+                        mail.getAttempts(), mail.getId(), mail.getRecipient(), failure);
+
+            } else {
+                mail.setStatus(OutboundEmail.PENDING);
+                mail.setNextAttemptAt(now.plus(backoff(mail.getAttempts())));
+                mail.setLastError(truncate(failure.toString()));
+                retryCounter.increment();
+                log.warn("Email send failed, will retry | id={} | attempt={} | next={}",
+                        mail.getId(), mail.getAttempts(), mail.getNextAttemptAt());
+            }
+        }
+
+        outboxRepository.saveAll(claimed);
+    }
+
+    private Duration backoff(int attempts) {
+        // 30s, 1m, 2m, 4m, ... capped at max-backoff
+        long factor = 1L << Math.min(attempts - 1, 20);
+        Duration delay = initialBackoff.multipliedBy(factor);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void purgeSent() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    outboxRepository.deleteSentBefore(LocalDateTime.now().minus(retention)));
+            if (deleted != null && deleted > 0) {
+                log.info("Sent emails purged from outbox | count={}", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Email outbox purge failed", e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.schoolOps.SchoolOPS.service;
 
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
+import com.schoolOps.SchoolOPS.dto.EnqueryResponseDto;
+import com.schoolOps.SchoolOPS.dto.PageRequestDto;
+import com.schoolOps.SchoolOPS.dto.PageResponseDto;
 import com.schoolOps.SchoolOPS.entity.Enquery;
 import com.schoolOps.SchoolOPS.repository.EnqueryRepository;
+import com.schoolOps.SchoolOPS.utils.KeysetPager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.transaction.Transactional;
 
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 
@@ -20,6 +28,10 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 public class EnqueryService {
 
+    private static final KeysetPager<Enquery> PAGER = KeysetPager.of(Enquery::getId)
+            .sortable("name", "name", Enquery::getName, Function.identity())
+            .sortable("status", "status", Enquery::getStatus, Function.identity());
+
     private final EnqueryRepository enqueryRepository;
 
     // ---------- CREATE ----------
@@ -31,8 +43,26 @@ public class EnqueryService {
     }
 
     // ---------- READ ----------
-    public List<Enquery> getAllEnquery() {
-        return enqueryRepository.findAll();
+    // query matches name, email or subject
+    public PageResponseDto<EnqueryResponseDto> getEnqueries(PageRequestDto page, String status, String query) {
+
+        Specification<Enquery> filter = (root, criteria, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (status != null && !status.isBlank()) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (query != null && !query.isBlank()) {
+                String pattern = "%" + query.trim().toLowerCase() + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("name")), pattern),
+                        cb.like(cb.lower(root.get("email")), pattern),
+                        cb.like(cb.lower(root.get("subject")), pattern)
+                ));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+
+        return PAGER.fetch(enqueryRepository, filter, page, enqueries -> enqueries.stream().map(EnqueryResponseDto::fromEntity).toList());
     }
 
     // ---------- DELETE ----------
@@ -0,0 +1,310 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.schoolOps.SchoolOPS.repository.CourseRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Server-sent event push for new notices and classwork. Clients subscribe
+ * to topics ({@value #NOTICES} and {@code course:<id>}) picked from their
+ * role and courses; services publish after their transaction commits.
+ *
+ * <p>An idle subscriber is an async servlet response plus a queue, no
+ * thread. Publishing serialises the payload once and only enqueues; each
+ * subscriber with pending events is drained by a short-lived virtual
+ * thread, so a slow client never holds up the others and one that falls
+ * {@code app.events.max-pending} events behind is disconnected (the browser
+ * reconnects and reloads).
+ */
+@Service
+@Slf4j
+public class EventStreamService {
+
+    public static final String NOTICES = "notices";
+
+    public static String course(Long courseId) {
+        return "course:" + courseId;
+    }
+
+    // name == null: heartbeat comment
+    private record Event(long id, String name, String json) {
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment("ping");
+            }
+            return SseEmitter.event()
+                    .id(Long.toString(id))
+                    .name(name)
+                    .data(json, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private static final Event HEARTBEAT = new Event(0, null, null);
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String username;
+        private final Set<String> topics;
+        private final Queue<Event> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, String username, Set<String> topics) {
+            this.emitter = emitter;
+            this.username = username;
+            this.topics = topics;
+        }
+
+        // never blocks the publisher
+        void offer(Event event) {
+            if (closed.get()) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPending) {
+                droppedCounter.increment();
+                log.warn("Event subscriber too slow, disconnecting | user={}", username);
+                emitter.complete();
+                unregister(this);
+                return;
+            }
+            pending.add(event);
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Event event;
+                while ((event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    try {
+                        emitter.send(event.toSse());
+                    } catch (IOException | IllegalStateException e) {
+                        log.debug("Event subscriber gone | user={}", username);
+                        unregister(this);
+                        return;
+                    }
+                }
+                draining.set(false);
+                // an event added after the last poll but before the reset is picked up here
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+
+    private final CourseRepository courseRepository;
+    private final JsonMapper jsonMapper;
+
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final int maxSubscribers;
+    private final int maxPending;
+
+    private final Map<String, Set<Subscriber>> byTopic = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService heartbeats;
+
+    public EventStreamService(
+            CourseRepository courseRepository,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.events.timeout:30m}") Duration timeout,
+            @Value("${app.events.heartbeat:25s}") Duration heartbeat,
+            @Value("${app.events.max-subscribers:10000}") int maxSubscribers,
+            @Value("${app.events.max-pending:100}") int maxPending
+    ) {
+        this.courseRepository = courseRepository;
+        this.jsonMapper = jsonMapper;
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPending = Math.max(1, maxPending);
+
+        Gauge.builder("schoolops.events.subscribers", subscribers, Set::size)
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("schoolops.events.published").register(meterRegistry);
+        this.droppedCounter = Counter.builder("schoolops.events.dropped").register(meterRegistry);
+    }
+
+    // =====================================================
+    // SUBSCRIBE
+    // =====================================================
+    public SseEmitter subscribeAdmin(String username) {
+        return subscribe(username, Set.of(NOTICES));
+    }
+
+    public SseEmitter subscribeStudent(String username, Long studentId) {
+        return subscribe(username, topics(courseRepository.findIdsByStudentId(studentId)));
+    }
+
+    public SseEmitter subscribeTeacher(String username, Long teacherId) {
+        return subscribe(username, topics(courseRepository.findIdsByTeacherId(teacherId)));
+    }
+
+    // course topics are fixed at subscribe time; a new enrollment shows up on reconnect
+    private static Set<String> topics(List<Long> courseIds) {
+        Set<String> topics = ConcurrentHashMap.newKeySet();
+        topics.add(NOTICES);
+        for (Long courseId : courseIds) {
+            topics.add(course(courseId));
+        }
+        return topics;
+    }
+
+    private SseEmitter subscribe(String username, Set<String> topics) {
+
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, username, topics);
+
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+
+        subscribers.add(subscriber);
+        for (String topic : topics) {
+            byTopic.computeIfAbsent(topic, t -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+
+        // commits the response headers so the client sees the stream open
+        subscriber.offer(new Event(sequence.get(), "ready", jsonMapper.writeValueAsString(topics)));
+
+        log.debug("Event subscriber added | user={} | topics={}", username, topics.size());
+        return emitter;
+    }
+
+    private void unregister(Subscriber subscriber) {
+
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        subscribers.remove(subscriber);
+        for (String topic : subscriber.topics) {
+            Set<Subscriber> members = byTopic.get(topic);
+            if (members != null) {
+                members.remove(subscriber);
+            }
+        }
+        subscriber.pending.clear();
+    }
+
+    // =====================================================
+    // PUBLISH
+    // =====================================================
+
+    /**
+     * Sends {@code payload} to every subscriber of {@code topic} once the
+     * surrounding transaction commits; nothing is sent on rollback.
+     */
+    public void publish(String topic, String name, Object payload) {
+
+        Event event = new Event(sequence.incrementAndGet(), name, jsonMapper.writeValueAsString(payload));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fanOut(topic, event);
+                }
+            });
+        } else {
+            fanOut(topic, event);
+        }
+    }
+
+    private void fanOut(String topic, Event event) {
+
+        Set<Subscriber> members = byTopic.get(topic);
+        int delivered = 0;
+        if (members != null) {
+            for (Subscriber subscriber : members) {
+                subscriber.offer(event);
+                delivered++;
+            }
+        }
+
+        publishedCounter.increment();
+        log.debug("Event published | topic={} | name={} | subscribers={}", topic, event.name(), delivered);
+    }
+
+    // =====================================================
+    // HEARTBEAT
+    // =====================================================
+    @PostConstruct
+    void start() {
+
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // keeps proxies from closing idle streams and finds dead connections
+        heartbeats.scheduleAtFixedRate(() -> {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+
+        heartbeats.shutdownNow();
+
+        List<Subscriber> open = new ArrayList<>(subscribers);
+        for (Subscriber subscriber : open) {
+            subscriber.emitter.complete();
+            unregister(subscriber);
+        }
+        sender.shutdown();
+
+        log.info("Event streams closed | subscribers={}", open.size());
+    }
+}
@@ -6,6 +6,7 @@ import java.util.Map;
 
 import com.schoolOps.SchoolOPS.entity.Gallery;
 import com.schoolOps.SchoolOPS.repository.GalleryRepository;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -24,6 +25,7 @@ public class GalleryService {
 
     private final GalleryRepository galleryRepository;
     private final CloudinaryService cloudinaryService;
+    private final AggregateVersions aggregateVersions;
 
     // ---------- CREATE ----------
     public Gallery saveToGallery(Gallery gallery, MultipartFile file) {
@@ -39,6 +41,7 @@ public class GalleryService {
         gallery.setDate(LocalDate.now());
 
         Gallery saved = galleryRepository.save(gallery);
+        aggregateVersions.bump(Aggregate.GALLERY);
         log.info("Gallery entry created | id={}", saved.getId());
 
         return saved;
@@ -64,6 +67,7 @@ public class GalleryService {
         cloudinaryService.deleteImage(gallery.getImagePublicId());
 
         galleryRepository.delete(gallery);
+        aggregateVersions.bump(Aggregate.GALLERY);
         log.info("Gallery entry deleted | id={}", galleryId);
     }
 }
@@ -0,0 +1,124 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.schoolOps.SchoolOPS.entity.AttendanceRoster;
+import com.schoolOps.SchoolOPS.entity.Attendence;
+import com.schoolOps.SchoolOPS.repository.AttendanceRollupRepository;
+import com.schoolOps.SchoolOPS.repository.AttendanceRosterRepository;
+import com.schoolOps.SchoolOPS.repository.AttendenceRepository;
+import com.schoolOps.SchoolOPS.repository.StudentRepository;
+
+import jakarta.persistence.EntityNotFoundException;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Indexes roster members for rosters stored without them, and converts
+ * attendance sessions written before the roster/bitset format
+ * (rows with no roster, students in {@code attendance_students}). Runs at
+ * startup and is a no-op once every session has a roster. The roster for a
+ * legacy session is the course's current enrolment plus everyone marked
+ * present, since the enrolment at the time was never recorded. Attendance
+ * rollups are rebuilt after a migration, or when the rollup table is empty.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LegacyAttendanceMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AttendenceRepository attendenceRepository;
+    private final AttendanceRosterRepository rosterRepository;
+    private final StudentRepository studentRepository;
+    private final AttendanceService attendanceService;
+    private final AttendanceRollupRepository rollupRepository;
+    private final AttendanceRollupService rollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        indexRostersWithoutMembers();
+        migrateSessions();
+        backfillRollups();
+    }
+
+    private void migrateSessions() {
+
+        List<Long> pending = jdbcTemplate.queryForList(
+                "select id from attendence where roster_id is null", Long.class);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        log.info("Migrating legacy attendance | sessions={}", pending.size());
+
+        try {
+            pending.forEach(id -> transactionTemplate.executeWithoutResult(status -> migrate(id)));
+        } catch (BadSqlGrammarException e) {
+            log.warn("Legacy attendance table not found; sessions left without roster | count={}",
+                    pending.size());
+            return;
+        }
+
+        log.info("Legacy attendance migrated | sessions={}", pending.size());
+        transactionTemplate.executeWithoutResult(status -> rollupService.rebuildAll());
+    }
+
+    // first start with rollups: count the history once, marks keep it current from then on
+    private void backfillRollups() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (rollupRepository.count() == 0 && attendenceRepository.count() > 0) {
+                rollupService.rebuildAll();
+                log.info("Attendance rollups backfilled");
+            }
+        });
+    }
+
+    // rosters stored before the member index existed
+    private void indexRostersWithoutMembers() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<AttendanceRoster> rosters = rosterRepository.findWithoutMembers();
+            rosters.forEach(attendanceService::indexMembers);
+            if (!rosters.isEmpty()) {
+                log.info("Attendance roster members indexed | rosters={}", rosters.size());
+            }
+        });
+    }
+
+    private void migrate(Long attendanceId) {
+
+        Attendence attendance = attendenceRepository.findById(attendanceId)
+                .orElseThrow(() ->
+                        new EntityNotFoundException("Attendance not found with id: " + attendanceId)
+                );
+
+        List<Long> presentIds = jdbcTemplate.queryForList(
+                "select student_id from attendance_students where attendance_id = ?",
+                Long.class,
+                attendanceId
+        );
+
+        Set<Long> rosterIds = new HashSet<>(
+                studentRepository.findIdsByCourseId(attendance.getCourse().getId()));
+        rosterIds.addAll(presentIds);
+
+        AttendanceRoster roster = attendanceService.rosterFor(attendance.getCourse(), rosterIds);
+        attendance.setRoster(roster);
+        attendance.setPresentBits(attendanceService.presenceBits(roster, presentIds));
+        attendenceRepository.save(attendance);
+
+        jdbcTemplate.update("delete from attendance_students where attendance_id = ?", attendanceId);
+    }
+}
@@ -0,0 +1,48 @@
+package com.schoolOps.SchoolOPS.service;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves balances and amounts written before the ledger stored paise from
+ * the old {@code float} rupee columns into the {@code *_minor} columns, then
+ * drops the old columns (they are {@code not null} without a default and
+ * would reject new rows). Runs at startup and is a no-op once they are gone.
+ * A restart between the copy and the drop copies again from the same values.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LegacyBalanceMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        migrate("account", "account_balance", "balance_minor");
+        migrate("transaction", "amount", "amount_minor");
+        migrate("transaction", "balance", "balance_minor");
+    }
+
+    private void migrate(String table, String legacyColumn, String minorColumn) {
+
+        int rows;
+        try {
+            rows = jdbcTemplate.update(
+                    "update " + table + " set " + minorColumn + " = round(" + legacyColumn + " * 100)");
+        } catch (BadSqlGrammarException e) {
+            // column already dropped, or a schema created after the change
+            return;
+        }
+
+        jdbcTemplate.execute("alter table " + table + " drop column " + legacyColumn);
+        log.info("Legacy balances migrated to paise | table={} | column={} | rows={}", table, legacyColumn, rows);
+    }
+}
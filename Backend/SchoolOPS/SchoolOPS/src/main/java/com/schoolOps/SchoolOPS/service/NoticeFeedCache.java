@@ -0,0 +1,196 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import com.schoolOps.SchoolOPS.dto.NoticeResponseDto;
+import com.schoolOps.SchoolOPS.dto.NoticeSummaryDto;
+import com.schoolOps.SchoolOPS.dto.PageRequestDto;
+import com.schoolOps.SchoolOPS.dto.PageResponseDto;
+import com.schoolOps.SchoolOPS.entity.Notice;
+import com.schoolOps.SchoolOPS.repository.NoticeRepository;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
+import com.schoolOps.SchoolOPS.utils.KeysetPager;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.util.RawValue;
+
+/**
+ * Newest-first notice feed. The newest {@code app.notice.feed.size} notices
+ * are kept serialised in both views (full and summary) until the
+ * {@link Aggregate#NOTICES} version moves, so the notice board is served
+ * without a query; pages beyond the window are read from the database by
+ * keyset on {@code (date, id)}, summaries without the description column.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NoticeFeedCache {
+
+    public enum View {
+        FULL,
+        SUMMARY
+    }
+
+    private record Entry(LocalDateTime date, Long id, RawValue full, RawValue summary) {
+
+        RawValue json(View view) {
+            return view == View.FULL ? full : summary;
+        }
+    }
+
+    // complete: the window holds every notice, nothing older to read
+    private record Window(List<Entry> entries, boolean complete, long version) {
+    }
+
+    private record Key(LocalDateTime date, Long id) {
+
+        // strictly older in feed order
+        boolean olderThan(Key other) {
+            int byDate = date.compareTo(other.date);
+            return byDate < 0 || (byDate == 0 && id < other.id);
+        }
+    }
+
+    private final NoticeRepository noticeRepository;
+    private final JsonMapper jsonMapper;
+    private final AggregateVersions aggregateVersions;
+
+    @Value("${app.notice.feed.size:50}")
+    private int feedSize;
+
+    private volatile Window window;
+
+    // ---------- PAGE ----------
+    public PageResponseDto<RawValue> page(PageRequestDto request, View view) {
+
+        if (request.getSort() != null && !request.getSort().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Notices are always ordered newest first");
+        }
+
+        int size = KeysetPager.size(request);
+        Key after = request.getCursor() == null || request.getCursor().isBlank()
+                ? null
+                : decode(request.getCursor());
+
+        Window current = window();
+        List<Entry> cached = current.entries();
+
+        // first cached entry older than the cursor
+        int start = 0;
+        if (after != null) {
+            while (start < cached.size() && !key(cached.get(start)).olderThan(after)) {
+                start++;
+            }
+        }
+
+        List<Key> keys = new ArrayList<>(size + 1);
+        List<RawValue> items = new ArrayList<>(size + 1);
+
+        for (int i = start; i < cached.size() && items.size() <= size; i++) {
+            keys.add(key(cached.get(i)));
+            items.add(cached.get(i).json(view));
+        }
+
+        if (items.size() <= size && !current.complete()) {
+            // an incomplete window is never empty, so without a cursor keys holds entries
+            Key from = !keys.isEmpty() ? keys.get(keys.size() - 1) : after;
+            readOlder(from, size + 1 - items.size(), view, keys, items);
+        }
+
+        boolean hasMore = items.size() > size;
+        if (hasMore) {
+            items = items.subList(0, size);
+        }
+
+        String nextCursor = hasMore ? encode(keys.get(size - 1)) : null;
+        Long total = request.isCount() ? noticeRepository.count() : null;
+
+        return new PageResponseDto<>(items, nextCursor, hasMore, total);
+    }
+
+    private void readOlder(Key from, int limit, View view, List<Key> keys, List<RawValue> items) {
+        if (view == View.FULL) {
+            for (Notice notice : noticeRepository.findOlder(from.date(), from.id(), Limit.of(limit))) {
+                keys.add(new Key(notice.getDate(), notice.getId()));
+                items.add(raw(NoticeResponseDto.fromEntity(notice)));
+            }
+        } else {
+            for (NoticeSummaryDto summary : noticeRepository.findOlderSummaries(from.date(), from.id(), Limit.of(limit))) {
+                keys.add(new Key(summary.getDate(), summary.getId()));
+                items.add(raw(summary));
+            }
+        }
+    }
+
+    // ---------- WINDOW ----------
+    private Window window() {
+        long version = aggregateVersions.version(Aggregate.NOTICES);
+        Window current = window;
+        if (current != null && current.version() == version) {
+            return current;
+        }
+
+        List<Notice> newest = noticeRepository.findByOrderByDateDescIdDesc(Limit.of(feedSize + 1));
+        boolean complete = newest.size() <= feedSize;
+
+        List<Entry> entries = newest.stream()
+                .limit(feedSize)
+                .map(notice -> new Entry(
+                        notice.getDate(),
+                        notice.getId(),
+                        raw(NoticeResponseDto.fromEntity(notice)),
+                        raw(NoticeSummaryDto.fromEntity(notice))
+                ))
+                .toList();
+
+        Window built = new Window(entries, complete, version);
+        // a bump while building means the rows may predate the write
+        if (aggregateVersions.version(Aggregate.NOTICES) == version) {
+            window = built;
+        }
+
+        log.info("Notice feed rebuilt | notices={} complete={}", entries.size(), complete);
+        return built;
+    }
+
+    private RawValue raw(Object dto) {
+        return new RawValue(jsonMapper.writeValueAsString(dto));
+    }
+
+    private static Key key(Entry entry) {
+        return new Key(entry.date(), entry.id());
+    }
+
+    // ---------- CURSOR ----------
+    // date \n id
+    private static String encode(Key key) {
+        String raw = key.date() + "\n" + key.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Key decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new Key(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor");
+        }
+    }
+}
@@ -1,20 +1,38 @@
 package com.schoolOps.SchoolOPS.service;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import com.schoolOps.SchoolOPS.dto.NoticeSummaryDto;
+import com.schoolOps.SchoolOPS.dto.PageRequestDto;
+import com.schoolOps.SchoolOPS.dto.PageResponseDto;
 import com.schoolOps.SchoolOPS.entity.Notice;
+import com.schoolOps.SchoolOPS.repository.MailRecipient;
 import com.schoolOps.SchoolOPS.repository.NoticeRepository;
+import com.schoolOps.SchoolOPS.repository.StudentRepository;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
+import com.schoolOps.SchoolOPS.utils.Email;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.util.RawValue;
 
 @Service
 @RequiredArgsConstructor
@@ -24,14 +42,27 @@ public class NoticeService {
 
     private final NoticeRepository noticeRepository;
     private final CloudinaryService cloudinaryService;
+    private final AggregateVersions aggregateVersions;
+    private final NoticeFeedCache noticeFeedCache;
+    private final EventStreamService eventStreamService;
+    private final StudentRepository studentRepository;
+    private final Email emailService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.notice.mail.enabled:false}")
+    private boolean mailEnabled;
+
+    @Value("${app.notice.mail.chunk-size:500}")
+    private int mailChunkSize;
 
     // ---------- READ ----------
     public List<Notice> getAllNotice() {
         return noticeRepository.findAll();
     }
 
-    public List<Notice> getAllSortedNotice() {
-        return noticeRepository.findAllByOrderByDateDesc();
+    // newest first; the first pages come from the feed cache
+    public PageResponseDto<RawValue> getFeed(PageRequestDto page, NoticeFeedCache.View view) {
+        return noticeFeedCache.page(page, view);
     }
 
     public Notice getNoticeById(Long noticeId) {
@@ -45,6 +76,9 @@ public class NoticeService {
     public Notice saveNotice(Notice notice) {
         notice.setDate(LocalDateTime.now());
         Notice saved = noticeRepository.save(notice);
+        aggregateVersions.bump(Aggregate.NOTICES);
+        eventStreamService.publish(EventStreamService.NOTICES, "notice.created", NoticeSummaryDto.fromEntity(saved));
+        mailStudents(saved);
         log.info("Notice created | id={}", saved.getId());
         return saved;
     }
@@ -60,10 +94,77 @@ public class NoticeService {
         }
 
         Notice saved = noticeRepository.save(notice);
+        aggregateVersions.bump(Aggregate.NOTICES);
+        eventStreamService.publish(EventStreamService.NOTICES, "notice.created", NoticeSummaryDto.fromEntity(saved));
+        mailStudents(saved);
         log.info("Notice created with image | id={}", saved.getId());
         return saved;
     }
 
+    // queued once the notice has committed, so a rolled-back notice mails no one and
+    // the notice save never renders or inserts a mail per student
+    private void mailStudents(Notice notice) {
+
+        if (!mailEnabled) {
+            return;
+        }
+
+        String title = notice.getTitle();
+        String body = notice.getDescription();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queueNoticeMails(title, body);
+                }
+            });
+        } else {
+            queueNoticeMails(title, body);
+        }
+    }
+
+    // one short transaction per chunk of students: one batch render, one batch insert
+    private void queueNoticeMails(String title, String body) {
+
+        TransactionTemplate chunkTx = new TransactionTemplate(transactionManager);
+        chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // one mail per address, e.g. siblings registered with a parent's email
+        Set<String> mailed = new HashSet<>();
+        long[] afterId = {0};
+        int queued = 0;
+
+        try {
+            Integer chunk;
+            do {
+                chunk = chunkTx.execute(status -> {
+                    List<MailRecipient> page = studentRepository.findMailRecipients(
+                            afterId[0], PageRequest.of(0, mailChunkSize));
+                    if (page.isEmpty()) {
+                        return 0;
+                    }
+
+                    Map<String, String> recipients = new LinkedHashMap<>();
+                    for (MailRecipient recipient : page) {
+                        if (mailed.add(recipient.getEmail())) {
+                            recipients.put(recipient.getEmail(), recipient.getName());
+                        }
+                    }
+                    emailService.sendNoticeMails(recipients, title, body);
+
+                    afterId[0] = page.get(page.size() - 1).getId();
+                    return page.size();
+                });
+                queued += chunk;
+            } while (chunk == mailChunkSize);
+
+        } catch (RuntimeException e) {
+            // the notice is saved; students after the last committed chunk are not mailed
+            log.error("Notice mails stopped | queuedStudents={} | afterStudentId={}", queued, afterId[0], e);
+        }
+    }
+
     // ---------- DELETE ----------
     public void deleteNotice(Long noticeId) {
 
@@ -75,6 +176,8 @@ public class NoticeService {
         cloudinaryService.deleteImage(notice.getImagePublicId());
 
         noticeRepository.delete(notice);
+        aggregateVersions.bump(Aggregate.NOTICES);
+        eventStreamService.publish(EventStreamService.NOTICES, "notice.deleted", Map.of("id", noticeId));
         log.info("Notice deleted | id={}", noticeId);
     }
 }
@@ -0,0 +1,145 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+import com.schoolOps.SchoolOPS.entity.NumberSequence;
+import com.schoolOps.SchoolOPS.repository.NumberSequenceRepository;
+import com.schoolOps.SchoolOPS.repository.StudentRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands out registration and roll numbers without scanning the student table.
+ *
+ * <p>Each sequence is a row in {@code number_sequence}. A node reserves a
+ * block of {@code app.sequence.block-size} values by locking that row in its
+ * own short transaction, then serves numbers from memory until the block is
+ * used up (hi-lo). Reservations are committed independently of the caller,
+ * so numbers are never handed out twice across threads or nodes; values
+ * left in a block when the application stops are skipped, not reused.
+ *
+ * <p>A sequence row is created on first use, seeded from the current
+ * maximum in the student table.
+ */
+@Service
+@Slf4j
+public class NumberAllocator {
+
+    static final String REGISTRATION_NO = "student.registration_no";
+    static final String ROLL_NO = "student.roll_no";
+
+    private final NumberSequenceRepository sequenceRepository;
+    private final StudentRepository studentRepository;
+    private final TransactionTemplate reserveTx;
+    private final int blockSize;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public NumberAllocator(
+            NumberSequenceRepository sequenceRepository,
+            StudentRepository studentRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.sequence.block-size:20}") int blockSize
+    ) {
+        this.sequenceRepository = sequenceRepository;
+        this.studentRepository = studentRepository;
+        this.reserveTx = new TransactionTemplate(transactionManager);
+        this.reserveTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    // =====================================================
+    // SINGLE VALUES (served from the in-memory block)
+    // =====================================================
+    public int nextRegistrationNo() {
+        return next(REGISTRATION_NO);
+    }
+
+    public int nextRollNo() {
+        return next(ROLL_NO);
+    }
+
+    // =====================================================
+    // CONTIGUOUS RANGES (bulk import)
+    // =====================================================
+
+    /**
+     * @return the first of {@code count} consecutive registration numbers
+     */
+    public int reserveRegistrationNos(int count) {
+        return reserve(REGISTRATION_NO, count);
+    }
+
+    /**
+     * @return the first of {@code count} consecutive roll numbers
+     */
+    public int reserveRollNos(int count) {
+        return reserve(ROLL_NO, count);
+    }
+
+    // =====================================================
+    // INTERNALS
+    // =====================================================
+    private int next(String name) {
+        Block block = blocks.computeIfAbsent(name, key -> new Block());
+        synchronized (block) {
+            if (block.next >= block.limit) {
+                block.next = reserve(name, blockSize);
+                block.limit = block.next + blockSize;
+            }
+            return block.next++;
+        }
+    }
+
+    private int reserve(String name, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        try {
+            return reserveTx.execute(status -> reserveInTransaction(name, count));
+        } catch (DataIntegrityViolationException e) {
+            // another node created the sequence row first; it exists now
+            log.debug("Sequence row created concurrently | name={}", name);
+            return reserveTx.execute(status -> reserveInTransaction(name, count));
+        }
+    }
+
+    private int reserveInTransaction(String name, int count) {
+
+        NumberSequence sequence = sequenceRepository.findForUpdate(name)
+                .orElseGet(() -> sequenceRepository.saveAndFlush(
+                        new NumberSequence(name, seed(name))
+                ));
+
+        int first = sequence.getNextValue();
+        sequence.setNextValue(first + count);
+
+        log.debug("Sequence block reserved | name={} | first={} | count={}", name, first, count);
+        return first;
+    }
+
+    private int seed(String name) {
+        IntSupplier currentMax = switch (name) {
+            case REGISTRATION_NO -> () -> studentRepository.findMaxRegistrationNo().orElse(0);
+            case ROLL_NO -> () -> studentRepository.findMaxRollNo().orElse(0);
+            default -> throw new IllegalArgumentException("Unknown sequence: " + name);
+        };
+        int seed = currentMax.getAsInt() + 1;
+        log.info("Sequence initialised | name={} | nextValue={}", name, seed);
+        return seed;
+    }
+
+    private static final class Block {
+        private int next;
+        private int limit;
+    }
+}
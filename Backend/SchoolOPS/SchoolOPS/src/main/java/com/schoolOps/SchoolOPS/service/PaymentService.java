@@ -0,0 +1,131 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.schoolOps.SchoolOPS.dto.PaymentCaptureRequestDto;
+import com.schoolOps.SchoolOPS.dto.PaymentOrderDto;
+import com.schoolOps.SchoolOPS.entity.PaymentOrder;
+import com.schoolOps.SchoolOPS.repository.PaymentOrderRepository;
+import com.schoolOps.SchoolOPS.utils.Money;
+import com.schoolOps.SchoolOPS.utils.PaymentGateway;
+import com.schoolOps.SchoolOPS.utils.PaymentGateway.GatewayOrder;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Online fee payments. An order is stored with its amount and account when
+ * it is created at the gateway; the success callback then only names the
+ * order and proves the payment with the gateway signature.
+ *
+ * <p>Capture locks the order row, so callbacks for one order serialise in
+ * the database (different orders never wait for each other) and only the
+ * first marks it paid and credits the account. A replay of the same
+ * payment returns the paid order without posting again; the ledger
+ * reference {@code PAY:<payment id>}, unique per account, backs this up.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentService {
+
+    private static final String CURRENCY = "INR";
+
+    // gateway minimum
+    private static final long MIN_AMOUNT_MINOR = 100;
+
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final PaymentGateway paymentGateway;
+    private final AccountService accountService;
+
+    // -------------------------------------------------
+    // CREATE ORDER
+    // -------------------------------------------------
+    public PaymentOrderDto createOrder(Long accountId, BigDecimal amount) {
+
+        if (amount == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount is required");
+        }
+        long amountMinor;
+        try {
+            amountMinor = Money.toMinor(amount);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (amountMinor < MIN_AMOUNT_MINOR) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount must be at least " + Money.toMajor(MIN_AMOUNT_MINOR));
+        }
+
+        // called outside any transaction: no connection held during the gateway round trip
+        GatewayOrder created = paymentGateway.createOrder(amountMinor, CURRENCY, "acct_" + accountId + "_" + System.currentTimeMillis());
+
+        PaymentOrder order = new PaymentOrder();
+        order.setOrderId(created.orderId());
+        order.setAccountId(accountId);
+        order.setAmountMinor(created.amountMinor());
+        order.setCurrency(created.currency());
+        paymentOrderRepository.save(order);
+
+        log.info("Payment order created | orderId={} | accountId={} | amount={}",
+                order.getOrderId(), accountId, Money.toMajor(amountMinor));
+        return PaymentOrderDto.fromEntity(order, paymentGateway.keyId());
+    }
+
+    // -------------------------------------------------
+    // CAPTURE (IDEMPOTENT)
+    // -------------------------------------------------
+    @Transactional
+    public PaymentOrderDto capture(Long accountId, PaymentCaptureRequestDto request) {
+
+        if (isBlank(request.getOrderId()) || isBlank(request.getPaymentId()) || isBlank(request.getSignature())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "orderId, paymentId and signature are required");
+        }
+        if (!paymentGateway.verifySignature(request.getOrderId(), request.getPaymentId(), request.getSignature())) {
+            log.warn("Payment signature rejected | orderId={} | paymentId={}", request.getOrderId(), request.getPaymentId());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid payment signature");
+        }
+
+        PaymentOrder order = paymentOrderRepository.findForUpdate(request.getOrderId())
+                .filter(found -> found.getAccountId().equals(accountId))
+                .orElseThrow(() ->
+                        new EntityNotFoundException("Payment order not found with id: " + request.getOrderId())
+                );
+
+        if (PaymentOrder.PAID.equals(order.getStatus())) {
+            if (!order.getPaymentId().equals(request.getPaymentId())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Order already paid by another payment");
+            }
+            log.info("Payment capture replayed | orderId={} | paymentId={}", order.getOrderId(), order.getPaymentId());
+            return PaymentOrderDto.fromEntity(order, paymentGateway.keyId());
+        }
+
+        order.setStatus(PaymentOrder.PAID);
+        order.setPaymentId(request.getPaymentId());
+        order.setPaidAt(LocalDateTime.now());
+
+        accountService.post(
+                order.getAccountId(),
+                "CREDIT",
+                order.getAmountMinor(),
+                "ONLINE",
+                "SELF / PAYMENT ID - " + request.getPaymentId(),
+                "PAY:" + request.getPaymentId()
+        );
+
+        log.info("Payment captured | orderId={} | paymentId={} | accountId={}",
+                order.getOrderId(), order.getPaymentId(), order.getAccountId());
+        return PaymentOrderDto.fromEntity(order, paymentGateway.keyId());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,65 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.util.List;
+import java.util.Map;
+
+import com.schoolOps.SchoolOPS.dto.PublicCourseDto;
+import com.schoolOps.SchoolOPS.repository.CourseRepository;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
+
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * The public home payload, serialised once and served as bytes until the
+ * {@link Aggregate#COURSES} version moves (course, teacher or enrollment
+ * change). A rebuild that started before the last bump is returned to its
+ * caller but not kept, so a payload read from pre-commit rows never
+ * outlives the commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PublicHomeCache {
+
+    public record Payload(byte[] json, String etag) {
+    }
+
+    private final CourseRepository courseRepository;
+    private final JsonMapper jsonMapper;
+    private final AggregateVersions aggregateVersions;
+
+    // payload and the version it was built at, swapped as one reference
+    private record Cached(Payload payload, long version) {
+    }
+
+    private volatile Cached cached;
+
+    // ---------- READ ----------
+    public Payload get() {
+        long current = aggregateVersions.version(Aggregate.COURSES);
+        Cached hit = cached;
+        if (hit != null && hit.version() == current) {
+            return hit.payload();
+        }
+
+        Payload built = build();
+        if (aggregateVersions.version(Aggregate.COURSES) == current) {
+            cached = new Cached(built, current);
+        }
+        return built;
+    }
+
+    private Payload build() {
+        List<PublicCourseDto> courses = courseRepository.findPublicCourses();
+        byte[] json = jsonMapper.writeValueAsBytes(Map.of("courses", courses));
+        String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+
+        log.info("Public home rebuilt | courses={} bytes={}", courses.size(), json.length);
+        return new Payload(json, etag);
+    }
+}
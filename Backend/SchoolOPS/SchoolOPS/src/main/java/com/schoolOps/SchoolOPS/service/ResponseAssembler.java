@@ -0,0 +1,130 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.schoolOps.SchoolOPS.dto.AccountResponseDto;
+import com.schoolOps.SchoolOPS.dto.ClassWorkResponseDto;
+import com.schoolOps.SchoolOPS.dto.CourseResponseDto;
+import com.schoolOps.SchoolOPS.dto.StudentResponseDto;
+import com.schoolOps.SchoolOPS.dto.TeacherResponseDto;
+import com.schoolOps.SchoolOPS.entity.*;
+import com.schoolOps.SchoolOPS.repository.*;
+
+import jakarta.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Maps entities to response DTOs without walking lazy collections: each
+ * to-many association a DTO shows is resolved for the whole list with one
+ * projection query, so mapping N rows costs a fixed number of statements.
+ * To-one associations are expected to be loaded with the list (entity graph
+ * or fetch join) by the caller's query.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ResponseAssembler {
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final TransactionRepository transactionRepository;
+    private final WorkRepository workRepository;
+
+    // transactions shown with an account; older ones come from the history endpoint
+    @Value("${app.ledger.recent-transactions:20}")
+    private int recentTransactions;
+
+    // ---------- STUDENTS ----------
+    public List<StudentResponseDto> students(List<Student> students) {
+        Map<Long, List<String>> courseNames = students.isEmpty()
+                ? Map.of()
+                : OwnedName.group(studentRepository.findCourseNamesByStudentIds(ids(students, Student::getId)));
+
+        return students.stream()
+                .map(student -> StudentResponseDto.fromEntity(student, courseNames.getOrDefault(student.getId(), List.of())))
+                .toList();
+    }
+
+    public StudentResponseDto student(Student student) {
+        return students(List.of(student)).get(0);
+    }
+
+    // ---------- TEACHERS ----------
+    public List<TeacherResponseDto> teachers(List<Teacher> teachers) {
+        Map<Long, List<String>> courseNames = teachers.isEmpty()
+                ? Map.of()
+                : OwnedName.group(courseRepository.findCourseNamesByTeacherIds(ids(teachers, Teacher::getId)));
+
+        return teachers.stream()
+                .map(teacher -> TeacherResponseDto.fromEntity(teacher, courseNames.getOrDefault(teacher.getId(), List.of())))
+                .toList();
+    }
+
+    public TeacherResponseDto teacher(Teacher teacher) {
+        return teachers(List.of(teacher)).get(0);
+    }
+
+    // ---------- COURSES ----------
+    public List<CourseResponseDto> courses(List<Course> courses) {
+        Map<Long, List<String>> studentNames = courses.isEmpty()
+                ? Map.of()
+                : OwnedName.group(studentRepository.findStudentNamesByCourseIds(ids(courses, Course::getId)));
+
+        return courses.stream()
+                .map(course -> CourseResponseDto.fromEntity(course, studentNames.getOrDefault(course.getId(), List.of())))
+                .toList();
+    }
+
+    // ---------- ACCOUNTS ----------
+    public List<AccountResponseDto> accounts(List<Account> accounts) {
+        if (accounts.isEmpty()) {
+            return List.of();
+        }
+
+        Collection<Long> accountIds = ids(accounts, Account::getId);
+        Map<Long, List<Transaction>> recent = transactionRepository.findRecentByAccountIds(accountIds, recentTransactions).stream()
+                .collect(Collectors.groupingBy(transaction -> transaction.getAccount().getId()));
+        Map<Long, LedgerTotals> totals = transactionRepository.findTotalsByAccountIds(accountIds).stream()
+                .collect(Collectors.toMap(LedgerTotals::getAccountId, Function.identity()));
+
+        return accounts.stream()
+                .map(account -> {
+                    LedgerTotals total = totals.get(account.getId());
+                    return AccountResponseDto.fromEntity(
+                            account,
+                            recent.getOrDefault(account.getId(), List.of()),
+                            total != null ? total.getCount() : 0,
+                            total != null ? total.getCredits() : 0,
+                            total != null ? total.getDebits() : 0
+                    );
+                })
+                .toList();
+    }
+
+    public AccountResponseDto account(Account account) {
+        return accounts(List.of(account)).get(0);
+    }
+
+    // ---------- CLASS WORK ----------
+    public List<ClassWorkResponseDto> classWorks(List<ClassWork> classWorks) {
+        Map<Long, List<String>> workIds = classWorks.isEmpty()
+                ? Map.of()
+                : OwnedName.group(workRepository.findIdsByClassWorkIds(ids(classWorks, ClassWork::getId)));
+
+        return classWorks.stream()
+                .map(classWork -> ClassWorkResponseDto.fromEntity(classWork, workIds.getOrDefault(classWork.getId(), List.of())))
+                .toList();
+    }
+
+    private static <T> Collection<Long> ids(List<T> entities, Function<T, Long> id) {
+        return entities.stream().map(id).collect(Collectors.toSet());
+    }
+}
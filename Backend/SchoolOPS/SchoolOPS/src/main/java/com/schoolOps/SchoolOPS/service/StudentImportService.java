@@ -0,0 +1,506 @@
+package com.schoolOps.SchoolOPS.service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.schoolOps.SchoolOPS.dto.StudentImportReportDto;
+import com.schoolOps.SchoolOPS.dto.StudentImportRowResultDto;
+import com.schoolOps.SchoolOPS.entity.Role;
+import com.schoolOps.SchoolOPS.repository.UserRepository;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
+import com.schoolOps.SchoolOPS.utils.CsvReader;
+import com.schoolOps.SchoolOPS.utils.Email;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk student enrolment from a CSV upload.
+ *
+ * <p>The file is streamed and processed in chunks: each chunk checks for
+ * existing accounts with one query, hashes initial passwords in parallel and
+ * writes users, addresses and students with JDBC batch inserts in a single
+ * transaction, together with the welcome mails' outbox rows. A failing chunk
+ * does not roll back chunks already committed; it is replayed one row per
+ * transaction, so the report fails only the rows the database rejects.
+ *
+ * <p>Expected header (case-insensitive, any order):
+ * {@code name,email,fatherName,dob,sex,numbers,city,street}; only
+ * {@code name} and {@code email} are required, {@code dob} is yyyy-MM-dd and
+ * an address needs both {@code city} and {@code street}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentImportService {
+
+    private static final String ADD_BY_IMPORT = "BY_IMPORT";
+
+    private static final String INSERT_USER =
+            "insert into users (username, password, enabled, role, first_login, reset_token, "
+                    + "reset_token_expiry, token_version, name, sex, mobile, dob, created_at, updated_at) "
+                    + "values (?, ?, true, ?, true, ?, ?, 0, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ADDRESS =
+            "insert into address (city, street) values (?, ?)";
+
+    private static final String INSERT_STUDENT =
+            "insert into student (roll_no, registration_no, name, dob, sex, father_name, email, "
+                    + "add_by, numbers, user_id, address_id) "
+                    + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NumberAllocator numberAllocator;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Email emailService;
+    private final AggregateVersions aggregateVersions;
+
+    // password hashing is the CPU-bound part of an import; keep it off the
+    // common pool so a large upload cannot starve parallel streams elsewhere
+    private final ForkJoinPool hashPool =
+            new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    // =====================================================
+    // IMPORT
+    // =====================================================
+    public StudentImportReportDto importCsv(MultipartFile file) {
+
+        long started = System.currentTimeMillis();
+        List<StudentImportRowResultDto> results = new ArrayList<>();
+
+        try (CsvReader csv = new CsvReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            Map<String, Integer> columns = indexColumns(header);
+
+            Set<String> seenEmails = new HashSet<>();
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+
+                long rowNo = csv.getLineNumber();
+                if (record.stream().allMatch(String::isBlank)) {
+                    continue;
+                }
+
+                ImportRow row;
+                try {
+                    row = parseRow(rowNo, record, columns);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    results.add(StudentImportRowResultDto.failed(
+                            rowNo, value(record, columns, "email"), e.getMessage()));
+                    continue;
+                }
+
+                if (!seenEmails.add(row.email().toLowerCase(Locale.ROOT))) {
+                    results.add(StudentImportRowResultDto.failed(
+                            rowNo, row.email(), "Duplicate email in file"));
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    results.addAll(importChunk(chunk));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                results.addAll(importChunk(chunk));
+            }
+
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read CSV file: " + e.getMessage(), e);
+        }
+
+        int created = (int) results.stream()
+                .filter(r -> "CREATED".equals(r.getStatus()))
+                .count();
+        long duration = System.currentTimeMillis() - started;
+
+        // chunks have committed by now
+        if (created > 0) {
+            aggregateVersions.bump(Aggregate.STUDENTS);
+        }
+
+        log.info(
+                "Student import finished | rows={} | created={} | failed={} | ms={}",
+                results.size(), created, results.size() - created, duration
+        );
+
+        return new StudentImportReportDto(
+                results.size(),
+                created,
+                results.size() - created,
+                duration,
+                results
+        );
+    }
+
+    // =====================================================
+    // CHUNK
+    // =====================================================
+    private List<StudentImportRowResultDto> importChunk(List<ImportRow> chunk) {
+
+        List<StudentImportRowResultDto> results = new ArrayList<>();
+
+        Set<String> existing = new HashSet<>();
+        userRepository.findExistingUsernames(chunk.stream().map(ImportRow::email).toList())
+                .forEach(username -> existing.add(username.toLowerCase(Locale.ROOT)));
+
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (existing.contains(row.email().toLowerCase(Locale.ROOT))) {
+                results.add(StudentImportRowResultDto.failed(
+                        row.row(), row.email(), "User already exists"));
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        // one contiguous block per chunk; numbers of a rolled-back chunk are skipped
+        int firstRegNo = numberAllocator.reserveRegistrationNos(accepted.size());
+        int firstRollNo = numberAllocator.reserveRollNos(accepted.size());
+
+        List<PreparedRow> prepared = hashPool.submit(() ->
+                IntStream.range(0, accepted.size())
+                        .parallel()
+                        .mapToObj(i -> prepare(accepted.get(i), firstRegNo + i, firstRollNo + i))
+                        .toList()
+        ).join();
+
+        List<Long> studentIds;
+        try {
+            studentIds = transactionTemplate.execute(status -> insertWithMails(prepared));
+        } catch (DataAccessException e) {
+            log.warn("Student import chunk failed, retrying row by row | rows={} | cause={}",
+                    prepared.size(), e.getMostSpecificCause().getMessage());
+            results.addAll(importRowByRow(prepared));
+            return results;
+        }
+
+        for (int i = 0; i < prepared.size(); i++) {
+            PreparedRow p = prepared.get(i);
+            results.add(StudentImportRowResultDto.created(
+                    p.source().row(), p.source().email(), studentIds.get(i), p.registrationNo()));
+        }
+
+        return results;
+    }
+
+    // one transaction per row: the rows the chunk took down with it are created, the culprit is named
+    private List<StudentImportRowResultDto> importRowByRow(List<PreparedRow> prepared) {
+
+        List<StudentImportRowResultDto> results = new ArrayList<>(prepared.size());
+        for (PreparedRow p : prepared) {
+            try {
+                Long studentId = transactionTemplate.execute(status -> insertWithMails(List.of(p))).get(0);
+                results.add(StudentImportRowResultDto.created(
+                        p.source().row(), p.source().email(), studentId, p.registrationNo()));
+            } catch (DataAccessException e) {
+                log.warn("Student import row failed | row={} | cause={}",
+                        p.source().row(), e.getMostSpecificCause().getMessage());
+                results.add(StudentImportRowResultDto.failed(
+                        p.source().row(), p.source().email(), e.getMostSpecificCause().getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private List<Long> insertWithMails(List<PreparedRow> rows) {
+        List<Long> ids = insertChunk(rows);
+        // outbox rows commit (or roll back) together with the students
+        rows.forEach(p -> emailService.sendPasswordResetMail(p.source().email(), p.resetToken()));
+        return ids;
+    }
+
+    private PreparedRow prepare(ImportRow row, int registrationNo, int rollNo) {
+        String firstName = row.name().trim().split(" ")[0].toLowerCase();
+        return new PreparedRow(
+                row,
+                registrationNo,
+                rollNo,
+                passwordEncoder.encode(firstName + "@" + registrationNo),
+                UUID.randomUUID().toString()
+        );
+    }
+
+    // =====================================================
+    // JDBC BATCH INSERTS
+    // =====================================================
+    private List<Long> insertChunk(List<PreparedRow> rows) {
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp resetExpiry = Timestamp.valueOf(LocalDateTime.now().plusHours(24));
+
+        KeyHolder userKeys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PreparedRow p = rows.get(i);
+                        ImportRow row = p.source();
+                        ps.setString(1, row.email());
+                        ps.setString(2, p.passwordHash());
+                        ps.setString(3, String.valueOf(Role.STUDENT));
+                        ps.setString(4, p.resetToken());
+                        ps.setTimestamp(5, resetExpiry);
+                        ps.setString(6, row.name());
+                        setNullable(ps, 7, row.sex(), Types.VARCHAR);
+                        setNullable(ps, 8, row.numbers(), Types.BIGINT);
+                        setNullable(ps, 9, row.dob() != null ? Timestamp.valueOf(row.dob().atStartOfDay()) : null, Types.TIMESTAMP);
+                        ps.setTimestamp(10, now);
+                        ps.setTimestamp(11, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                userKeys
+        );
+        List<Long> userIds = generatedIds(userKeys);
+
+        List<Integer> withAddress = IntStream.range(0, rows.size())
+                .filter(i -> rows.get(i).source().hasAddress())
+                .boxed()
+                .toList();
+
+        Long[] addressIds = new Long[rows.size()];
+        if (!withAddress.isEmpty()) {
+            KeyHolder addressKeys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    con -> con.prepareStatement(INSERT_ADDRESS, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ImportRow row = rows.get(withAddress.get(i)).source();
+                            ps.setString(1, row.city());
+                            ps.setString(2, row.street());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return withAddress.size();
+                        }
+                    },
+                    addressKeys
+            );
+            List<Long> ids = generatedIds(addressKeys);
+            for (int i = 0; i < withAddress.size(); i++) {
+                addressIds[withAddress.get(i)] = ids.get(i);
+            }
+        }
+
+        KeyHolder studentKeys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_STUDENT, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PreparedRow p = rows.get(i);
+                        ImportRow row = p.source();
+                        ps.setInt(1, p.rollNo());
+                        ps.setInt(2, p.registrationNo());
+                        ps.setString(3, row.name());
+                        setNullable(ps, 4, row.dob() != null ? java.sql.Date.valueOf(row.dob()) : null, Types.DATE);
+                        setNullable(ps, 5, row.sex(), Types.VARCHAR);
+                        setNullable(ps, 6, row.fatherName(), Types.VARCHAR);
+                        ps.setString(7, row.email());
+                        ps.setString(8, ADD_BY_IMPORT);
+                        setNullable(ps, 9, row.numbers(), Types.BIGINT);
+                        ps.setLong(10, userIds.get(i));
+                        setNullable(ps, 11, addressIds[i], Types.BIGINT);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                studentKeys
+        );
+
+        return generatedIds(studentKeys);
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType)
+            throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+
+    private static List<Long> generatedIds(KeyHolder keyHolder) {
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdown();
+    }
+
+    // =====================================================
+    // CSV PARSING
+    // =====================================================
+    private static Map<String, Integer> indexColumns(List<String> header) {
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // tolerate a UTF-8 BOM on the first header cell
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name, i);
+        }
+
+        if (!columns.containsKey("name") || !columns.containsKey("email")) {
+            throw new IllegalArgumentException("CSV header must contain 'name' and 'email' columns");
+        }
+        return columns;
+    }
+
+    private static ImportRow parseRow(long rowNo, List<String> record, Map<String, Integer> columns) {
+
+        String name = value(record, columns, "name");
+        String email = value(record, columns, "email");
+
+        if (name == null) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        if (name.length() > 100) {
+            throw new IllegalArgumentException("Name is longer than 100 characters");
+        }
+        if (email == null || !email.contains("@")) {
+            throw new IllegalArgumentException("A valid email is required");
+        }
+        if (email.length() > 50) {
+            throw new IllegalArgumentException("Email is longer than 50 characters");
+        }
+
+        String fatherName = value(record, columns, "fathername");
+        String sex = value(record, columns, "sex");
+        String city = value(record, columns, "city");
+        String street = value(record, columns, "street");
+        checkLength(fatherName, 100, "Father's name");
+        checkLength(sex, 10, "Sex");
+        checkLength(city, 100, "City");
+        checkLength(street, 150, "Street");
+        // rejected rather than imported without the half-given address
+        if ((city == null) != (street == null)) {
+            throw new IllegalArgumentException("City and street must be given together");
+        }
+
+        String dob = value(record, columns, "dob");
+        String numbers = value(record, columns, "numbers");
+        Long mobile;
+        try {
+            mobile = numbers != null ? Long.valueOf(numbers) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid phone number: " + numbers);
+        }
+
+        return new ImportRow(
+                rowNo,
+                name,
+                email,
+                fatherName,
+                dob != null ? LocalDate.parse(dob) : null,
+                sex,
+                mobile,
+                city,
+                street
+        );
+    }
+
+    private static void checkLength(String value, int max, String label) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(label + " is longer than " + max + " characters");
+        }
+    }
+
+    private static String value(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        // spreadsheet exports pad cells, e.g. "a@b.com " or " 2010-01-01"
+        String value = record.get(index).strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    private record ImportRow(
+            long row,
+            String name,
+            String email,
+            String fatherName,
+            LocalDate dob,
+            String sex,
+            Long numbers,
+            String city,
+            String street
+    ) {
+        boolean hasAddress() {
+            return city != null && street != null;
+        }
+    }
+
+    private record PreparedRow(
+            ImportRow source,
+            int registrationNo,
+            int rollNo,
+            String passwordHash,
+            String resetToken
+    ) {
+    }
+}
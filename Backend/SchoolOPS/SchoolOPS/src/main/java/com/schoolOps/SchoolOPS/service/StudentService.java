@@ -5,14 +5,24 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
+import com.schoolOps.SchoolOPS.config.UserPrincipalCache;
+import com.schoolOps.SchoolOPS.dto.PageRequestDto;
+import com.schoolOps.SchoolOPS.dto.PageResponseDto;
+import com.schoolOps.SchoolOPS.dto.StudentResponseDto;
 import com.schoolOps.SchoolOPS.entity.*;
 import com.schoolOps.SchoolOPS.repository.*;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
 import com.schoolOps.SchoolOPS.utils.Email;
+import com.schoolOps.SchoolOPS.utils.KeysetPager;
+import com.schoolOps.SchoolOPS.utils.Money;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.transaction.Transactional;
 
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -26,25 +36,37 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 public class StudentService {
 
+    private static final KeysetPager<Student> PAGER = KeysetPager.of(Student::getId)
+            .sortable("name", "name", Student::getName, Function.identity())
+            .sortable("rollNo", "rollNo", Student::getRollNo, Integer::valueOf)
+            .sortable("registrationNo", "registrationNo", Student::getRegistrationNo, Integer::valueOf)
+            .fetching("address");
+
     private final AccountService accountService;
     private final CourseRepository courseRepository;
     private final StudentRepository studentRepository;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
-    private final AttendenceRepository attendenceRepository;
     private final CloudinaryService cloudinaryService;
 
     private final PasswordEncoder passwordEncoder;
     private final Email emailService;
+    private final UserPrincipalCache principalCache;
+    private final NumberAllocator numberAllocator;
+    private final ResponseAssembler responseAssembler;
+    private final AggregateVersions aggregateVersions;
 
     // =====================================================
     // CREATE STUDENT + USER (FIRST LOGIN FLOW)
     // =====================================================
     public Student saveStudent(Student student) {
 
-        // generate registration no if missing
+        // generate registration / roll no if missing
         if (student.getRegistrationNo() == 0) {
-            student.setRegistrationNo(getNewRegNo());
+            student.setRegistrationNo(numberAllocator.nextRegistrationNo());
+        }
+        if (student.getRollNo() == 0) {
+            student.setRollNo(numberAllocator.nextRollNo());
         }
 
         // create user only once
@@ -66,6 +88,7 @@ public class StudentService {
             user.setResetTokenExpiry(LocalDateTime.now().plusHours(24));
 
             User savedUser = userRepository.save(user);
+            principalCache.evict(savedUser);
 
             savedUser.setStudent(student);
             student.setUser(savedUser);
@@ -78,6 +101,7 @@ public class StudentService {
 
 
         Student savedStudent = studentRepository.save(student);
+        aggregateVersions.bump(Aggregate.STUDENTS);
 
         log.info(
                 "Student saved | studentId={} | userId={}",
@@ -127,7 +151,12 @@ public class StudentService {
         existing.setRollNo(updated.getRollNo());
         existing.setRegistrationNo(updated.getRegistrationNo());
 
+        if (existing.getUser() != null) {
+            principalCache.evict(existing.getUser());
+        }
+
         studentRepository.save(existing);
+        aggregateVersions.bump(Aggregate.STUDENTS, Aggregate.COURSES);
         log.info("Student updated | id={}", existing.getId());
     }
 
@@ -139,36 +168,38 @@ public class StudentService {
                 );
     }
 
-    public List<Student> getAllStudents() {
-        return studentRepository.findAll();
-    }
-
-    public List<Student> searchByName(String query) {
-        return studentRepository.findByNameStartingWithIgnoreCase(query);
-    }
+    public PageResponseDto<StudentResponseDto> getStudents(
+            PageRequestDto page,
+            String name,
+            Long courseId,
+            String addBy
+    ) {
+        Specification<Student> filter = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (name != null && !name.isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("name")), "%" + name.trim().toLowerCase() + "%"));
+            }
+            if (courseId != null) {
+                predicates.add(cb.equal(root.join("courses").get("id"), courseId));
+            }
+            if (addBy != null && !addBy.isBlank()) {
+                predicates.add(cb.equal(root.get("addBy"), addBy));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
 
-    public List<Student> getStudentsByCourse(Long courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() ->
-                        new EntityNotFoundException("Course not found with id: " + courseId)
-                );
-        return course.getStudents();
+        return PAGER.fetch(studentRepository, filter, page, responseAssembler::students);
     }
 
-    // ---------- REG / ROLL NUMBERS ----------
-    public int getNewRegNo() {
-        return studentRepository.findMaxRegistrationNo().orElse(0) + 1;
+    public List<StudentResponseDto> searchByName(String query) {
+        return responseAssembler.students(studentRepository.findByNameStartingWithIgnoreCase(query));
     }
 
-    public int getNewRollNo(Course course) {
-        if (course.getStudents() == null || course.getStudents().isEmpty()) {
-            return 1;
+    public List<StudentResponseDto> getStudentsByCourse(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new EntityNotFoundException("Course not found with id: " + courseId);
         }
-        return course.getStudents()
-                .stream()
-                .mapToInt(Student::getRollNo)
-                .max()
-                .orElse(0) + 1;
+        return responseAssembler.students(studentRepository.findByCourseId(courseId));
     }
 
     // ---------- DELETE ----------
@@ -179,6 +210,7 @@ public class StudentService {
         // detach user
         User user = student.getUser();
         if (user != null) {
+           principalCache.evict(user);
            userRepository.delete(user);
         }
 
@@ -187,20 +219,14 @@ public class StudentService {
             cloudinaryService.deleteImage(student.getProfileImagePublicId());
         }
 
-        // detach from courses & attendance
+        // detach from courses; attendance rosters keep the id as history
         if (student.getCourses() != null) {
             student.getCourses().forEach(course -> {
 
-                if (course.getAttendence() != null) {
-                    course.getAttendence().forEach(a -> {
-                        a.getStudents().remove(student);
-                        attendenceRepository.save(a);
-                    });
-                }
-
                 course.getStudents().remove(student);
                 courseRepository.save(course);
             });
+            aggregateVersions.bump(Aggregate.COURSES);
         }
 
         // delete account & transactions
@@ -213,6 +239,7 @@ public class StudentService {
         }
 
         studentRepository.delete(student);
+        aggregateVersions.bump(Aggregate.STUDENTS);
         log.info("Student deleted | id={}", studentId);
     }
 
@@ -232,26 +259,24 @@ public class StudentService {
         student.getCourses().add(course);
 
         if (student.getRollNo() == 0) {
-            student.setRollNo(getNewRollNo(course));
+            student.setRollNo(numberAllocator.nextRollNo());
         }
 
         course.getStudents().add(student);
         courseRepository.save(course);
+        aggregateVersions.bump(Aggregate.COURSES, Aggregate.STUDENTS);
 
         // financial transaction
         if (student.getAccount() == null) {
             accountService.openStudentAccount(student);
         }
 
-        Transaction transaction = new Transaction();
-        transaction.setRemarks(course.getName());
-        transaction.setAmount(Float.parseFloat(course.getFees()));
-        transaction.setType("DEBIT");
-        transaction.setMode("ONLINE");
-
-        accountService.makeTransaction(
-                transaction,
-                student.getAccount().getId()
+        accountService.post(
+                student.getAccount().getId(),
+                "DEBIT",
+                Money.parseMinor(course.getFees()),
+                "ONLINE",
+                course.getName()
         );
 
         log.info(
@@ -260,27 +285,4 @@ public class StudentService {
                 courseId
         );
     }
-
-    // ---------- ATTENDANCE ----------
-    public List<Attendence> getAttendence(Long courseId, Long studentId) {
-
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() ->
-                        new EntityNotFoundException("Course not found with id: " + courseId)
-                );
-
-        List<Attendence> result = new ArrayList<>();
-
-        if (course.getAttendence() != null) {
-            course.getAttendence().forEach(att ->
-                    att.getStudents().forEach(s -> {
-                        if (s.getId().equals(studentId)) {
-                            result.add(att);
-                        }
-                    })
-            );
-        }
-
-        return result;
-    }
 }
@@ -2,15 +2,26 @@ package com.schoolOps.SchoolOPS.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import com.schoolOps.SchoolOPS.config.UserPrincipalCache;
+import com.schoolOps.SchoolOPS.dto.AttendanceMarkRequestDto;
+import com.schoolOps.SchoolOPS.dto.AttendanceMarkResultDto;
+import com.schoolOps.SchoolOPS.dto.PageRequestDto;
+import com.schoolOps.SchoolOPS.dto.PageResponseDto;
 import com.schoolOps.SchoolOPS.dto.TeacherRequestDto;
+import com.schoolOps.SchoolOPS.dto.TeacherResponseDto;
 import com.schoolOps.SchoolOPS.entity.*;
 import com.schoolOps.SchoolOPS.repository.*;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
 import com.schoolOps.SchoolOPS.utils.Email;
+import com.schoolOps.SchoolOPS.utils.KeysetPager;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -18,9 +29,16 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 @RequiredArgsConstructor
@@ -28,7 +46,13 @@ import org.springframework.web.multipart.MultipartFile;
 @Transactional
 public class TeacherService {
 
-    private final AttendenceRepository attendenceRepository;
+    private static final KeysetPager<Teacher> PAGER = KeysetPager.of(Teacher::getId)
+            .sortable("name", "name", Teacher::getName, Function.identity())
+            .sortable("salary", "salary", Teacher::getSalary, Integer::valueOf)
+            // User.student is an inverse one-to-one and cannot stay lazy: fetched with the page, not per row
+            .fetching("address", "user", "user.student", "account");
+
+    private final AttendanceService attendanceService;
     private final TeacherRepository teacherRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
@@ -37,7 +61,11 @@ public class TeacherService {
 
     // 🔐 AUTH
     private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache principalCache;
     private final Email emailService;
+    private final ResponseAssembler responseAssembler;
+    private final AggregateVersions aggregateVersions;
+    private final TransactionTemplate transactionTemplate;
 
     // =================================================
     // CREATE TEACHER + USER (FIRST LOGIN FLOW)
@@ -96,6 +124,7 @@ public class TeacherService {
         }
 
         Teacher savedTeacher = teacherRepository.save(teacher);
+        aggregateVersions.bump(Aggregate.TEACHERS);
 
         log.info(
                 "Teacher saved | teacherId={} | userId={}",
@@ -115,8 +144,14 @@ public class TeacherService {
                 );
     }
 
-    public List<Teacher> getAllTeachers() {
-        return teacherRepository.findAll();
+    public PageResponseDto<TeacherResponseDto> getTeachers(PageRequestDto page, String name) {
+
+        Specification<Teacher> filter = (root, query, cb) ->
+                name == null || name.isBlank()
+                        ? cb.conjunction()
+                        : cb.like(cb.lower(root.get("name")), "%" + name.trim().toLowerCase() + "%");
+
+        return PAGER.fetch(teacherRepository, filter, page, responseAssembler::teachers);
     }
 
     public Course getCourseById(Teacher teacher, Long courseId) {
@@ -159,6 +194,7 @@ public class TeacherService {
 
         // 🔁 sync User name/email if present
         if (existing.getUser() != null) {
+            principalCache.evict(existing.getUser());
             existing.getUser().setName(dto.getName());
             existing.getUser().setUsername(dto.getEmail());
             userRepository.save(existing.getUser());
@@ -180,6 +216,7 @@ public class TeacherService {
 
 
         teacherRepository.save(existing);
+        aggregateVersions.bump(Aggregate.TEACHERS, Aggregate.COURSES);
         log.info("Teacher updated | id={}", id);
     }
 
@@ -191,6 +228,7 @@ public class TeacherService {
         // detach user
         User user = teacher.getUser();
         if (user != null) {
+            principalCache.evict(user);
             userRepository.delete(user);
         }
 
@@ -204,14 +242,12 @@ public class TeacherService {
         if (teacher.getCourses() != null) {
             teacher.getCourses().forEach(course -> {
 
-                if (course.getAttendence() != null) {
-                    attendenceRepository.deleteAll(course.getAttendence());
-                    course.setAttendence(null);
-                }
+                attendanceService.deleteForCourse(course);
 
                 course.setTeacher(null);
                 courseRepository.save(course);
             });
+            aggregateVersions.bump(Aggregate.COURSES);
         }
 
         if (teacher.getProfileImagePublicId() != null) {
@@ -219,49 +255,69 @@ public class TeacherService {
         }
 
         teacherRepository.delete(teacher);
+        aggregateVersions.bump(Aggregate.TEACHERS);
         log.info("Teacher deleted | id={}", teacherId);
     }
 
     // ---------- ATTENDANCE ----------
-    public void markAttendence(List<Long> studentIds, Long courseId, Teacher teacher) {
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public AttendanceMarkResultDto markAttendence(List<Long> studentIds, Long courseId, Teacher teacher) {
+        return markAttendence(List.of(new AttendanceMarkRequestDto(courseId, null, studentIds)), teacher).get(0);
+    }
 
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() ->
-                        new EntityNotFoundException("Course not found with id: " + courseId)
-                );
+    // several courses in one request, e.g. back-to-back classes: one transaction, run
+    // here so a mark that lost a race (duplicate key, deadlock) is retried once from scratch
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public List<AttendanceMarkResultDto> markAttendence(List<AttendanceMarkRequestDto> requests, Teacher teacher) {
+        try {
+            return transactionTemplate.execute(status -> markAll(requests, teacher));
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            log.warn("Attendance mark conflicted, retrying | teacherId={} | cause={}", teacher.getId(), e.getMessage());
+            return transactionTemplate.execute(status -> markAll(requests, teacher));
+        }
+    }
 
-        List<Student> presentStudents = new ArrayList<>();
+    // course rows are locked in id order, so requests naming the same courses in another
+    // order wait for each other instead of deadlocking; results keep the request's order
+    private List<AttendanceMarkResultDto> markAll(List<AttendanceMarkRequestDto> requests, Teacher teacher) {
+        AttendanceMarkResultDto[] results = new AttendanceMarkResultDto[requests.size()];
+        IntStream.range(0, requests.size())
+                .boxed()
+                .sorted(Comparator.comparing(
+                        (Integer i) -> requests.get(i).getCourseId(),
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(i -> results[i] = markAttendence(requests.get(i), teacher));
+        return Arrays.asList(results);
+    }
 
-        if (course.getStudents() != null) {
-            course.getStudents().forEach(student -> {
-                if (studentIds.contains(student.getId())) {
-                    presentStudents.add(student);
-                }
-            });
-        }
+    private AttendanceMarkResultDto markAttendence(AttendanceMarkRequestDto request, Teacher teacher) {
 
-        Attendence attendance = new Attendence();
-        attendance.setCourse(course);
-        attendance.setDate(LocalDate.now());
-        attendance.setTeacher(teacher);
-        attendance.setStudents(presentStudents);
+        Course course = courseRepository.findById(request.getCourseId())
+                .orElseThrow(() ->
+                        new EntityNotFoundException("Course not found with id: " + request.getCourseId())
+                );
 
-        attendenceRepository.save(attendance);
+        if (course.getTeacher() == null || !course.getTeacher().getId().equals(teacher.getId())) {
+            throw new AccessDeniedException("Course " + course.getId() + " is not assigned to this teacher");
+        }
 
-        List<Attendence> attendences =
-                course.getAttendence() != null
-                        ? course.getAttendence()
-                        : new ArrayList<>();
+        LocalDate date = request.getDate() != null ? request.getDate() : LocalDate.now();
+        if (date.isAfter(LocalDate.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Attendance date is in the future");
+        }
 
-        attendences.add(attendance);
-        course.setAttendence(attendences);
-        courseRepository.save(course);
+        List<Long> studentIds = request.getStudentIds() != null ? request.getStudentIds() : List.of();
+        AttendanceMarkResultDto result = attendanceService.mark(course, teacher, date, studentIds);
 
         log.info(
-                "Attendance marked | courseId={} | teacherId={} | presentCount={}",
-                courseId,
+                "Attendance marked | courseId={} | teacherId={} | date={} | created={} | presentCount={} | rejected={}",
+                course.getId(),
                 teacher.getId(),
-                presentStudents.size()
+                date,
+                result.isCreated(),
+                result.getPresentCount(),
+                result.getRejectedStudentIds().size()
         );
+        return result;
     }
 }
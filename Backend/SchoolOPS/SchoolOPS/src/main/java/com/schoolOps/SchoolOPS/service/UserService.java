@@ -3,17 +3,26 @@ package com.schoolOps.SchoolOPS.service;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
+import com.schoolOps.SchoolOPS.config.UserPrincipalCache;
+import com.schoolOps.SchoolOPS.dto.PageRequestDto;
+import com.schoolOps.SchoolOPS.dto.PageResponseDto;
+import com.schoolOps.SchoolOPS.dto.UserResponseDto;
 import com.schoolOps.SchoolOPS.entity.User;
 import com.schoolOps.SchoolOPS.repository.UserRepository;
 import com.schoolOps.SchoolOPS.utils.Email;
+import com.schoolOps.SchoolOPS.utils.KeysetPager;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -29,9 +38,15 @@ public class UserService {
 
     private static final SecureRandom RANDOM = new SecureRandom();
 
+    private static final KeysetPager<User> PAGER = KeysetPager.of(User::getId)
+            .sortable("username", "username", User::getUsername, Function.identity())
+            .sortable("name", "name", User::getName, Function.identity())
+            .fetching("student", "teacher");
+
     private final UserRepository userRepository;
     private final Email emailService;
     private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache principalCache;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -39,8 +54,32 @@ public class UserService {
     // =================================================
     // READ
     // =================================================
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    // name matches the display name or the username
+    public PageResponseDto<UserResponseDto> getUsers(
+            PageRequestDto page,
+            String role,
+            Boolean enabled,
+            String name
+    ) {
+        Specification<User> filter = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (role != null && !role.isBlank()) {
+                predicates.add(cb.equal(root.get("role"), role));
+            }
+            if (enabled != null) {
+                predicates.add(cb.equal(root.get("enabled"), enabled));
+            }
+            if (name != null && !name.isBlank()) {
+                String pattern = "%" + name.trim().toLowerCase() + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("name")), pattern),
+                        cb.like(cb.lower(root.get("username")), pattern)
+                ));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+
+        return PAGER.fetch(userRepository, filter, page, users -> users.stream().map(UserResponseDto::fromEntity).toList());
     }
 
     public List<User> getUserByRole(String role) {
@@ -67,6 +106,7 @@ public class UserService {
     public User addNewUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         User saved = userRepository.save(user);
+        principalCache.evict(saved);
         log.info("User created | id={} | role={}", saved.getId(), saved.getRole());
         return saved;
     }
@@ -76,6 +116,7 @@ public class UserService {
     // =================================================
     public User save(User user) {
         User saved = userRepository.save(user);
+        principalCache.evict(saved);
         log.debug("User saved | id={}", saved.getId());
         return saved;
     }
@@ -106,6 +147,7 @@ public class UserService {
         user.setResetToken(resetToken);
         user.setResetTokenExpiry(LocalDateTime.now().plusHours(24));
         userRepository.save(user);
+        principalCache.evict(user);
 
         emailService.sendPasswordResetMail(
                 user.getUsername(),
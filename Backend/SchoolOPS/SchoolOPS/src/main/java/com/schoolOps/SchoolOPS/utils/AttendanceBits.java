@@ -0,0 +1,59 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.BitSet;
+import java.util.HexFormat;
+
+/**
+ * Encoding helpers for compact attendance storage: a roster is a sorted
+ * {@code long[]} of student ids stored as 8 bytes per id, and a session's
+ * presence is a {@link BitSet} over roster positions stored as
+ * {@link BitSet#toByteArray()} (little-endian, bit {@code n} in byte
+ * {@code n / 8}).
+ */
+public final class AttendanceBits {
+
+    private AttendanceBits() {
+    }
+
+    // ---------- ROSTER ----------
+    public static byte[] encodeIds(long[] sortedIds) {
+        ByteBuffer buffer = ByteBuffer.allocate(sortedIds.length * Long.BYTES);
+        for (long id : sortedIds) {
+            buffer.putLong(id);
+        }
+        return buffer.array();
+    }
+
+    public static long[] decodeIds(byte[] encoded) {
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        long[] ids = new long[encoded.length / Long.BYTES];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = buffer.getLong();
+        }
+        return ids;
+    }
+
+    public static String fingerprint(byte[] encodedIds) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(encodedIds));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // ---------- PRESENCE ----------
+    public static boolean isSet(byte[] bits, int position) {
+        int index = position >>> 3;
+        return bits != null
+                && index < bits.length
+                && (bits[index] & (1 << (position & 7))) != 0;
+    }
+
+    public static BitSet toBitSet(byte[] bits) {
+        return bits != null ? BitSet.valueOf(bits) : new BitSet();
+    }
+}
@@ -0,0 +1,57 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Conditional GET for read endpoints: call before loading anything and
+ * return {@code null} when it answers true, Spring then sends the 304.
+ *
+ * <p>Sets {@code Cache-Control: no-cache} so the browser keeps the body and
+ * revalidates with {@code If-None-Match} instead of Spring Security's
+ * default {@code no-store}.
+ */
+public final class ConditionalGet {
+
+    private static final CacheControl PRIVATE = CacheControl.noCache().cachePrivate();
+    private static final CacheControl PUBLIC = CacheControl.noCache().cachePublic();
+
+    private ConditionalGet() {
+    }
+
+    // per-user or admin data
+    public static boolean notModified(WebRequest request, String etag) {
+        return notModified(request, etag, PRIVATE);
+    }
+
+    // anonymous data that shared caches may keep too
+    public static boolean notModifiedPublic(WebRequest request, String etag) {
+        return notModified(request, etag, PUBLIC);
+    }
+
+    private static boolean notModified(WebRequest request, String etag, CacheControl cacheControl) {
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            }
+        }
+        return request.checkNotModified(etag);
+    }
+
+    // query string, so each page / filter of a list gets its own tag
+    public static String query(WebRequest request) {
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletRequest servletRequest = nativeRequest.getNativeRequest(HttpServletRequest.class);
+            if (servletRequest != null && servletRequest.getQueryString() != null) {
+                return servletRequest.getQueryString();
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,58 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal streaming CSV writer (RFC 4180 quoting), the counterpart of
+ * {@link CsvReader}. Records go straight to the underlying writer, so an
+ * export of any size holds one record in memory.
+ */
+public class CsvWriter implements Flushable {
+
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer instanceof BufferedWriter buffered
+                ? buffered
+                : new BufferedWriter(writer);
+    }
+
+    /**
+     * Writes one record; {@code null} fields are written empty.
+     */
+    public void writeRecord(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(fields[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escape(Object value) {
+
+        if (value == null) {
+            return "";
+        }
+        String field = value.toString();
+
+        // text starting like a formula is not evaluated by spreadsheets
+        if (value instanceof CharSequence && !field.isEmpty() && "=+-@".indexOf(field.charAt(0)) >= 0) {
+            field = "'" + field;
+        }
+
+        if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+            return '"' + field.replace("\"", "\"\"") + '"';
+        }
+        return field;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+}
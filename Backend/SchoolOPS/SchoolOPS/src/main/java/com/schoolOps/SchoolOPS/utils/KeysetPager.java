@@ -0,0 +1,214 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.schoolOps.SchoolOPS.dto.PageRequestDto;
+import com.schoolOps.SchoolOPS.dto.PageResponseDto;
+
+import jakarta.persistence.criteria.Path;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Keyset (cursor) pagination over a {@link JpaSpecificationExecutor}.
+ *
+ * <p>Rows are ordered by one whitelisted attribute plus the id as tie-breaker,
+ * and the next page starts strictly after the last row's {@code (value, id)},
+ * so page N costs the same as page 1 and rows inserted meanwhile never shift
+ * a page. The cursor handed to clients is an opaque base64 token of the sort,
+ * direction and last key. One extra row is read to know whether another page
+ * exists; the total is a separate count query, run only when asked for.
+ *
+ * <p>Sort attributes must be non-null columns, otherwise rows with a null
+ * value would be skipped.
+ */
+public final class KeysetPager<T> {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 200;
+
+    private static final String ID = "id";
+
+    private record SortKey<T>(
+            String attribute,
+            Function<T, ? extends Comparable<?>> value,
+            Function<String, ? extends Comparable<?>> parser
+    ) {
+    }
+
+    private final Function<T, Long> id;
+    private final Map<String, SortKey<T>> sortKeys = new LinkedHashMap<>();
+    private final List<String> fetched = new ArrayList<>();
+
+    private KeysetPager(Function<T, Long> id) {
+        this.id = id;
+        sortKeys.put(ID, new SortKey<>(ID, id, Long::valueOf));
+    }
+
+    public static <T> KeysetPager<T> of(Function<T, Long> id) {
+        return new KeysetPager<>(id);
+    }
+
+    // ---------- CONFIGURATION ----------
+    public KeysetPager<T> sortable(
+            String name,
+            String attribute,
+            Function<T, ? extends Comparable<?>> value,
+            Function<String, ? extends Comparable<?>> parser
+    ) {
+        sortKeys.put(name, new SortKey<>(attribute, value, parser));
+        return this;
+    }
+
+    // to-one associations loaded with the page instead of one query per row
+    public KeysetPager<T> fetching(String... attributes) {
+        fetched.addAll(List.of(attributes));
+        return this;
+    }
+
+    // ---------- FETCH ----------
+    // mapper converts the whole page at once, so collections can be resolved in one query
+    public <D> PageResponseDto<D> fetch(
+            JpaSpecificationExecutor<T> repository,
+            Specification<T> filter,
+            PageRequestDto request,
+            Function<List<T>, List<D>> mapper
+    ) {
+        Slice<T> slice = fetchSlice(repository, filter, request);
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            T last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = encode(sortName(request), descending(request), id.apply(last),
+                    sortKey(request).value().apply(last));
+        }
+
+        Long total = request.isCount() ? repository.count(filter) : null;
+
+        return new PageResponseDto<>(
+                mapper.apply(slice.getContent()),
+                nextCursor,
+                slice.hasNext(),
+                total
+        );
+    }
+
+    public Slice<T> fetchSlice(JpaSpecificationExecutor<T> repository, Specification<T> filter, PageRequestDto request) {
+
+        int size = size(request);
+        String sortName = sortName(request);
+        SortKey<T> key = sortKey(request);
+        boolean descending = descending(request);
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = ID.equals(key.attribute())
+                ? Sort.by(direction, ID)
+                : Sort.by(direction, key.attribute()).and(Sort.by(direction, ID));
+
+        Specification<T> spec = filter;
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            spec = spec.and(after(key, decode(request.getCursor(), sortName, descending, key), descending));
+        }
+
+        List<T> rows = repository.<T, List<T>>findBy(spec, query -> {
+            var fluent = query.sortBy(sort).limit(size + 1);
+            return fetched.isEmpty() ? fluent.all() : fluent.project(fetched).all();
+        });
+
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+    }
+
+    // (value, id) strictly after the cursor in the page order
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Specification<T> after(SortKey<T> key, Object[] cursor, boolean descending) {
+
+        Comparable value = (Comparable) cursor[0];
+        Long lastId = (Long) cursor[1];
+
+        return (root, query, cb) -> {
+            Path<Long> idPath = root.get(ID);
+            if (ID.equals(key.attribute())) {
+                return descending ? cb.lessThan(idPath, lastId) : cb.greaterThan(idPath, lastId);
+            }
+            Path<Comparable> path = root.get(key.attribute());
+            return descending
+                    ? cb.or(cb.lessThan(path, value), cb.and(cb.equal(path, value), cb.lessThan(idPath, lastId)))
+                    : cb.or(cb.greaterThan(path, value), cb.and(cb.equal(path, value), cb.greaterThan(idPath, lastId)));
+        };
+    }
+
+    // ---------- REQUEST ----------
+    public static int size(PageRequestDto request) {
+        Integer size = request.getSize();
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        if (size < 1 || size > MAX_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "size must be between 1 and " + MAX_SIZE);
+        }
+        return size;
+    }
+
+    private String sortName(PageRequestDto request) {
+        return request.getSort() == null || request.getSort().isBlank() ? ID : request.getSort();
+    }
+
+    private SortKey<T> sortKey(PageRequestDto request) {
+        SortKey<T> key = sortKeys.get(sortName(request));
+        if (key == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unsupported sort '" + request.getSort() + "', expected one of " + sortKeys.keySet());
+        }
+        return key;
+    }
+
+    private static boolean descending(PageRequestDto request) {
+        String direction = request.getDirection();
+        if (direction == null || direction.isBlank() || direction.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (direction.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "direction must be asc or desc");
+    }
+
+    // ---------- CURSOR ----------
+    // sort \n direction \n id \n value
+    private static String encode(String sortName, boolean descending, Long lastId, Object value) {
+        String raw = sortName + "\n" + (descending ? "desc" : "asc") + "\n" + lastId + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static <T> Object[] decode(String cursor, String sortName, boolean descending, SortKey<T> key) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+            if (parts.length != 4
+                    || !parts[0].equals(sortName)
+                    || !parts[1].equals(descending ? "desc" : "asc")) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Cursor does not belong to this sort order");
+            }
+            return new Object[]{key.parser().apply(parts[3]), Long.valueOf(parts[2])};
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.schoolOps.SchoolOPS.entity.OutboundEmail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends a batch of outbox mails over a single SMTP connection
+ * ({@link JavaMailSender#send(MimeMessage...)} opens one transport for the
+ * whole array) and reports which of them failed.
+ */
+@Component
+@Slf4j
+public class MailBatchSender {
+
+    private final JavaMailSender javaMailSender;
+    private final String fromEmail;
+
+    public MailBatchSender(
+            JavaMailSender javaMailSender,
+            @Value("${spring.mail.username}") String fromEmail
+    ) {
+        this.javaMailSender = javaMailSender;
+        this.fromEmail = fromEmail;
+    }
+
+    /**
+     * @return mail id -> failure, empty when every mail was accepted
+     */
+    public Map<Long, Exception> send(List<OutboundEmail> mails) {
+
+        Map<Long, Exception> failures = new LinkedHashMap<>();
+        Map<MimeMessage, OutboundEmail> byMessage = new IdentityHashMap<>();
+
+        for (OutboundEmail mail : mails) {
+            try {
+                byMessage.put(toMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                failures.put(mail.getId(), e);
+            }
+        }
+
+        if (byMessage.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            javaMailSender.send(byMessage.keySet().toArray(new MimeMessage[0]));
+
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                // connection / authentication failure: nothing was sent
+                byMessage.values().forEach(mail -> failures.put(mail.getId(), e));
+            } else {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    OutboundEmail mail = byMessage.get(message);
+                    if (mail != null) {
+                        failures.put(mail.getId(), cause);
+                    }
+                });
+            }
+
+        } catch (MailException e) {
+            byMessage.values().forEach(mail -> failures.put(mail.getId(), e));
+        }
+
+        log.debug("Mail batch sent | size={} | failed={}", mails.size(), failures.size());
+        return failures;
+    }
+
+    private MimeMessage toMimeMessage(OutboundEmail mail) throws MessagingException {
+
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, mail.isHtml(), "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getBody(), mail.isHtml());
+        return message;
+    }
+}
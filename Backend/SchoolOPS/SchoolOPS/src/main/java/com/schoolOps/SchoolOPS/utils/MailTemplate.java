@@ -0,0 +1,163 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A mail template parsed once into literal segments and variable slots, so
+ * rendering is a single pass of appends into a reused buffer.
+ *
+ * <p>Syntax: {@code {{name}}} inserts an HTML-escaped value, {@code {{&name}}}
+ * inserts it as-is. Missing variables render as empty text. Instances are
+ * immutable and thread-safe.
+ */
+public final class MailTemplate {
+
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    // one scratch buffer per thread, reused across renders
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    private final String name;
+    private final String[] literals;     // literals.length == variables.length + 1
+    private final String[] variables;
+    private final boolean[] escaped;
+    private final int literalLength;
+
+    private MailTemplate(String name, List<String> literals, List<String> variables, List<Boolean> escaped) {
+        this.name = name;
+        this.literals = literals.toArray(new String[0]);
+        this.variables = variables.toArray(new String[0]);
+        this.escaped = new boolean[escaped.size()];
+        for (int i = 0; i < escaped.size(); i++) {
+            this.escaped[i] = escaped.get(i);
+        }
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    public static MailTemplate compile(String name, String source) {
+
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<Boolean> escaped = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException(
+                        "Unclosed '{{' in mail template '" + name + "' at offset " + open);
+            }
+
+            String variable = source.substring(open + 2, close).trim();
+            boolean raw = variable.startsWith("&");
+            if (raw) {
+                variable = variable.substring(1).trim();
+            }
+            if (variable.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "Empty variable in mail template '" + name + "' at offset " + open);
+            }
+
+            literals.add(source.substring(position, open));
+            variables.add(variable);
+            escaped.add(!raw);
+            position = close + 2;
+        }
+        literals.add(source.substring(position));
+
+        return new MailTemplate(name, literals, variables, escaped);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<String> getVariables() {
+        return new LinkedHashSet<>(List.of(variables));
+    }
+
+    // =====================================================
+    // RENDERING
+    // =====================================================
+    public String render(Map<String, ?> values) {
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        renderTo(buffer, values, Map.of());
+        String result = buffer.toString();
+        releaseIfLarge(buffer);
+        return result;
+    }
+
+    /**
+     * Renders one document per recipient, reusing a single buffer. Values in
+     * {@code perRecipient} override {@code shared} ones with the same name.
+     */
+    public List<String> renderBatch(Map<String, ?> shared, List<? extends Map<String, ?>> perRecipient) {
+
+        List<String> results = new ArrayList<>(perRecipient.size());
+        StringBuilder buffer = BUFFER.get();
+
+        for (Map<String, ?> recipient : perRecipient) {
+            buffer.setLength(0);
+            renderTo(buffer, recipient, shared);
+            results.add(buffer.toString());
+        }
+
+        releaseIfLarge(buffer);
+        return results;
+    }
+
+    public void renderTo(StringBuilder out, Map<String, ?> values, Map<String, ?> fallback) {
+
+        out.ensureCapacity(out.length() + literalLength + variables.length * 16);
+
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+
+            Object value = values.get(variables[i]);
+            if (value == null) {
+                value = fallback.get(variables[i]);
+            }
+            if (value == null) {
+                continue;
+            }
+
+            if (escaped[i]) {
+                appendEscaped(out, value.toString());
+            } else {
+                out.append(value);
+            }
+        }
+        out.append(literals[variables.length]);
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static void releaseIfLarge(StringBuilder buffer) {
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compiled mail templates, loaded from {@code classpath:mail/} at startup.
+ * Every body template is inlined into {@code layout.html} before compiling,
+ * so each mail renders from one flat template.
+ */
+@Component
+@Slf4j
+public class MailTemplates {
+
+    public static final String OTP = "otp";
+    public static final String PASSWORD_RESET = "password-reset";
+    public static final String NOTICE = "notice";
+
+    private static final String LAYOUT = "layout";
+    private static final String CONTENT_SLOT = "{{&content}}";
+
+    private final Map<String, MailTemplate> templates = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void load() throws IOException {
+
+        String layout = read(LAYOUT);
+        if (!layout.contains(CONTENT_SLOT)) {
+            throw new IllegalStateException("Mail layout must contain " + CONTENT_SLOT);
+        }
+
+        for (String name : new String[]{OTP, PASSWORD_RESET, NOTICE}) {
+            String source = layout.replace(CONTENT_SLOT, read(name));
+            templates.put(name, MailTemplate.compile(name, source));
+        }
+
+        log.info("Mail templates compiled | templates={}", templates.keySet());
+    }
+
+    public MailTemplate get(String name) {
+        MailTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown mail template: " + name);
+        }
+        return template;
+    }
+
+    private static String read(String name) throws IOException {
+        try (InputStream in = new ClassPathResource("mail/" + name + ".html").getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Rupee amounts are stored and summed as {@code long} paise; rupees only
+ * appear at the API edge as {@link BigDecimal}. Conversion into paise is
+ * exact: an amount with a fraction of a paisa is rejected, not rounded.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    // ---------- RUPEES -> PAISE ----------
+    public static long toMinor(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount.toPlainString());
+        }
+    }
+
+    // course fees and other amounts kept as text
+    public static long parseMinor(String amount) {
+        if (amount == null || amount.isBlank()) {
+            return 0;
+        }
+        try {
+            return toMinor(new BigDecimal(amount.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+    }
+
+    // ---------- PAISE -> RUPEES ----------
+    public static BigDecimal toMajor(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
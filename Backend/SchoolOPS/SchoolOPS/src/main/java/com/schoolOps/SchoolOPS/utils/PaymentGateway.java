@@ -0,0 +1,27 @@
+package com.schoolOps.SchoolOPS.utils;
+
+/**
+ * Online payment provider: creates orders and checks the signature the
+ * checkout returns on success. {@link RazorpayPaymentGateway} talks to
+ * Razorpay; {@link StubPaymentGateway} ({@code app.payments.gateway=stub})
+ * works offline for tests and local runs.
+ */
+public interface PaymentGateway {
+
+    record GatewayOrder(String orderId, long amountMinor, String currency) {
+    }
+
+    /**
+     * @param receipt our reference for the order, at most 40 characters
+     */
+    GatewayOrder createOrder(long amountMinor, String currency, String receipt);
+
+    /**
+     * Whether {@code signature} was issued by the provider for this order
+     * and payment.
+     */
+    boolean verifySignature(String orderId, String paymentId, String signature);
+
+    // public key the browser checkout is opened with
+    String keyId();
+}
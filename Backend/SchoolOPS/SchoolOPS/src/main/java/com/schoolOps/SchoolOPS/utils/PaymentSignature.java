@@ -0,0 +1,40 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Razorpay checkout signature: hex HMAC-SHA256 of
+ * {@code order_id + "|" + payment_id}, keyed with the API key secret.
+ */
+public final class PaymentSignature {
+
+    private PaymentSignature() {
+    }
+
+    public static String sign(String orderId, String paymentId, String secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] digest = mac.doFinal((orderId + "|" + paymentId).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    // constant time, so the comparison does not leak how much of a forged signature matched
+    public static boolean matches(String orderId, String paymentId, String signature, String secret) {
+        if (signature == null) {
+            return false;
+        }
+        byte[] expected = sign(orderId, paymentId, secret).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(expected, signature.trim().toLowerCase().getBytes(StandardCharsets.UTF_8));
+    }
+}
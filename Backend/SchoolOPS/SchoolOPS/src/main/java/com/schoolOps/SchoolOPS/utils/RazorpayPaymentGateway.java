@@ -0,0 +1,64 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import com.razorpay.Order;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link PaymentGateway} on the Razorpay API. One client is built at
+ * startup and shared by all requests.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payments.gateway", havingValue = "razorpay", matchIfMissing = true)
+@Slf4j
+public class RazorpayPaymentGateway implements PaymentGateway {
+
+    private final RazorpayClient client;
+    private final String keyId;
+    private final String keySecret;
+
+    public RazorpayPaymentGateway(
+            @Value("${app.razorpay.key-id}") String keyId,
+            @Value("${app.razorpay.key-secret}") String keySecret
+    ) throws RazorpayException {
+        this.client = new RazorpayClient(keyId, keySecret);
+        this.keyId = keyId;
+        this.keySecret = keySecret;
+    }
+
+    @Override
+    public GatewayOrder createOrder(long amountMinor, String currency, String receipt) {
+
+        JSONObject options = new JSONObject();
+        options.put("amount", amountMinor);
+        options.put("currency", currency);
+        options.put("receipt", receipt);
+
+        try {
+            Order order = client.orders.create(options);
+            return new GatewayOrder(order.get("id"), amountMinor, currency);
+        } catch (RazorpayException e) {
+            log.error("Razorpay order failed | receipt={}", receipt, e);
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Payment provider unavailable");
+        }
+    }
+
+    @Override
+    public boolean verifySignature(String orderId, String paymentId, String signature) {
+        return PaymentSignature.matches(orderId, paymentId, signature, keySecret);
+    }
+
+    @Override
+    public String keyId() {
+        return keyId;
+    }
+}
@@ -0,0 +1,47 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline {@link PaymentGateway}: order ids are generated locally and a
+ * signature is valid when it is {@link PaymentSignature#sign} with
+ * {@code app.payments.stub.secret}, so tests can play the checkout.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payments.gateway", havingValue = "stub")
+@Slf4j
+public class StubPaymentGateway implements PaymentGateway {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final String secret;
+
+    public StubPaymentGateway(@Value("${app.payments.stub.secret:stub-secret}") String secret) {
+        this.secret = secret;
+        log.warn("Payment gateway stub active: no real payments are taken");
+    }
+
+    @Override
+    public GatewayOrder createOrder(long amountMinor, String currency, String receipt) {
+        return new GatewayOrder("order_stub_" + sequence.incrementAndGet() + "_" + System.nanoTime(), amountMinor, currency);
+    }
+
+    @Override
+    public boolean verifySignature(String orderId, String paymentId, String signature) {
+        return PaymentSignature.matches(orderId, paymentId, signature, secret);
+    }
+
+    @Override
+    public String keyId() {
+        return "rzp_test_stub";
+    }
+
+    public String sign(String orderId, String paymentId) {
+        return PaymentSignature.sign(orderId, paymentId, secret);
+    }
+}
@@ -0,0 +1,38 @@
+package com.schoolOps.SchoolOPS.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * A user changed on another node: only the shared USERS version moves, and
+ * this node must stop serving its cached token version once it sees that.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserPrincipalCacheTest {
+
+    @Autowired private UserPrincipalCache principalCache;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void otherNodesUserChangeClearsTheCacheAfterTheTtl() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, principalCache.tokenVersion(-1L, id -> loads.incrementAndGet()));
+        assertEquals(1, principalCache.tokenVersion(-1L, id -> loads.incrementAndGet()));
+
+        // committed by another node's evict
+        jdbcTemplate.update("insert into aggregate_version (name, version) values ('USERS', 1) "
+                + "on duplicate key update version = version + 1");
+        Thread.sleep(1_100);
+
+        assertEquals(2, principalCache.tokenVersion(-1L, id -> loads.incrementAndGet()));
+    }
+}
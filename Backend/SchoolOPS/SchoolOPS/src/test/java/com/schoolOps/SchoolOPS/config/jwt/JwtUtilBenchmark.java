@@ -0,0 +1,92 @@
+package com.schoolOps.SchoolOPS.config.jwt;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import com.schoolOps.SchoolOPS.config.CustomUserDetails;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Tokens/second for the JwtFilter hot path.
+ *
+ * <ul>
+ *     <li>{@code legacyTwoParses} - the old flow: a fresh parser for
+ *     extractUsername and again for isTokenValid</li>
+ *     <li>{@code sharedParserOneParse} - one reusable parser, one verify</li>
+ *     <li>{@code jwtUtilVerifiedCache} - {@link JwtUtil#extractClaims} with
+ *     the recently-verified token cache</li>
+ * </ul>
+ *
+ * Run with {@code mvn test-compile} and then the {@link #main} method.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private Key key;
+    private String token;
+    private JwtParser sharedParser;
+
+    private JwtUtil jwtUtil;
+    private String jwtUtilToken;
+
+    @Setup
+    public void setUp() {
+        key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        token = Jwts.builder()
+                .setSubject("student@schoolops.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(key)
+                .compact();
+        sharedParser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        jwtUtil = new JwtUtil(JwtKeyRing.ephemeral(), 10_000, Duration.ofMinutes(5));
+        jwtUtilToken = jwtUtil.generateToken(new CustomUserDetails(
+                1L, "student@schoolops.com", null, "Student", "STUDENT",
+                true, 1L, null, 0
+        ));
+    }
+
+    @Benchmark
+    public boolean legacyTwoParses() {
+        String username = Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        String again = Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        return username.equals(again);
+    }
+
+    @Benchmark
+    public Claims sharedParserOneParse() {
+        return sharedParser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims jwtUtilVerifiedCache() {
+        return jwtUtil.extractClaims(jwtUtilToken);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.schoolOps.SchoolOPS.config.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+
+import com.schoolOps.SchoolOPS.service.AggregateVersions;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Runs a public endpoint through the instrumentation filter and checks the
+ * recorded metrics and the fail-on-threshold mode.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryStatsFilterTest {
+
+    @Autowired private WebApplicationContext context;
+    @Autowired private AggregateVersions aggregateVersions;
+
+    private MockMvc mockMvc(QueryStatsFilter filter) {
+        return MockMvcBuilders.webAppContextSetup(context).addFilters(filter).build();
+    }
+
+    @Test
+    void recordsStatementsPerHandler() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        QueryStatsFilter filter = new QueryStatsFilter(registry, true, 25, Duration.ofSeconds(5), false);
+        aggregateVersions.bump(Aggregate.COURSES);
+
+        mockMvc(filter).perform(get("/api/public/home")).andExpect(status().isOk());
+
+        DistributionSummary statements = registry.find("schoolops.request.sql.statements")
+                .tag("handler", "PublicApiController.homeData")
+                .summary();
+        assertNotNull(statements);
+        assertEquals(1, statements.count());
+        assertTrue(statements.totalAmount() >= 1);
+        assertNotNull(registry.find("schoolops.request.sql.time").tag("handler", "PublicApiController.homeData").timer());
+        assertNull(QueryStats.current());
+    }
+
+    @Test
+    void failsRequestAboveStatementLimitWhenStrict() {
+        QueryStatsFilter filter = new QueryStatsFilter(new SimpleMeterRegistry(), true, 0, Duration.ofSeconds(5), true);
+        aggregateVersions.bump(Aggregate.COURSES);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> mockMvc(filter).perform(get("/api/public/home")));
+        assertTrue(e.getMessage().startsWith("PublicApiController.homeData"));
+    }
+}
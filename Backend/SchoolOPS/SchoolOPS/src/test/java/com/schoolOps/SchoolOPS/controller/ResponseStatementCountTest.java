@@ -0,0 +1,403 @@
+package com.schoolOps.SchoolOPS.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.schoolOps.SchoolOPS.dto.AccountStatementDto;
+import com.schoolOps.SchoolOPS.dto.PageRequestDto;
+import com.schoolOps.SchoolOPS.dto.PageResponseDto;
+import com.schoolOps.SchoolOPS.dto.StudentResponseDto;
+import com.schoolOps.SchoolOPS.dto.TransactionResponseDto;
+import com.schoolOps.SchoolOPS.entity.*;
+import com.schoolOps.SchoolOPS.repository.*;
+import com.schoolOps.SchoolOPS.service.CourseService;
+import com.schoolOps.SchoolOPS.service.NoticeFeedCache;
+import com.schoolOps.SchoolOPS.service.NoticeService;
+import com.schoolOps.SchoolOPS.service.AggregateVersions;
+import com.schoolOps.SchoolOPS.service.AggregateVersions.Aggregate;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.util.RawValue;
+
+/**
+ * Guards the number of SQL statements each list endpoint executes. Every
+ * call runs in a fresh transaction (as a request does with open-session-in-view),
+ * and the count must not depend on how many rows the response holds.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ResponseStatementCountTest {
+
+    private static final int TEACHERS = 3;
+    private static final int COURSES_PER_TEACHER = 2;
+    private static final int STUDENTS_PER_COURSE = 6;
+    private static final int NOTICES = 7;
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private JsonMapper jsonMapper;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private AdminController adminController;
+    @Autowired private AccountController accountController;
+    @Autowired private PublicApiController publicApiController;
+    @Autowired private SearchController searchController;
+    @Autowired private CourseService courseService;
+    @Autowired private AggregateVersions aggregateVersions;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private TeacherRepository teacherRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private StudentRepository studentRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private NoticeRepository noticeRepository;
+    @Autowired private NoticeService noticeService;
+
+    private Statistics statistics;
+    private final List<Long> teacherIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Long> noticeIds = new ArrayList<>();
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate.executeWithoutResult(status -> {
+            int studentNo = 0;
+            for (int t = 0; t < TEACHERS; t++) {
+                Teacher teacher = new Teacher();
+                teacher.setName("Teacher " + t);
+                teacher.setSalary(1000);
+                teacher.setUser(user("teacher" + t, "TEACHER"));
+                teacher.setAccount(account(null));
+                teacherRepository.save(teacher);
+                teacherIds.add(teacher.getId());
+
+                for (int c = 0; c < COURSES_PER_TEACHER; c++) {
+                    Course course = new Course();
+                    course.setName("Course " + t + "-" + c);
+                    course.setTeacher(teacher);
+                    courseRepository.save(course);
+                    courseIds.add(course.getId());
+
+                    for (int s = 0; s < STUDENTS_PER_COURSE; s++, studentNo++) {
+                        Student student = new Student();
+                        student.setName("Student " + studentNo);
+                        student.setRollNo(studentNo + 1);
+                        student.setRegistrationNo(studentNo + 1);
+                        student.setAddress(address());
+                        student.setUser(user("student" + studentNo, "STUDENT"));
+                        student.setCourses(new ArrayList<>(List.of(course)));
+                        studentRepository.save(student);
+                        student.setAccount(account(student));
+                        studentIds.add(student.getId());
+                    }
+                }
+            }
+
+            for (int n = 0; n < NOTICES; n++) {
+                Notice notice = new Notice();
+                notice.setTitle("Notice " + n);
+                notice.setIssueby("admin");
+                notice.setDescription("Details of notice " + n);
+                noticeIds.add(0, noticeRepository.save(notice).getId());
+            }
+        });
+    }
+
+    private User user(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("{noop}secret");
+        user.setName(username);
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    private static Address address() {
+        Address address = new Address();
+        address.setCity("City");
+        address.setStreet("Street");
+        return address;
+    }
+
+    private Account account(Student student) {
+        Account account = new Account();
+        account.setStudent(student);
+        accountRepository.save(account);
+        accountIds.add(account.getId());
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setAccount(account);
+            transaction.setType("CREDIT");
+            transaction.setAmountMinor(10000);
+            transaction.setBalanceMinor(10000L * (i + 1));
+            transactionRepository.save(transaction);
+        }
+        return account;
+    }
+
+    // statements prepared while the call runs in its own transaction
+    private long statements(Supplier<?> call) {
+        statistics.clear();
+        transactionTemplate.execute(status -> call.get());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+    }
+
+    private static PageRequestDto page(int size) {
+        PageRequestDto page = new PageRequestDto();
+        page.setSize(size);
+        return page;
+    }
+
+    // ---------- ADMIN LISTS ----------
+    @Test
+    void studentPageUsesPageQueryPlusCourseNames() {
+        assertEquals(2, statements(() -> adminController.getAllStudents(page(50), null, null, null, request())));
+    }
+
+    @Test
+    void studentPageCostDoesNotGrowWithPageSize() {
+        long small = statements(() -> adminController.getAllStudents(page(2), null, null, null, request()));
+        long large = statements(() -> adminController.getAllStudents(page(200), null, null, null, request()));
+        assertEquals(small, large);
+    }
+
+    @Test
+    void studentPageFollowsCursorWithoutGapsOrDuplicates() {
+        List<Long> seen = new ArrayList<>();
+        PageRequestDto page = page(5);
+        PageResponseDto<StudentResponseDto> response;
+        do {
+            response = transactionTemplate.execute(status ->
+                    adminController.getAllStudents(page, null, null, null, request()).getBody());
+            response.getItems().forEach(student -> seen.add(student.getId()));
+            page.setCursor(response.getNextCursor());
+        } while (response.isHasMore());
+
+        assertEquals(studentIds, seen);
+        assertFalse(seen.isEmpty());
+    }
+
+    @Test
+    void countIsOneExtraStatementAndOnlyWhenAsked() {
+        PageRequestDto page = page(50);
+        page.setCount(true);
+        assertEquals(3, statements(() -> adminController.getAllStudents(page, null, null, null, request())));
+    }
+
+    @Test
+    void teacherPageUsesPageQueryPlusCourseNames() {
+        assertEquals(2, statements(() -> adminController.getAllTeachers(page(50), null, request())));
+    }
+
+    @Test
+    void coursePageUsesPageQueryPlusStudentNames() {
+        assertEquals(2, statements(() -> adminController.getAllCourses(page(50), null, null, null, request())));
+    }
+
+    @Test
+    void userPageIsOneQuery() {
+        assertEquals(1, statements(() -> adminController.getAllUsers(page(50), null, null, null)));
+    }
+
+    @Test
+    void accountPageUsesPageQueryPlusRecentTransactionsAndTotals() {
+        assertEquals(3, statements(() -> accountController.getAllAccounts(page(50), null, null, null)));
+    }
+
+    @Test
+    void matchingEtagIsAnsweredWithoutQueries() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        ServletWebRequest initial = new ServletWebRequest(new MockHttpServletRequest("GET", "/"), first);
+        assertEquals(2, statements(() -> adminController.getAllStudents(page(50), null, null, null, initial)));
+
+        MockHttpServletRequest revalidate = new MockHttpServletRequest("GET", "/");
+        revalidate.addHeader("If-None-Match", first.getHeader("ETag"));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertEquals(0, statements(() -> adminController.getAllStudents(
+                page(50), null, null, null, new ServletWebRequest(revalidate, second))));
+        assertEquals(304, second.getStatus());
+    }
+
+    @Test
+    void studentWriteChangesTheEtag() {
+        String before = aggregateVersions.etag(null, Aggregate.STUDENTS);
+        transactionTemplate.executeWithoutResult(status -> aggregateVersions.bump(Aggregate.STUDENTS));
+        assertNotEquals(before, aggregateVersions.etag(null, Aggregate.STUDENTS));
+    }
+
+    @Test
+    void rolledBackWriteKeepsTheEtag() {
+        String before = aggregateVersions.etag(null, Aggregate.STUDENTS);
+        transactionTemplate.executeWithoutResult(status -> {
+            aggregateVersions.bump(Aggregate.STUDENTS);
+            status.setRollbackOnly();
+        });
+        assertEquals(before, aggregateVersions.etag(null, Aggregate.STUDENTS));
+    }
+
+    @Test
+    void bumpWaitsForTheCommit() {
+        long before = aggregateVersions.version(Aggregate.COURSES);
+        transactionTemplate.executeWithoutResult(status -> {
+            aggregateVersions.bump(Aggregate.COURSES);
+            // the version row is not written (or locked) by the caller's transaction
+            assertEquals(before, storedVersion(Aggregate.COURSES));
+        });
+        assertEquals(before + 1, storedVersion(Aggregate.COURSES));
+        assertEquals(before + 1, aggregateVersions.version(Aggregate.COURSES));
+    }
+
+    private long storedVersion(Aggregate aggregate) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "select version from aggregate_version where name = ?", Long.class, aggregate.name());
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    @Test
+    void otherNodesWriteChangesTheEtagAfterTheTtl() throws InterruptedException {
+        String before = aggregateVersions.etag(null, Aggregate.GALLERY);
+        // committed by another node: only the shared row moves
+        jdbcTemplate.update("insert into aggregate_version (name, version) values ('GALLERY', 1) "
+                + "on duplicate key update version = version + 1");
+        Thread.sleep(1_100);
+        assertNotEquals(before, aggregateVersions.etag(null, Aggregate.GALLERY));
+    }
+
+    // ---------- NOTICE FEED ----------
+    @Test
+    void noticeFeedServesTheWindowWithoutQueries() {
+        noticeService.getFeed(page(2), NoticeFeedCache.View.FULL);
+        assertEquals(0, statements(() -> noticeService.getFeed(page(2), NoticeFeedCache.View.FULL)));
+    }
+
+    @Test
+    void noticeFeedPagesPastTheWindowNewestFirst() {
+        for (NoticeFeedCache.View view : NoticeFeedCache.View.values()) {
+            List<Long> seen = new ArrayList<>();
+            PageRequestDto page = page(2);
+            PageResponseDto<RawValue> response;
+            do {
+                response = transactionTemplate.execute(status -> noticeService.getFeed(page, view));
+                response.getItems().forEach(item -> seen.add(id(item)));
+                page.setCursor(response.getNextCursor());
+            } while (response.isHasMore());
+
+            assertEquals(noticeIds, seen);
+        }
+    }
+
+    @Test
+    void noticeSummaryOmitsTheDescription() {
+        String json = noticeService.getFeed(page(1), NoticeFeedCache.View.SUMMARY).getItems().get(0).rawValue().toString();
+        assertFalse(json.contains("description"));
+    }
+
+    private long id(RawValue item) {
+        return jsonMapper.readTree(item.rawValue().toString()).get("id").asLong();
+    }
+
+    // ---------- LEDGER ----------
+    @Test
+    void transactionHistoryPagesNewestFirst() {
+        Long accountId = accountIds.get(0);
+        List<Long> seen = new ArrayList<>();
+        PageRequestDto page = page(2);
+        PageResponseDto<TransactionResponseDto> response;
+        do {
+            response = transactionTemplate.execute(status ->
+                    accountController.getTransactions(accountId, page).getBody());
+            response.getItems().forEach(transaction -> seen.add(transaction.getId()));
+            page.setCursor(response.getNextCursor());
+        } while (response.isHasMore());
+
+        assertEquals(3, seen.size());
+        assertTrue(seen.get(0) > seen.get(1) && seen.get(1) > seen.get(2));
+    }
+
+    @Test
+    void statementReadsBalancesFromRunningBalances() {
+        Long accountId = accountIds.get(0);
+        LocalDate today = LocalDate.now();
+
+        AccountStatementDto statement = transactionTemplate.execute(status ->
+                accountController.getStatement(accountId, today, today, page(50)).getBody());
+
+        assertEquals(new BigDecimal("0.00"), statement.getOpeningBalance());
+        assertEquals(new BigDecimal("300.00"), statement.getClosingBalance());
+        assertEquals(new BigDecimal("300.00"), statement.getTotalCredits());
+        assertEquals(3L, statement.getTransactionCount());
+        assertEquals(3, statement.getEntries().getItems().size());
+
+        // account check, entries, totals and one seek per bound
+        assertEquals(5, statements(() -> accountController.getStatement(accountId, today, today, page(50))));
+    }
+
+    // ---------- OTHER LISTS ----------
+    @Test
+    void publicHomeIsOneQueryThenServedFromCache() {
+        aggregateVersions.bump(Aggregate.COURSES);
+        assertEquals(1, statements(() -> publicApiController.homeData()));
+        assertEquals(0, statements(() -> publicApiController.homeData()));
+    }
+
+    @Test
+    void publicHomeCountsStudentsWithoutNamingThem() {
+        aggregateVersions.bump(Aggregate.COURSES);
+        String json = new String(publicApiController.homeData().getBody(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"studentCount\":" + STUDENTS_PER_COURSE));
+        assertFalse(json.contains("Student 0"));
+    }
+
+    @Test
+    void teacherCoursesUseCoursesPlusStudentNames() {
+        assertEquals(2, statements(() -> courseService.getTeacherCourses(teacherIds.get(0))));
+    }
+
+    @Test
+    void studentCoursesUseCoursesPlusStudentNames() {
+        assertEquals(2, statements(() -> courseService.getStudentCourses(studentIds.get(0))));
+    }
+
+    @Test
+    void searchByCourseIsFixed() {
+        assertTrue(statements(() -> searchController.searchStudentByCourse(courseIds.get(0))) <= 3);
+    }
+
+    @Test
+    void searchByNameIsFixed() {
+        assertEquals(2, statements(() -> searchController.searchStudentByName("Student")));
+    }
+}
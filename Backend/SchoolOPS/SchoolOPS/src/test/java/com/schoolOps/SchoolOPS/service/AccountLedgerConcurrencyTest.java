@@ -0,0 +1,89 @@
+package com.schoolOps.SchoolOPS.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.schoolOps.SchoolOPS.entity.Account;
+import com.schoolOps.SchoolOPS.entity.Transaction;
+import com.schoolOps.SchoolOPS.repository.AccountRepository;
+import com.schoolOps.SchoolOPS.repository.TransactionRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Posts to one account from many threads at once: the final balance must
+ * be the sum of every posting and, in posting order, each entry's running
+ * balance must be the previous one plus its amount.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountLedgerConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int POSTINGS_PER_THREAD = 100;
+
+    @Autowired private AccountService accountService;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    @Test
+    void concurrentPostingsLoseNoUpdates() throws Exception {
+        Long accountId = accountRepository.save(new Account()).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> posted = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                posted.add(pool.submit(() -> {
+                    start.await();
+                    long sum = 0;
+                    for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                        // credits of 10.01 .. 10.16, every third posting a debit of 0.07
+                        if (i % 3 == 2) {
+                            accountService.post(accountId, "DEBIT", 7, "TEST", "debit " + thread);
+                            sum -= 7;
+                        } else {
+                            accountService.post(accountId, "CREDIT", 1001 + thread, "TEST", "credit " + thread);
+                            sum += 1001 + thread;
+                        }
+                    }
+                    return sum;
+                }));
+            }
+
+            start.countDown();
+
+            long expected = 0;
+            for (Future<Long> future : posted) {
+                expected += future.get();
+            }
+
+            assertEquals(expected, accountRepository.findBalanceMinorById(accountId));
+
+            List<Transaction> ledger = transactionRepository.findByAccountIds(List.of(accountId));
+            assertEquals(THREADS * POSTINGS_PER_THREAD, ledger.size());
+
+            long running = 0;
+            for (Transaction transaction : ledger) {
+                running += transaction.getAmountMinor();
+                assertEquals(running, transaction.getBalanceMinor(), "running balance of entry " + transaction.getId());
+            }
+        } finally {
+            pool.shutdownNow();
+            transactionRepository.deleteAll(transactionRepository.findByAccountIds(List.of(accountId)));
+            accountRepository.deleteById(accountId);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.schoolOps.SchoolOPS.service;
+
+import static com.schoolOps.SchoolOPS.entity.AttendanceRollup.ALL_TIME;
+import static com.schoolOps.SchoolOPS.entity.AttendanceRollup.WHOLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.schoolOps.SchoolOPS.dto.AttendanceMarkRequestDto;
+import com.schoolOps.SchoolOPS.dto.AttendanceMarkResultDto;
+import com.schoolOps.SchoolOPS.entity.AttendanceRollup;
+import com.schoolOps.SchoolOPS.entity.Course;
+import com.schoolOps.SchoolOPS.entity.Teacher;
+import com.schoolOps.SchoolOPS.repository.AttendanceRollupRepository;
+import com.schoolOps.SchoolOPS.repository.AttendenceRepository;
+import com.schoolOps.SchoolOPS.repository.CourseRepository;
+import com.schoolOps.SchoolOPS.repository.TeacherRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Submits the first attendance of the day from many threads at once: every
+ * submission must succeed, only one session per course may exist afterwards
+ * and the course rollup must count it once.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AttendanceMarkConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired private TeacherService teacherService;
+    @Autowired private AttendanceService attendanceService;
+    @Autowired private TeacherRepository teacherRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private AttendenceRepository attendenceRepository;
+    @Autowired private AttendanceRollupRepository rollupRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentFirstMarksCreateOneSession() throws Exception {
+        Teacher teacher = new Teacher();
+        teacher.setName("Concurrent Marker");
+        teacherRepository.save(teacher);
+
+        Long courseId = course("Concurrent Marks", teacher);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AttendanceMarkResultDto>> marked = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                marked.add(pool.submit(() -> {
+                    start.await();
+                    return teacherService.markAttendence(List.of(), courseId, teacher);
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<AttendanceMarkResultDto> future : marked) {
+                if (future.get().isCreated()) {
+                    created++;
+                }
+            }
+            assertEquals(1, created);
+            assertEquals(1, attendenceRepository.findByCourseIdOrderByDate(courseId).size());
+
+            AttendanceRollup whole = rollupRepository.findByCourseIdAndStudentIdAndPeriod(courseId, WHOLE, ALL_TIME)
+                    .orElseThrow();
+            assertEquals(1, whole.getSessions());
+            // school figures are summed on read, never written by a mark
+            assertTrue(rollupRepository.findByCourseIdAndStudentIdAndPeriod(WHOLE, WHOLE, ALL_TIME).isEmpty());
+
+        } finally {
+            pool.shutdownNow();
+            cleanUp(teacher, courseId);
+        }
+    }
+
+    @Test
+    void crossedMultiCourseMarksAllSucceedInRequestOrder() throws Exception {
+        Teacher teacher = new Teacher();
+        teacher.setName("Crossed Marker");
+        teacherRepository.save(teacher);
+
+        Long first = course("Crossed A", teacher);
+        Long second = course("Crossed B", teacher);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<AttendanceMarkResultDto>>> marked = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                // half the threads name the courses the other way round
+                List<Long> order = t % 2 == 0 ? List.of(first, second) : List.of(second, first);
+                marked.add(pool.submit(() -> {
+                    start.await();
+                    return teacherService.markAttendence(order.stream()
+                            .map(courseId -> new AttendanceMarkRequestDto(courseId, null, List.of()))
+                            .toList(), teacher);
+                }));
+            }
+            start.countDown();
+
+            for (int t = 0; t < THREADS; t++) {
+                List<Long> courseIds = marked.get(t).get().stream()
+                        .map(AttendanceMarkResultDto::getCourseId)
+                        .toList();
+                assertEquals(t % 2 == 0 ? List.of(first, second) : List.of(second, first), courseIds);
+            }
+            assertEquals(1, attendenceRepository.findByCourseIdOrderByDate(first).size());
+            assertEquals(1, attendenceRepository.findByCourseIdOrderByDate(second).size());
+
+        } finally {
+            pool.shutdownNow();
+            cleanUp(teacher, first, second);
+        }
+    }
+
+    private Long course(String name, Teacher teacher) {
+        Course course = new Course();
+        course.setName(name);
+        course.setTeacher(teacher);
+        return courseRepository.save(course).getId();
+    }
+
+    private void cleanUp(Teacher teacher, Long... courseIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Long courseId : courseIds) {
+                Course saved = courseRepository.findById(courseId).orElseThrow();
+                attendanceService.deleteForCourse(saved);
+                courseRepository.delete(saved);
+            }
+        });
+        teacherRepository.deleteById(teacher.getId());
+    }
+}
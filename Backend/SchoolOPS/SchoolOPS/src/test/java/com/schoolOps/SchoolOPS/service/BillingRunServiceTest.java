@@ -0,0 +1,213 @@
+package com.schoolOps.SchoolOPS.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.schoolOps.SchoolOPS.dto.BillingRunDto;
+import com.schoolOps.SchoolOPS.dto.BillingRunRequestDto;
+import com.schoolOps.SchoolOPS.entity.Account;
+import com.schoolOps.SchoolOPS.entity.BillingRun;
+import com.schoolOps.SchoolOPS.entity.Course;
+import com.schoolOps.SchoolOPS.entity.Student;
+import com.schoolOps.SchoolOPS.entity.Transaction;
+import com.schoolOps.SchoolOPS.repository.AccountRepository;
+import com.schoolOps.SchoolOPS.repository.BillingRunRepository;
+import com.schoolOps.SchoolOPS.repository.CourseRepository;
+import com.schoolOps.SchoolOPS.repository.StudentRepository;
+import com.schoolOps.SchoolOPS.repository.TransactionRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Bills a session of three courses (one without a valid fee) over six
+ * enrolments, two per chunk in the test profile: every enrolment is billed
+ * once, a run that failed part-way resumes after its last committed chunk,
+ * and a completed run id is never billed again.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BillingRunServiceTest {
+
+    private static final String SESSION = "billing-test";
+
+    @Autowired private BillingRunService billingRunService;
+    @Autowired private BillingRunRepository billingRunRepository;
+    @Autowired private StudentRepository studentRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    // ids of the seeded rows
+    private record Seed(Long maths, Long art, Long music, Student both, Student mathsOnly, Student artAndMusic) {
+
+        List<Long> accountIds() {
+            return List.of(both.getAccount().getId(), mathsOnly.getAccount().getId(), artAndMusic.getAccount().getId());
+        }
+    }
+
+    @Test
+    void runBillsEveryEnrolmentOnceAcrossChunks() {
+        seeded("run-chunks", seed -> {
+            BillingRun run = run(request("run-chunks", "Jan"));
+
+            assertEquals(BillingRun.COMPLETED, run.getStatus());
+            assertEquals(6, run.getTotalItems());
+            assertEquals(4, run.getBilledItems());
+            // music has no valid fee
+            assertEquals(2, run.getSkippedItems());
+
+            assertBilledOnce(seed, "run-chunks");
+        });
+    }
+
+    @Test
+    void failedRunResumesFromItsCursor() {
+        seeded("run-resume", seed -> {
+            // the second chunk (Asha / music, Ravi / maths) collides with an entry already holding Ravi's reference
+            String reference = "BILL:run-resume:" + seed.maths();
+            jdbcTemplate.update("insert into transaction (account_id, type, timestamp, mode, amount_minor, balance_minor, reference) "
+                    + "values (?, 'DEBIT', current_timestamp, 'TEST', 0, 0, ?)", seed.mathsOnly().getAccount().getId(), reference);
+
+            BillingRun failed = run(request("run-resume", "Jan"));
+            assertEquals(BillingRun.FAILED, failed.getStatus());
+            assertEquals(2, failed.getBilledItems());
+            assertEquals(seed.both().getId(), failed.getCursorStudentId());
+            assertEquals(seed.art(), failed.getCursorCourseId());
+
+            jdbcTemplate.update("delete from transaction where reference = ? and mode = 'TEST'", reference);
+
+            BillingRun resumed = run(request("run-resume", "Jan"));
+            assertEquals(BillingRun.COMPLETED, resumed.getStatus());
+            assertEquals(4, resumed.getBilledItems());
+            assertEquals(2, resumed.getSkippedItems());
+
+            assertBilledOnce(seed, "run-resume");
+        });
+    }
+
+    @Test
+    void completedRunIdIsNotBilledAgain() {
+        seeded("run-repost", seed -> {
+            run(request("run-repost", "Jan"));
+
+            BillingRunDto again = billingRunService.start(request("run-repost", "Jan"), "admin");
+            assertEquals(BillingRun.COMPLETED, again.getStatus());
+            assertEquals(4, again.getBilledItems());
+            assertBilledOnce(seed, "run-repost");
+
+            ResponseStatusException conflict = assertThrows(ResponseStatusException.class,
+                    () -> billingRunService.start(request("run-repost", "Feb"), "admin"));
+            assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+        });
+    }
+
+    // balances moved by the fees, one DEBIT per billed enrolment, running balances in posting order
+    private void assertBilledOnce(Seed seed, String runId) {
+        assertEquals(-35000, accountRepository.findBalanceMinorById(seed.both().getAccount().getId()));
+        assertEquals(-10000, accountRepository.findBalanceMinorById(seed.mathsOnly().getAccount().getId()));
+        assertEquals(-25000, accountRepository.findBalanceMinorById(seed.artAndMusic().getAccount().getId()));
+
+        List<Transaction> ledger = transactionRepository.findByAccountIds(seed.accountIds());
+        assertEquals(List.of(
+                "BILL:" + runId + ":" + seed.maths(),
+                "BILL:" + runId + ":" + seed.art(),
+                "BILL:" + runId + ":" + seed.maths(),
+                "BILL:" + runId + ":" + seed.art()
+        ), ledger.stream().map(Transaction::getReference).toList());
+
+        Map<Long, List<Transaction>> byAccount = ledger.stream()
+                .collect(Collectors.groupingBy(transaction -> transaction.getAccount().getId()));
+        byAccount.forEach((accountId, entries) -> {
+            long running = 0;
+            for (Transaction transaction : entries) {
+                running += transaction.getAmountMinor();
+                assertEquals(running, transaction.getBalanceMinor(), "running balance of entry " + transaction.getId());
+            }
+        });
+    }
+
+    // starts the run and polls it until its worker has finished this attempt
+    private BillingRun run(BillingRunRequestDto request) {
+        LocalDateTime started = LocalDateTime.now();
+        billingRunService.start(request, "admin");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            BillingRun run = billingRunRepository.findById(request.getRunId()).orElseThrow();
+            if (run.getFinishedAt() != null && !run.getFinishedAt().isBefore(started)) {
+                return run;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new AssertionError("Billing run " + request.getRunId() + " did not finish");
+    }
+
+    private static BillingRunRequestDto request(String runId, String period) {
+        BillingRunRequestDto request = new BillingRunRequestDto();
+        request.setRunId(runId);
+        request.setSession(SESSION);
+        request.setPeriod(period);
+        return request;
+    }
+
+    // ---------- DATA ----------
+    // runs bill on their own thread and commit per chunk, so the data is committed and removed afterwards
+    private void seeded(String runId, Consumer<Seed> test) {
+        Course maths = course("Maths", "100");
+        Course art = course("Art", "250.00");
+        Course music = course("Music", "on request");
+
+        List<Student> students = new ArrayList<>();
+        try {
+            students.add(student(92001, "Asha", List.of(maths, art, music)));
+            students.add(student(92002, "Ravi", List.of(maths)));
+            students.add(student(92003, "Meera", List.of(art, music)));
+
+            test.accept(new Seed(maths.getId(), art.getId(), music.getId(),
+                    students.get(0), students.get(1), students.get(2)));
+        } finally {
+            students.forEach(student -> jdbcTemplate.update(
+                    "delete from transaction where account_id = ?", student.getAccount().getId()));
+            studentRepository.deleteAll(students);
+            courseRepository.deleteAll(List.of(maths, art, music));
+            billingRunRepository.deleteById(runId);
+        }
+    }
+
+    private Course course(String name, String fees) {
+        Course course = new Course();
+        course.setName(name);
+        course.setSession(SESSION);
+        course.setFees(fees);
+        return courseRepository.save(course);
+    }
+
+    private Student student(int rollNo, String name, List<Course> courses) {
+        Student student = new Student();
+        student.setRollNo(rollNo);
+        student.setRegistrationNo(rollNo);
+        student.setName(name);
+        student.setAccount(new Account());
+        student.setCourses(new ArrayList<>(courses));
+        return studentRepository.save(student);
+    }
+}
@@ -0,0 +1,201 @@
+package com.schoolOps.SchoolOPS.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.schoolOps.SchoolOPS.entity.Account;
+import com.schoolOps.SchoolOPS.entity.Course;
+import com.schoolOps.SchoolOPS.entity.Student;
+import com.schoolOps.SchoolOPS.repository.CourseRepository;
+import com.schoolOps.SchoolOPS.repository.StudentRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the dues exports over a few seeded ledgers: students are folded from
+ * their course rows, overdue dates start after the balance was last settled
+ * and the CSV is quoted where needed. Every test rolls its data back.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DuesReportServiceTest {
+
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    @Autowired private DuesReportService duesReportService;
+    @Autowired private StudentRepository studentRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    // ids of the seeded rows
+    private record Seed(Long maths, Long art, Long paidOnce, Long neverPaid, Long inCredit, Long owesLittle) {
+    }
+
+    @Test
+    void studentsAreFoldedWithOverdueSinceTheLastSettledEntry() {
+        rolledBack(seed -> {
+            Map<String, List<String>> rows = byStudent(csv(out -> duesReportService.writeStudents(out, null, 100)));
+
+            // paid, fell behind on Jan 5, paid part on Jan 10: still overdue since Jan 5
+            assertEquals(List.of(
+                    seed.paidOnce().toString(), "91001", "Asha", "Maths; Art, Craft", "15.00",
+                    "2026-01-05", days("2026-01-05"), "2026-01-10T09:00"
+            ), rows.get(seed.paidOnce().toString()));
+
+            // never paid: overdue since the first entry, no last payment
+            assertEquals(List.of(
+                    seed.neverPaid().toString(), "91002", "Ravi", "", "3.00",
+                    "2026-02-01", days("2026-02-01"), ""
+            ), rows.get(seed.neverPaid().toString()));
+
+            assertFalse(rows.containsKey(seed.inCredit().toString()));
+            assertFalse(rows.containsKey(seed.owesLittle().toString()));
+        });
+    }
+
+    @Test
+    void courseFilterKeepsAllCoursesOfMatchingStudents() {
+        rolledBack(seed -> {
+            Map<String, List<String>> rows = byStudent(csv(out -> duesReportService.writeStudents(out, seed.art(), 1)));
+
+            assertEquals(Map.of(seed.paidOnce().toString(), "Maths; Art, Craft"),
+                    rows.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().get(3))));
+        });
+    }
+
+    @Test
+    void coursesSumTheBalancesOfTheirDefaulters() {
+        rolledBack(seed -> {
+            String csv = csv(out -> duesReportService.writeCourses(out, 1));
+            Map<String, List<String>> rows = byStudent(csv);
+
+            assertEquals("courseId,course,defaulters,defaulterBalances,maxDaysOverdue,lastPaymentAt",
+                    csv.lines().findFirst().orElseThrow());
+            // owesLittle counts with a minimum of one paisa; Asha's whole balance counts in both her courses
+            assertEquals(List.of(seed.maths().toString(), "Maths", "2", "15.50", days("2026-01-05"), "2026-01-10T09:00"),
+                    rows.get(seed.maths().toString()));
+            assertEquals(List.of(seed.art().toString(), "Art, Craft", "1", "15.00", days("2026-01-05"), "2026-01-10T09:00"),
+                    rows.get(seed.art().toString()));
+        });
+    }
+
+    // ---------- DATA ----------
+    private void rolledBack(Consumer<Seed> test) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                test.accept(seed());
+            } finally {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    private Seed seed() {
+        Course maths = course("Maths");
+        Course art = course("Art, Craft");
+
+        Student paidOnce = student(91001, "Asha", -1500, List.of(maths, art));
+        entry(paidOnce, "CREDIT", 1000, 1000, 0);
+        entry(paidOnce, "DEBIT", -2000, -1000, 4);
+        entry(paidOnce, "CREDIT", 500, -500, 9);
+        entry(paidOnce, "DEBIT", -1000, -1500, 11);
+
+        Student neverPaid = student(91002, "Ravi", -300, List.of());
+        entry(neverPaid, "DEBIT", -300, -300, 31);
+
+        Student inCredit = student(91003, "Meera", 200, List.of(maths));
+        entry(inCredit, "CREDIT", 200, 200, 2);
+
+        Student owesLittle = student(91004, "Kabir", -50, List.of(maths));
+        entry(owesLittle, "DEBIT", -50, -50, 20);
+
+        return new Seed(maths.getId(), art.getId(), paidOnce.getId(), neverPaid.getId(),
+                inCredit.getId(), owesLittle.getId());
+    }
+
+    private Course course(String name) {
+        Course course = new Course();
+        course.setName(name);
+        return courseRepository.save(course);
+    }
+
+    private Student student(int rollNo, String name, long balanceMinor, List<Course> courses) {
+        Account account = new Account();
+        account.setBalanceMinor(balanceMinor);
+
+        Student student = new Student();
+        student.setRollNo(rollNo);
+        student.setRegistrationNo(rollNo);
+        student.setName(name);
+        student.setAccount(account);
+        student.setCourses(new ArrayList<>(courses));
+        return studentRepository.saveAndFlush(student);
+    }
+
+    // entries in posting order, dated days after Jan 1
+    private void entry(Student student, String type, long amountMinor, long balanceMinor, int day) {
+        jdbcTemplate.update(
+                "insert into transaction (account_id, type, timestamp, mode, amount_minor, balance_minor) "
+                        + "values (?, ?, ?, 'TEST', ?, ?)",
+                student.getAccount().getId(), type, JAN_1.plusDays(day), amountMinor, balanceMinor);
+    }
+
+    // ---------- CSV ----------
+    private static String csv(Consumer<StringWriter> export) {
+        StringWriter out = new StringWriter();
+        export.accept(out);
+        return out.toString();
+    }
+
+    // records keyed by their first field; the header is skipped
+    private static Map<String, List<String>> byStudent(String csv) {
+        return csv.lines()
+                .skip(1)
+                .map(DuesReportServiceTest::fields)
+                .filter(fields -> !fields.get(0).isEmpty())
+                .collect(Collectors.toMap(fields -> fields.get(0), fields -> fields));
+    }
+
+    // enough of RFC 4180 for these records: quoted fields without line breaks
+    private static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted && c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                field.append('"');
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String days(String since) {
+        return Long.toString(ChronoUnit.DAYS.between(LocalDate.parse(since), LocalDate.now()));
+    }
+}
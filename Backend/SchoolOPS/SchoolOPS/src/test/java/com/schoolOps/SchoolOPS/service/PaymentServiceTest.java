@@ -0,0 +1,120 @@
+package com.schoolOps.SchoolOPS.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.schoolOps.SchoolOPS.dto.PaymentCaptureRequestDto;
+import com.schoolOps.SchoolOPS.dto.PaymentOrderDto;
+import com.schoolOps.SchoolOPS.entity.Account;
+import com.schoolOps.SchoolOPS.entity.PaymentOrder;
+import com.schoolOps.SchoolOPS.repository.AccountRepository;
+import com.schoolOps.SchoolOPS.repository.PaymentOrderRepository;
+import com.schoolOps.SchoolOPS.repository.TransactionRepository;
+import com.schoolOps.SchoolOPS.utils.StubPaymentGateway;
+
+import jakarta.persistence.EntityNotFoundException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Plays the checkout against the stub gateway: the same success callback
+ * delivered many times at once must credit the account exactly once, and
+ * only a correctly signed callback for the payer's own order is accepted.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentServiceTest {
+
+    private static final int CALLBACKS = 8;
+
+    @Autowired private PaymentService paymentService;
+    @Autowired private StubPaymentGateway stubPaymentGateway;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private PaymentOrderRepository paymentOrderRepository;
+
+    @Test
+    void replayedCallbacksCreditOnce() throws Exception {
+        Long accountId = accountRepository.save(new Account()).getId();
+        ExecutorService pool = Executors.newFixedThreadPool(CALLBACKS);
+        String orderId = null;
+
+        try {
+            PaymentOrderDto order = paymentService.createOrder(accountId, new BigDecimal("1250.50"));
+            orderId = order.getOrderId();
+            assertEquals(125050, order.getAmountMinor());
+
+            PaymentCaptureRequestDto callback = new PaymentCaptureRequestDto(
+                    orderId, "pay_stub_1", stubPaymentGateway.sign(orderId, "pay_stub_1"));
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<PaymentOrderDto>> captured = new ArrayList<>();
+            for (int i = 0; i < CALLBACKS; i++) {
+                captured.add(pool.submit(() -> {
+                    start.await();
+                    return paymentService.capture(accountId, callback);
+                }));
+            }
+            start.countDown();
+
+            for (Future<PaymentOrderDto> future : captured) {
+                assertEquals(PaymentOrder.PAID, future.get().getStatus());
+            }
+            assertEquals(125050, accountRepository.findBalanceMinorById(accountId));
+            assertEquals(1, transactionRepository.findByAccountIds(List.of(accountId)).size());
+
+            // another payment for the paid order
+            PaymentCaptureRequestDto other = new PaymentCaptureRequestDto(
+                    orderId, "pay_stub_2", stubPaymentGateway.sign(orderId, "pay_stub_2"));
+            assertThrows(ResponseStatusException.class, () -> paymentService.capture(accountId, other));
+
+        } finally {
+            pool.shutdownNow();
+            if (orderId != null) {
+                paymentOrderRepository.deleteById(orderId);
+            }
+            transactionRepository.deleteAll(transactionRepository.findByAccountIds(List.of(accountId)));
+            accountRepository.deleteById(accountId);
+        }
+    }
+
+    @Test
+    void rejectsForgedOrForeignCallbacks() {
+        Long accountId = accountRepository.save(new Account()).getId();
+        Long otherAccountId = accountRepository.save(new Account()).getId();
+        String orderId = null;
+
+        try {
+            orderId = paymentService.createOrder(accountId, new BigDecimal("100")).getOrderId();
+
+            PaymentCaptureRequestDto forged = new PaymentCaptureRequestDto(orderId, "pay_stub_3", "0".repeat(64));
+            assertThrows(ResponseStatusException.class, () -> paymentService.capture(accountId, forged));
+
+            PaymentCaptureRequestDto signed = new PaymentCaptureRequestDto(
+                    orderId, "pay_stub_3", stubPaymentGateway.sign(orderId, "pay_stub_3"));
+            assertThrows(EntityNotFoundException.class, () -> paymentService.capture(otherAccountId, signed));
+
+            assertEquals(0, accountRepository.findBalanceMinorById(accountId));
+            assertEquals(0, accountRepository.findBalanceMinorById(otherAccountId));
+
+        } finally {
+            if (orderId != null) {
+                paymentOrderRepository.deleteById(orderId);
+            }
+            accountRepository.deleteById(accountId);
+            accountRepository.deleteById(otherAccountId);
+        }
+    }
+}
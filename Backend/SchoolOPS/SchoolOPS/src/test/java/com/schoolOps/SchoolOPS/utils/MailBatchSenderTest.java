@@ -0,0 +1,70 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.schoolOps.SchoolOPS.entity.OutboundEmail;
+
+import jakarta.mail.internet.MimeMessage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * Sends outbox batches to an in-process fake SMTP server.
+ */
+class MailBatchSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private MailBatchSender sender(int port) {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(port);
+        return new MailBatchSender(javaMailSender, "noreply@schoolops.com");
+    }
+
+    private static OutboundEmail mail(long id, String to, boolean html) {
+        OutboundEmail mail = new OutboundEmail();
+        mail.setId(id);
+        mail.setRecipient(to);
+        mail.setSubject("Set Your Password | SchoolOps");
+        mail.setBody(html ? "<p>Welcome</p>" : "Welcome");
+        mail.setHtml(html);
+        return mail;
+    }
+
+    @Test
+    void deliversWholeBatch() throws Exception {
+
+        Map<Long, Exception> failures = sender(smtp.getSmtp().getPort()).send(List.of(
+                mail(1L, "a@schoolops.com", true),
+                mail(2L, "b@schoolops.com", false),
+                mail(3L, "c@schoolops.com", true)
+        ));
+
+        assertTrue(failures.isEmpty());
+
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("Set Your Password | SchoolOps", received[0].getSubject());
+    }
+
+    @Test
+    void reportsEveryMailWhenServerIsUnreachable() {
+
+        Map<Long, Exception> failures = sender(1).send(List.of(
+                mail(1L, "a@schoolops.com", true),
+                mail(2L, "b@schoolops.com", true)
+        ));
+
+        assertEquals(2, failures.size());
+    }
+}
@@ -0,0 +1,50 @@
+package com.schoolOps.SchoolOPS.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Rendering of compiled mail templates: escaped and raw slots, missing
+ * values and per-recipient batches.
+ */
+class MailTemplateTest {
+
+    @Test
+    void escapesValuesUnlessMarkedRaw() {
+        MailTemplate template = MailTemplate.compile("t", "<p>{{name}}</p><div>{{&name}}</div>");
+
+        String html = template.render(Map.of("name", "<b>Tom & \"Jerry\"'s</b>"));
+
+        assertEquals("<p>&lt;b&gt;Tom &amp; &quot;Jerry&quot;&#39;s&lt;/b&gt;</p>"
+                + "<div><b>Tom & \"Jerry\"'s</b></div>", html);
+    }
+
+    @Test
+    void missingValuesRenderEmpty() {
+        MailTemplate template = MailTemplate.compile("t", "Dear {{ name }},{{&footer}}!");
+
+        assertEquals("Dear ,!", template.render(Map.of()));
+    }
+
+    @Test
+    void batchRendersEachRecipientOverSharedValues() {
+        MailTemplate template = MailTemplate.compile("t", "{{title}}: Dear {{name}}");
+
+        List<String> rendered = template.renderBatch(
+                Map.of("title", "Notice", "name", "everyone"),
+                List.of(Map.of("name", "Asha"), Map.of(), Map.of("name", "<Ravi>")));
+
+        assertEquals(List.of("Notice: Dear Asha", "Notice: Dear everyone", "Notice: Dear &lt;Ravi&gt;"), rendered);
+    }
+
+    @Test
+    void rejectsUnclosedOrEmptySlots() {
+        assertThrows(IllegalArgumentException.class, () -> MailTemplate.compile("t", "Dear {{name"));
+        assertThrows(IllegalArgumentException.class, () -> MailTemplate.compile("t", "Dear {{ & }}"));
+    }
+}
@@ -1,8 +1,11 @@
 import { useState, useEffect } from 'react';
 import auth from '../../utils/auth';
+import { fetchPage, fetchAllPages } from '../../utils/paging';
 
 const Courses = () => {
   const [courses, setCourses] = useState([]);
+  const [coursesCursor, setCoursesCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [teachers, setTeachers] = useState([]);
   const [loading, setLoading] = useState(true);
   const [showModal, setShowModal] = useState(false);
@@ -29,31 +32,25 @@ const Courses = () => {
     fetchTeachers();
   }, []);
 
-  const fetchCourses = async () => {
+  // first page on load and after every change; "Load more" appends the next one
+  const fetchCourses = async (cursor = null) => {
+    setLoadingMore(!!cursor);
     try {
-      const response = await fetch('/api/admin/courses', {
-        headers: auth.getAuthHeaders()
-      });
-      if (response.ok) {
-        const data = await response.json();
-        setCourses(data);
-      }
+      const page = await fetchPage('/api/admin/courses?size=200', cursor);
+      setCourses(current => (cursor ? [...current, ...page.items] : page.items));
+      setCoursesCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching courses:', error);
     } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
+  // every option for the picker, not just the first page
   const fetchTeachers = async () => {
     try {
-      const response = await fetch('/api/admin/teachers', {
-        headers: auth.getAuthHeaders()
-      });
-      if (response.ok) {
-        const data = await response.json();
-        setTeachers(data);
-      }
+      setTeachers(await fetchAllPages('/api/admin/teachers?size=200'));
     } catch (error) {
       console.error('Error fetching teachers:', error);
     }
@@ -233,6 +230,17 @@ const Courses = () => {
               </tbody>
             </table>
           </div>
+          {coursesCursor && (
+            <div className="text-center">
+              <button
+                className="btn btn-outline-secondary btn-sm"
+                disabled={loadingMore}
+                onClick={() => fetchCourses(coursesCursor)}
+              >
+                {loadingMore ? 'Loading...' : `Load more (${courses.length} shown)`}
+              </button>
+            </div>
+          )}
         </div>
       </div>
 
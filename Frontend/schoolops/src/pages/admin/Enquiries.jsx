@@ -1,28 +1,30 @@
 import { useState, useEffect } from 'react';
 import auth from '../../utils/auth';
 import API_BASE_URL from '../../config';
+import { fetchPage } from '../../utils/paging';
 
 const Enquiries = () => {
   const [enquiries, setEnquiries] = useState([]);
+  const [enquiriesCursor, setEnquiriesCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
     fetchEnquiries();
   }, []);
 
-  const fetchEnquiries = async () => {
+  // first page on load and after every change; "Load more" appends the next one
+  const fetchEnquiries = async (cursor = null) => {
+    setLoadingMore(!!cursor);
     try {
-      const response = await fetch(`${API_BASE_URL}/api/admin/enquiries`, {
-        headers: auth.getAuthHeaders()
-      });
-      if (response.ok) {
-        const data = await response.json();
-        setEnquiries(data);
-      }
+      const page = await fetchPage(`${API_BASE_URL}/api/admin/enquiries?size=200`, cursor);
+      setEnquiries(current => (cursor ? [...current, ...page.items] : page.items));
+      setEnquiriesCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching enquiries:', error);
     } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
@@ -135,6 +137,17 @@ const Enquiries = () => {
               </tbody>
             </table>
           </div>
+          {enquiriesCursor && (
+            <div className="text-center">
+              <button
+                className="btn btn-outline-secondary btn-sm"
+                disabled={loadingMore}
+                onClick={() => fetchEnquiries(enquiriesCursor)}
+              >
+                {loadingMore ? 'Loading...' : `Load more (${enquiries.length} shown)`}
+              </button>
+            </div>
+          )}
         </div>
       </div>
 
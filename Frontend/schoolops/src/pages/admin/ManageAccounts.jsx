@@ -1,6 +1,7 @@
 import { useMemo, useState, useEffect } from 'react';
 import auth from '../../utils/auth';
 import API_BASE_URL from '../../config';
+import { fetchPage } from '../../utils/paging';
 
 const loadExternalScript = (src) =>
   new Promise((resolve, reject) => {
@@ -126,6 +127,8 @@ const getMetrics = (account) => {
 
 const ManageAccounts = () => {
   const [accounts, setAccounts] = useState([]);
+  const [accountsCursor, setAccountsCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [searchQuery, setSearchQuery] = useState('');
@@ -143,34 +146,42 @@ const ManageAccounts = () => {
   const [payrollError, setPayrollError] = useState('');
   const [downloadingReceiptKey, setDownloadingReceiptKey] = useState('');
   const [downloadingAudit, setDownloadingAudit] = useState(false);
-
-  const fetchAccounts = async () => {
-    setLoading(true);
+  const [downloadingDues, setDownloadingDues] = useState(false);
+
+  // first page on load and refresh; "Load more" appends the next one
+  const fetchAccounts = async (cursor = null) => {
+    if (cursor) {
+      setLoadingMore(true);
+    } else {
+      setLoading(true);
+    }
     setError('');
     try {
-      const response = await fetch(`${API_BASE_URL}/api/accounts`, {
-        headers: auth.getAuthHeaders(),
-      });
-
-      if (!response.ok) {
-        setError('Failed to load accounts.');
-        return;
-      }
-
-      const data = await response.json();
-      const list = Array.isArray(data) ? data : [];
-      setAccounts(list);
-      if (list.length > 0 && selectedAccountId == null) {
-        setSelectedAccountId(list[0].id);
+      const page = await fetchPage(`${API_BASE_URL}/api/accounts?size=200`, cursor);
+      setAccounts((current) => (cursor ? [...current, ...page.items] : page.items));
+      setAccountsCursor(page.nextCursor);
+      if (!cursor && page.items.length > 0 && selectedAccountId == null) {
+        setSelectedAccountId(page.items[0].id);
       }
     } catch (err) {
       console.error('Error fetching accounts:', err);
       setError('Unable to load accounts.');
     } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
+  // re-reads one account in place, so the pages loaded so far stay as they are
+  const refreshAccount = async (accountId) => {
+    const response = await fetch(`${API_BASE_URL}/api/accounts/${accountId}`, {
+      headers: auth.getAuthHeaders(),
+    });
+    if (!response.ok) return;
+    const updated = await response.json();
+    setAccounts((current) => current.map((account) => (account.id === accountId ? updated : account)));
+  };
+
   useEffect(() => {
     fetchAccounts();
   }, []);
@@ -356,6 +367,7 @@ const ManageAccounts = () => {
       const data = await response.json();
       const list = Array.isArray(data) ? data : [];
       setAccounts(list);
+      setAccountsCursor(null);
       setSelectedAccountId(list.length > 0 ? list[0].id : null);
     } catch (err) {
       console.error('Error searching accounts:', err);
@@ -396,8 +408,7 @@ const ManageAccounts = () => {
       }
 
       setTxForm({ amount: '', type: 'CREDIT', mode: 'CASH', remarks: '' });
-      await fetchAccounts();
-      setSelectedAccountId(selectedAccount.id);
+      await refreshAccount(selectedAccount.id);
     } catch (err) {
       console.error('Error creating transaction:', err);
       setError('Unable to create transaction.');
@@ -485,6 +496,33 @@ const ManageAccounts = () => {
     }
   };
 
+  // dues report is built and streamed by the server (students owing money)
+  const handleDownloadDuesReport = async () => {
+    setDownloadingDues(true);
+    setError('');
+    try {
+      const response = await fetch(`${API_BASE_URL}/api/accounts/dues/students.csv`, {
+        headers: auth.getAuthHeaders(),
+      });
+      if (!response.ok) {
+        setError('Failed to download dues report.');
+        return;
+      }
+
+      const url = URL.createObjectURL(await response.blob());
+      const link = document.createElement('a');
+      link.href = url;
+      link.download = `dues-${new Date().toISOString().slice(0, 10)}.csv`;
+      link.click();
+      URL.revokeObjectURL(url);
+    } catch (err) {
+      console.error('Error downloading dues report:', err);
+      setError('Unable to download dues report.');
+    } finally {
+      setDownloadingDues(false);
+    }
+  };
+
   const handleDownloadAuditReport = async () => {
     if (allTransactions.length === 0) {
       setError('No transactions available for audit export.');
@@ -636,7 +674,20 @@ const ManageAccounts = () => {
               </>
             )}
           </button>
-          <button className="btn btn-outline-primary" onClick={fetchAccounts}>
+          <button className="btn btn-outline-danger" onClick={handleDownloadDuesReport} disabled={downloadingDues}>
+            {downloadingDues ? (
+              <>
+                <span className="spinner-border spinner-border-sm me-2" role="status"></span>
+                Preparing Dues CSV...
+              </>
+            ) : (
+              <>
+                <i className="bi bi-filetype-csv me-2"></i>
+                Download Dues CSV
+              </>
+            )}
+          </button>
+          <button className="btn btn-outline-primary" onClick={() => fetchAccounts()}>
             <i className="bi bi-arrow-clockwise me-2"></i>
             Refresh Data
           </button>
@@ -644,6 +695,12 @@ const ManageAccounts = () => {
       </div>
 
       {error && <div className="alert alert-danger">{error}</div>}
+      {accountsCursor && (
+        <div className="alert alert-info">
+          Figures below cover the {accounts.length} accounts loaded so far. Load more from the
+          account directory, or download the Dues CSV for all outstanding dues.
+        </div>
+      )}
 
       <div className="row g-3 mb-4">
         <div className="col-md-6 col-xl-3">
@@ -730,6 +787,15 @@ const ManageAccounts = () => {
                 </table>
               </div>
               {filteredAccounts.length === 0 && <p className="text-muted mb-0">No accounts found.</p>}
+              {accountsCursor && (
+                <button
+                  className="btn btn-outline-secondary btn-sm mt-2"
+                  disabled={loadingMore}
+                  onClick={() => fetchAccounts(accountsCursor)}
+                >
+                  {loadingMore ? 'Loading...' : `Load more (${accounts.length} shown)`}
+                </button>
+              )}
             </div>
           </div>
         </div>
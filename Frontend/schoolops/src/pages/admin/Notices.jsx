@@ -25,7 +25,7 @@ const Notices = () => {
       });
       if (response.ok) {
         const data = await response.json();
-        setNotices(data);
+        setNotices(data.items || []);
       }
     } catch (error) {
       console.error('Error fetching notices:', error);
@@ -1,9 +1,12 @@
 import { useState, useEffect } from 'react';
 import auth from '../../utils/auth';
 import API_BASE_URL from '../../config';
+import { fetchPage, fetchAllPages } from '../../utils/paging';
 
 const Students = () => {
   const [students, setStudents] = useState([]);
+  const [studentsCursor, setStudentsCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [courses, setCourses] = useState([]);
   const [loading, setLoading] = useState(true);
   const [showModal, setShowModal] = useState(false);
@@ -37,31 +40,25 @@ const Students = () => {
     fetchCourses();
   }, []);
 
-  const fetchStudents = async () => {
+  // first page on load and after every change; "Load more" appends the next one
+  const fetchStudents = async (cursor = null) => {
+    setLoadingMore(!!cursor);
     try {
-      const response = await fetch(`${API_BASE_URL}/api/admin/students`, {
-        headers: auth.getAuthHeaders()
-      });
-      if (response.ok) {
-        const data = await response.json();
-        setStudents(data);
-      }
+      const page = await fetchPage(`${API_BASE_URL}/api/admin/students?size=200`, cursor);
+      setStudents(current => (cursor ? [...current, ...page.items] : page.items));
+      setStudentsCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching students:', error);
     } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
+  // every option for the picker, not just the first page
   const fetchCourses = async () => {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/admin/courses`, {
-        headers: auth.getAuthHeaders()
-      });
-      if (response.ok) {
-        const data = await response.json();
-        setCourses(data);
-      }
+      setCourses(await fetchAllPages(`${API_BASE_URL}/api/admin/courses?size=200`));
     } catch (error) {
       console.error('Error fetching courses:', error);
     }
@@ -345,6 +342,17 @@ const Students = () => {
               </tbody>
             </table>
           </div>
+          {studentsCursor && (
+            <div className="text-center">
+              <button
+                className="btn btn-outline-secondary btn-sm"
+                disabled={loadingMore}
+                onClick={() => fetchStudents(studentsCursor)}
+              >
+                {loadingMore ? 'Loading...' : `Load more (${students.length} shown)`}
+              </button>
+            </div>
+          )}
         </div>
       </div>
 
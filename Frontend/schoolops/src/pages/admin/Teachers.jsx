@@ -1,9 +1,12 @@
 import { useState, useEffect } from 'react';
 import auth from '../../utils/auth';
 import API_BASE_URL from '../../config';
+import { fetchPage, fetchAllPages } from '../../utils/paging';
 
 const Teachers = () => {
   const [teachers, setTeachers] = useState([]);
+  const [teachersCursor, setTeachersCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [courses, setCourses] = useState([]);
   const [loading, setLoading] = useState(true);
   const [showModal, setShowModal] = useState(false);
@@ -44,33 +47,27 @@ const Teachers = () => {
     }
   }, [courses, editingTeacher]);
 
+  // every option for the picker, not just the first page
   const fetchCourses = async () => {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/admin/courses`, {
-        headers: auth.getAuthHeaders()
-      });
-      if (response.ok) {
-        const data = await response.json();
-        setCourses(data);
-      }
+      setCourses(await fetchAllPages(`${API_BASE_URL}/api/admin/courses?size=200`));
     } catch (error) {
       console.error('Error fetching courses:', error);
     }
   };
 
-  const fetchTeachers = async () => {
+  // first page on load and after every change; "Load more" appends the next one
+  const fetchTeachers = async (cursor = null) => {
+    setLoadingMore(!!cursor);
     try {
-      const response = await fetch(`${API_BASE_URL}/api/admin/teachers`, {
-        headers: auth.getAuthHeaders()
-      });
-      if (response.ok) {
-        const data = await response.json();
-        setTeachers(data);
-      }
+      const page = await fetchPage(`${API_BASE_URL}/api/admin/teachers?size=200`, cursor);
+      setTeachers(current => (cursor ? [...current, ...page.items] : page.items));
+      setTeachersCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching teachers:', error);
     } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
@@ -239,6 +236,17 @@ const Teachers = () => {
               </tbody>
             </table>
           </div>
+          {teachersCursor && (
+            <div className="text-center">
+              <button
+                className="btn btn-outline-secondary btn-sm"
+                disabled={loadingMore}
+                onClick={() => fetchTeachers(teachersCursor)}
+              >
+                {loadingMore ? 'Loading...' : `Load more (${teachers.length} shown)`}
+              </button>
+            </div>
+          )}
         </div>
       </div>
 
@@ -1,9 +1,12 @@
 import { useState, useEffect } from 'react';
 import auth from '../../utils/auth';
 import API_BASE_URL from '../../config';
+import { fetchPage } from '../../utils/paging';
 
 const Users = () => {
   const [users, setUsers] = useState([]);
+  const [usersCursor, setUsersCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
   const [showModal, setShowModal] = useState(false);
   const [formData, setFormData] = useState({
@@ -17,19 +20,18 @@ const Users = () => {
     fetchUsers();
   }, []);
 
-  const fetchUsers = async () => {
+  // first page on load and after every change; "Load more" appends the next one
+  const fetchUsers = async (cursor = null) => {
+    setLoadingMore(!!cursor);
     try {
-      const response = await fetch(`${API_BASE_URL}/api/admin/users`, {
-        headers: auth.getAuthHeaders()
-      });
-      if (response.ok) {
-        const data = await response.json();
-        setUsers(data);
-      }
+      const page = await fetchPage(`${API_BASE_URL}/api/admin/users?size=200`, cursor);
+      setUsers(current => (cursor ? [...current, ...page.items] : page.items));
+      setUsersCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching users:', error);
     } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
@@ -126,6 +128,17 @@ const Users = () => {
               </tbody>
             </table>
           </div>
+          {usersCursor && (
+            <div className="text-center">
+              <button
+                className="btn btn-outline-secondary btn-sm"
+                disabled={loadingMore}
+                onClick={() => fetchUsers(usersCursor)}
+              >
+                {loadingMore ? 'Loading...' : `Load more (${users.length} shown)`}
+              </button>
+            </div>
+          )}
         </div>
       </div>
 
@@ -2,8 +2,6 @@ import { useEffect, useMemo, useState } from "react";
 import auth from "../../utils/auth";
 import API_BASE_URL from "../../config";
 
-const RAZORPAY_KEY = "rzp_test_SGUXdDf8BB9T6g";
-
 const loadRazorpayScript = () =>
   new Promise((resolve) => {
     if (window.Razorpay) {
@@ -25,6 +23,9 @@ const Account = () => {
   const [error, setError] = useState("");
   const [paymentAmount, setPaymentAmount] = useState("");
   const [paying, setPaying] = useState(false);
+  const [history, setHistory] = useState([]);
+  const [historyCursor, setHistoryCursor] = useState(null);
+  const [loadingHistory, setLoadingHistory] = useState(false);
 
   const fetchAccount = async () => {
     setLoading(true);
@@ -47,34 +48,45 @@ const Account = () => {
     }
   };
 
+  // newest first, one page at a time; the account response only carries the latest entries
+  const fetchHistory = async (cursor = null) => {
+    setLoadingHistory(true);
+    try {
+      const query = cursor ? `?size=10&cursor=${encodeURIComponent(cursor)}` : "?size=10";
+      const response = await fetch(`${API_BASE_URL}/api/student/account/transactions${query}`, {
+        headers: auth.getAuthHeaders(),
+      });
+      if (!response.ok) return;
+      const data = await response.json();
+      const items = Array.isArray(data.items) ? data.items : [];
+      setHistory((current) => (cursor ? [...current, ...items] : items));
+      setHistoryCursor(data.hasMore ? data.nextCursor : null);
+    } catch (err) {
+      console.error("Error fetching transactions:", err);
+    } finally {
+      setLoadingHistory(false);
+    }
+  };
+
   useEffect(() => {
     fetchAccount();
+    fetchHistory();
   }, []);
 
   const totals = useMemo(() => {
     const txns = Array.isArray(account?.transactions) ? account.transactions : [];
     const txnIds = Array.isArray(account?.transactionIds) ? account.transactionIds : [];
-    const credits = txns
+    const credits = Number(account?.totalCredits ?? txns
       .filter((txn) => String(txn.type || "").toUpperCase() === "CREDIT")
-      .reduce((sum, txn) => sum + Number(txn.amount || 0), 0);
-    const debits = txns
+      .reduce((sum, txn) => sum + Number(txn.amount || 0), 0));
+    const debits = Number(account?.totalDebits ?? txns
       .filter((txn) => String(txn.type || "").toUpperCase() === "DEBIT")
-      .reduce((sum, txn) => sum + Number(txn.amount || 0), 0);
+      .reduce((sum, txn) => sum + Number(txn.amount || 0), 0));
     const balance = Number(account?.accountBalance ?? account?.balance ?? credits - debits);
     const due = Number(account?.dues ?? account?.pendingAmount ?? (balance < 0 ? Math.abs(balance) : 0));
     return { credits, debits, balance, due, txns, txnIds };
   }, [account]);
 
-  const parseOrderResponse = (raw) => {
-    if (!raw) return null;
-    if (typeof raw === "object") return raw;
-    try {
-      return JSON.parse(raw);
-    } catch {
-      return null;
-    }
-  };
-
   const handlePayment = async (e) => {
     e.preventDefault();
     setError("");
@@ -109,28 +121,29 @@ const Account = () => {
         return;
       }
 
-      const orderRaw = await orderResponse.text();
-      const order = parseOrderResponse(orderRaw);
-      if (!order?.id) {
+      // amount and account are kept with the order on the server
+      const order = await orderResponse.json();
+      if (!order?.orderId) {
         setError("Invalid payment order response.");
         return;
       }
 
       const options = {
-        key: RAZORPAY_KEY,
-        amount: order.amount,
+        key: order.keyId,
+        amount: order.amountMinor,
         currency: order.currency || "INR",
         name: "SchoolOps",
         description: "Student fee payment",
-        order_id: order.id,
+        order_id: order.orderId,
         handler: async (response) => {
           try {
             const saveResponse = await fetch(`${API_BASE_URL}/api/student/payment/success`, {
               method: "POST",
               headers: auth.getAuthHeaders(),
               body: JSON.stringify({
-                payment_id: response.razorpay_payment_id,
-                account_id: account.id,
+                orderId: response.razorpay_order_id,
+                paymentId: response.razorpay_payment_id,
+                signature: response.razorpay_signature,
               }),
             });
 
@@ -141,6 +154,7 @@ const Account = () => {
 
             setPaymentAmount("");
             await fetchAccount();
+            await fetchHistory();
           } catch (err) {
             console.error("Error saving payment:", err);
             setError("Payment succeeded but save failed. Contact support.");
@@ -267,7 +281,7 @@ const Account = () => {
           <div className="card border-0 shadow-sm">
             <div className="card-body">
               <h5 className="mb-3">Recent Transactions</h5>
-              {totals.txns.length > 0 ? (
+              {history.length > 0 ? (
                 <div className="table-responsive">
                   <table className="table align-middle">
                     <thead>
@@ -279,7 +293,7 @@ const Account = () => {
                       </tr>
                     </thead>
                     <tbody>
-                      {totals.txns.slice(0, 10).map((txn, index) => (
+                      {history.map((txn, index) => (
                         <tr key={txn.id || index}>
                           <td>
                             <span
@@ -297,6 +311,15 @@ const Account = () => {
                       ))}
                     </tbody>
                   </table>
+                  {historyCursor && (
+                    <button
+                      className="btn btn-outline-secondary btn-sm"
+                      disabled={loadingHistory}
+                      onClick={() => fetchHistory(historyCursor)}
+                    >
+                      {loadingHistory ? "Loading..." : "Load older"}
+                    </button>
+                  )}
                 </div>
               ) : totals.txnIds.length > 0 ? (
                 <div>
@@ -1,6 +1,7 @@
 import { useEffect, useState } from "react";
 import auth from "../../utils/auth";
 import API_BASE_URL from "../../config";
+import subscribeEvents from "../../utils/events";
 
 const Classroom = () => {
   const [courses, setCourses] = useState([]);
@@ -68,6 +69,13 @@ const Classroom = () => {
     };
 
     fetchClassroom();
+
+    return subscribeEvents("/api/student/events", {
+      "classwork.posted": (event) => {
+        if (String(event.courseId) === selectedCourse) fetchClassroom();
+      },
+      reconnect: fetchClassroom,
+    });
   }, [selectedCourse]);
 
   const handleSubmitWork = async (classWorkId) => {
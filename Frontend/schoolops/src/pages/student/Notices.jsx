@@ -1,6 +1,7 @@
 import { useEffect, useState } from "react";
 import auth from "../../utils/auth";
 import API_BASE_URL from "../../config";
+import subscribeEvents from "../../utils/events";
 
 const Notices = () => {
   const [notices, setNotices] = useState([]);
@@ -18,7 +19,7 @@ const Notices = () => {
           return;
         }
         const data = await response.json();
-        setNotices(Array.isArray(data) ? data : []);
+        setNotices(Array.isArray(data.items) ? data.items : []);
       } catch (err) {
         console.error("Error fetching notices:", err);
         setError("Unable to fetch notices.");
@@ -28,6 +29,14 @@ const Notices = () => {
     };
 
     fetchNotices();
+
+    // pushed instead of polled; the refetch revalidates against the cached feed
+    return subscribeEvents("/api/student/events", {
+      "notice.created": fetchNotices,
+      "notice.deleted": (event) =>
+        setNotices((current) => current.filter((notice) => notice.id !== event.id)),
+      reconnect: fetchNotices,
+    });
   }, []);
 
   if (loading) {
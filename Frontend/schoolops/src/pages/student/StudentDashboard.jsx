@@ -35,6 +35,7 @@ const StudentDashboard = () => {
   const [profile, setProfile] = useState(null);
   const [courses, setCourses] = useState([]);
   const [notices, setNotices] = useState([]);
+  const [noticeTotal, setNoticeTotal] = useState(0);
   const [account, setAccount] = useState(null);
   const [loading, setLoading] = useState(true);
   const [refreshing, setRefreshing] = useState(false);
@@ -59,7 +60,7 @@ const StudentDashboard = () => {
       const [profileRes, coursesRes, noticesRes, accountRes] = await Promise.all([
         fetch(`${API_BASE_URL}/api/student/profile`, { headers: auth.getAuthHeaders() }),
         fetch(`${API_BASE_URL}/api/student/courses`, { headers: auth.getAuthHeaders() }),
-        fetch(`${API_BASE_URL}/api/student/notices`, { headers: auth.getAuthHeaders() }),
+        fetch(`${API_BASE_URL}/api/student/notices?size=4&count=true`, { headers: auth.getAuthHeaders() }),
         fetch(`${API_BASE_URL}/api/student/account`, { headers: auth.getAuthHeaders() }),
       ]);
 
@@ -77,7 +78,8 @@ const StudentDashboard = () => {
 
       setProfile(profileData || null);
       setCourses(Array.isArray(coursesData) ? coursesData : []);
-      setNotices(Array.isArray(noticesData) ? noticesData : []);
+      setNotices(Array.isArray(noticesData?.items) ? noticesData.items : []);
+      setNoticeTotal(noticesData?.total ?? 0);
       setAccount(accountData || null);
       setLastUpdated(new Date());
     } catch (err) {
@@ -105,12 +107,12 @@ const StudentDashboard = () => {
     return {
       fullName: profile?.name || `${profile?.firstName || ""} ${profile?.lastName || ""}`.trim() || "Student",
       courseCount: courses.length,
-      noticeCount: notices.length,
+      noticeCount: noticeTotal,
       pendingTotal,
       paidTotal,
       recentNotices: notices.slice(0, 4),
     };
-  }, [account, courses, notices, profile]);
+  }, [account, courses, notices, noticeTotal, profile]);
 
   const profileFields = useMemo(
     () => [
@@ -19,7 +19,7 @@ const Announcements = () => {
 
       if (response.ok) {
         const data = await response.json();
-        setAnnouncements(Array.isArray(data) ? data : []);
+        setAnnouncements(Array.isArray(data.items) ? data.items : []);
       } else {
         setError('Failed to load announcements');
       }
@@ -0,0 +1,74 @@
+import API_BASE_URL from "../config";
+import auth from "./auth";
+
+// Subscribe to a server-sent event stream (e.g. "/api/student/events").
+// EventSource cannot send the Authorization header, so the stream is read
+// with fetch. Reconnects after a drop; returns a function that closes it.
+const subscribeEvents = (path, handlers, retryMs = 5000) => {
+  let controller = null;
+  let retryTimer = null;
+  let closed = false;
+
+  const dispatch = (block) => {
+    let name = "message";
+    const data = [];
+    for (const line of block.split("\n")) {
+      if (line.startsWith("event:")) name = line.slice(6).trim();
+      else if (line.startsWith("data:")) data.push(line.slice(5).trimStart());
+    }
+    const handler = handlers[name];
+    if (!handler || data.length === 0) return;
+    try {
+      handler(JSON.parse(data.join("\n")));
+    } catch (err) {
+      console.error(`Error handling ${name} event:`, err);
+    }
+  };
+
+  const connect = async () => {
+    controller = new AbortController();
+    try {
+      const response = await fetch(`${API_BASE_URL}${path}`, {
+        headers: { Authorization: `Bearer ${auth.getToken()}`, Accept: "text/event-stream" },
+        signal: controller.signal,
+      });
+      if (!response.ok || !response.body) {
+        if (response.status === 401 || response.status === 403) closed = true;
+        return;
+      }
+
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = "";
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += value.replace(/\r\n/g, "\n");
+        let end;
+        while ((end = buffer.indexOf("\n\n")) >= 0) {
+          dispatch(buffer.slice(0, end));
+          buffer = buffer.slice(end + 2);
+        }
+      }
+    } catch (err) {
+      if (err.name !== "AbortError") console.error("Event stream error:", err);
+    } finally {
+      if (!closed) {
+        // missed events while disconnected: let the page reload its data
+        retryTimer = setTimeout(() => {
+          handlers.reconnect?.();
+          connect();
+        }, retryMs);
+      }
+    }
+  };
+
+  connect();
+
+  return () => {
+    closed = true;
+    clearTimeout(retryTimer);
+    controller?.abort();
+  };
+};
+
+export default subscribeEvents;
@@ -0,0 +1,33 @@
+import auth from "./auth";
+
+// Admin lists are keyset paged: { items, hasMore, nextCursor }.
+// A page is at most 200 rows, so lists page on with "Load more" and
+// pickers that must offer every option follow the cursor to the end.
+
+const withCursor = (url, cursor) =>
+  cursor ? `${url}${url.includes("?") ? "&" : "?"}cursor=${encodeURIComponent(cursor)}` : url;
+
+export const fetchPage = async (url, cursor = null) => {
+  const response = await fetch(withCursor(url, cursor), {
+    headers: auth.getAuthHeaders(),
+  });
+  if (!response.ok) {
+    throw new Error(`Request failed with status ${response.status}`);
+  }
+  const data = await response.json();
+  return {
+    items: Array.isArray(data.items) ? data.items : [],
+    nextCursor: data.hasMore ? data.nextCursor : null,
+  };
+};
+
+export const fetchAllPages = async (url) => {
+  const items = [];
+  let cursor = null;
+  do {
+    const page = await fetchPage(url, cursor);
+    items.push(...page.items);
+    cursor = page.nextCursor;
+  } while (cursor);
+  return items;
+};